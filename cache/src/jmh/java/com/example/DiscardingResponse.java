@@ -0,0 +1,36 @@
+package com.example;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * MockHttpServletResponse 는 본문을 모두 메모리에 쌓으므로 측정에서 제외하기 위해 본문을 버린다.
+ */
+public class DiscardingResponse extends MockHttpServletResponse {
+
+    private final ServletOutputStream outputStream = new ServletOutputStream() {
+
+        @Override
+        public void write(final int b) {
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) {
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(final WriteListener writeListener) {
+        }
+    };
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        return outputStream;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * 내장 Tomcat 에 띄운 App 전체(필터, 인터셉터, 렌더링, 압축)를 HTTP 로 호출한다.
+ * caches=defaults 는 application.yml 그대로, caches=enabled 는 opt-in 캐시(view, response, zero-copy)를 모두 켠다.
+ *
+ * 릴리스 전에 이전 결과와 비교한다. ./gradlew :cache:jmh -PjmhIncludes=RequestPipelineBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(16)
+@Fork(1)
+public class RequestPipelineBenchmark {
+
+    @Param({"defaults", "enabled"})
+    private String caches;
+
+    @Param({"/", "/etag", "/resource-versioning", "/assets/bundled"})
+    private String route;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() {
+        final var application = new SpringApplicationBuilder(App.class).web(WebApplicationType.SERVLET);
+        context = "enabled".equals(caches)
+                ? application.run("--server.port=0", "--cache.view.enabled=true", "--cache.response.enabled=true",
+                "--cache.static.zero-copy.enabled=true")
+                : application.run("--server.port=0");
+        final int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + route))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int request() throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray()).statusCode();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.bundle;
+
+import com.example.App;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * 캐시가 빈 브라우저가 페이지 하나를 여는 비용을 잰다.
+ * HTML 을 받고, 거기서 참조하는 js, css 를 동시에 받은 뒤 끝난다.
+ * - /assets: 정적 파일 12개를 하나씩 참조한다.
+ * - /assets/bundled: 같은 파일을 줄여서 이어 붙인 번들 2개를 참조한다.
+ *
+ * 페이지 로드당 요청 수와 전송 바이트는 보조 카운터(requests, bytes)로 함께 출력된다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class AssetBundleBenchmark {
+
+    private static final Pattern ASSET = Pattern.compile("(?:src|href)=\"(/resources/[^\"]+)\"");
+
+    @Param({"/assets", "/assets/bundled"})
+    private String page;
+
+    @Param({"identity", "gzip"})
+    private String acceptEncoding;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private String baseUrl;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Transfer {
+
+        public long requests;
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            requests = 0;
+            bytes = 0;
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(App.class).web(WebApplicationType.SERVLET).run("--server.port=0");
+        baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort();
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int loadPage(final Transfer transfer) throws IOException, InterruptedException {
+        final HttpResponse<byte[]> html = httpClient.send(request(page), HttpResponse.BodyHandlers.ofByteArray());
+        transfer.requests++;
+        transfer.bytes += html.body().length;
+
+        final var body = new String(html.body(), StandardCharsets.UTF_8);
+        final List<CompletableFuture<HttpResponse<byte[]>>> assets = ASSET.matcher(body).results()
+                .map(match -> httpClient.sendAsync(request(match.group(1)), HttpResponse.BodyHandlers.ofByteArray()))
+                .collect(Collectors.toList());
+        for (final var asset : assets) {
+            transfer.requests++;
+            transfer.bytes += asset.join().body().length;
+        }
+        return assets.size();
+    }
+
+    private HttpRequest request(final String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding)
+                .build();
+    }
+}
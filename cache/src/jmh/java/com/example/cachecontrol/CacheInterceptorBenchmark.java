@@ -0,0 +1,78 @@
+package com.example.cachecontrol;
+
+import com.example.App;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServletResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+/**
+ * 요청마다 실행되는 CacheInterceptor.preHandle 의 비용.
+ * - preHandle: 기동 시점에 만들어 둔 헤더 값을 핸들러 메소드로 찾는다.
+ * - resolvePerRequest: 예전처럼 요청마다 애너테이션을 읽고 CacheControl 을 만든다.
+ *
+ * route 가 "/" 이면 @CachePolicy 가 없어서 기본 정책을, "/cache-control" 이면 애너테이션 정책을 쓴다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheInterceptorBenchmark {
+
+    @Param({"/", "/cache-control"})
+    private String route;
+
+    private ConfigurableApplicationContext context;
+    private CacheInterceptor cacheInterceptor;
+    private HandlerMethod handler;
+    private MockHttpServletRequest request;
+    private HttpServletResponse response;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(App.class).web(WebApplicationType.SERVLET).run("--server.port=0");
+        cacheInterceptor = context.getBean(CacheInterceptor.class);
+        request = new MockHttpServletRequest("GET", route);
+        ServletRequestPathUtils.parseAndCache(request);
+        handler = (HandlerMethod) context.getBean("requestMappingHandlerMapping", RequestMappingHandlerMapping.class)
+                .getHandler(request).getHandler();
+        response = new MockHttpServletResponse();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean preHandle() throws Exception {
+        return cacheInterceptor.preHandle(request, response, handler);
+    }
+
+    @Benchmark
+    public HttpServletResponse resolvePerRequest() {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CachePolicyRegistry.resolve(handler.getMethod()));
+        return response;
+    }
+}
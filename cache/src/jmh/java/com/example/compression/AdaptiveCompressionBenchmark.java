@@ -0,0 +1,81 @@
+package com.example.compression;
+
+import com.example.DiscardingResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+/**
+ * CPU 사용률에 따라 AdaptiveCompressionFilter 가 응답 하나에 쓰는 시간을 잰다.
+ * 0.0 은 기본 레벨(6), 0.8 은 BEST_SPEED, 0.95 는 압축하지 않는 구간이다.
+ *
+ * ./gradlew :cache:jmh -PjmhIncludes=AdaptiveCompressionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdaptiveCompressionBenchmark {
+
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    @Param({"0.0", "0.8", "0.95"})
+    private double cpuLoad;
+
+    @Param({"16384", "262144"})
+    private int bodySize;
+
+    private byte[] body;
+    private AdaptiveCompressionFilter filter;
+
+    @Setup
+    public void setUp() {
+        final var page = new StringBuilder(bodySize);
+        for (int row = 0; page.length() < bodySize; row++) {
+            page.append("<tr><td>").append(row).append("</td><td>greeting-").append(row * 31 % 977)
+                    .append("</td><td class=\"status\">").append(row % 3 == 0 ? "cached" : "rendered")
+                    .append("</td></tr>\n");
+        }
+        body = page.substring(0, bodySize).getBytes(StandardCharsets.UTF_8);
+
+        final var policy = new CompressionPolicy(() -> cpuLoad, Set.of("text/html"), 215, 65536, 6, 0.7, 0.9);
+        filter = new AdaptiveCompressionFilter(policy, new AdaptiveCompressionMetrics(policy));
+    }
+
+    @Benchmark
+    public int adaptiveCompression() throws ServletException, IOException {
+        final var request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br");
+        final var response = new DiscardingResponse();
+        filter.doFilter(request, response, writeBody());
+        return response.getStatus();
+    }
+
+    private FilterChain writeBody() {
+        return (request, response) -> {
+            response.setContentType("text/html;charset=UTF-8");
+            final var outputStream = response.getOutputStream();
+            for (int offset = 0; offset < body.length; offset += CHUNK_SIZE) {
+                outputStream.write(body, offset, Math.min(CHUNK_SIZE, body.length - offset));
+            }
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.etag;
+
+import com.example.DiscardingResponse;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * ShallowEtagHeaderFilter 와 StreamingEtagFilter 를 1KB ~ 10MB 응답 본문으로 비교한다.
+ * 힙 할당량은 "-prof gc" 옵션으로 함께 확인한다.
+ *
+ * ./gradlew :cache:jmh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EtagFilterBenchmark {
+
+    private static final int CHUNK_SIZE = 8 * 1024;
+
+    @Param({"1024", "65536", "1048576", "10485760"})
+    private int bodySize;
+
+    private byte[] body;
+    private Filter shallowEtagHeaderFilter;
+    private Filter streamingEtagFilter;
+
+    @Setup
+    public void setUp() {
+        body = new byte[bodySize];
+        Arrays.fill(body, (byte) 'a');
+        shallowEtagHeaderFilter = new ShallowEtagHeaderFilter();
+        streamingEtagFilter = new StreamingEtagFilter();
+    }
+
+    @Benchmark
+    public int shallowEtagHeaderFilter() throws ServletException, IOException {
+        return doFilter(shallowEtagHeaderFilter);
+    }
+
+    @Benchmark
+    public int streamingEtagFilter() throws ServletException, IOException {
+        return doFilter(streamingEtagFilter);
+    }
+
+    private int doFilter(final Filter filter) throws ServletException, IOException {
+        final var request = new MockHttpServletRequest("GET", "/resources/js/index.js");
+        final var response = new DiscardingResponse();
+        filter.doFilter(request, response, writeBody());
+        return response.getStatus();
+    }
+
+    // 정적 리소스 핸들러처럼 본문을 8KB 단위로 나눠 쓴다.
+    private FilterChain writeBody() {
+        return (request, response) -> {
+            final var outputStream = response.getOutputStream();
+            for (int offset = 0; offset < body.length; offset += CHUNK_SIZE) {
+                outputStream.write(body, offset, Math.min(CHUNK_SIZE, body.length - offset));
+            }
+        };
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.etag;
+
+import com.example.resource.StaticResourceIndex;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+/**
+ * 304 응답의 초당 처리량을 비교한다.
+ * - streamingEtagFilter: 매 요청마다 classpath 리소스를 읽고 해시한 뒤 304 를 결정한다.
+ * - staticResourceEtagFilter: 기동 시점에 계산한 ETag 로 리소스를 읽지 않고 304 를 보낸다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StaticResourceEtagBenchmark {
+
+    private static final String PATH = "/js/index.js";
+
+    private String version;
+    private Filter staticResourceEtagFilter;
+    private Filter streamingEtagFilter;
+    private String streamingEtag;
+    private String indexedEtag;
+
+    @Setup
+    public void setUp() throws ServletException, IOException {
+        final var staticResourceIndex = new StaticResourceIndex(new DefaultResourceLoader());
+        staticResourceIndex.init();
+        version = staticResourceIndex.find(PATH).orElseThrow().getContentHash();
+
+        staticResourceEtagFilter = new StaticResourceEtagFilter(staticResourceIndex);
+        streamingEtagFilter = new StreamingEtagFilter();
+
+        final var response = new MockHttpServletResponse();
+        streamingEtagFilter.doFilter(request(null), response, serveResource());
+        streamingEtag = response.getHeader(HttpHeaders.ETAG);
+        indexedEtag = staticResourceIndex.find(PATH).orElseThrow().getEtag();
+    }
+
+    @Benchmark
+    public int streamingEtagFilter() throws ServletException, IOException {
+        final var response = new MockHttpServletResponse();
+        streamingEtagFilter.doFilter(request(streamingEtag), response, serveResource());
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public int staticResourceEtagFilter() throws ServletException, IOException {
+        final var response = new MockHttpServletResponse();
+        staticResourceEtagFilter.doFilter(request(indexedEtag), response, serveResource());
+        return response.getStatus();
+    }
+
+    private MockHttpServletRequest request(final String ifNoneMatch) {
+        final var request = new MockHttpServletRequest("GET", "/resources/" + version + PATH);
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return request;
+    }
+
+    // ResourceHttpRequestHandler 처럼 classpath 리소스를 열어 본문으로 복사한다.
+    private static FilterChain serveResource() {
+        return (request, response) -> {
+            try (InputStream inputStream = new ClassPathResource("static" + PATH).getInputStream()) {
+                StreamUtils.copy(inputStream, response.getOutputStream());
+            }
+        };
+    }
+}
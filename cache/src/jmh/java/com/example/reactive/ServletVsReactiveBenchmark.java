@@ -0,0 +1,90 @@
+package com.example.reactive;
+
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+
+import com.example.App;
+import com.example.version.ResourceVersion;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+
+/**
+ * 같은 라우트를 Tomcat(thread-per-request)과 Netty(event loop) 위에 띄워 HTTP 로 호출한다.
+ * 처리량은 Throughput, 지연 분포(p50, p99)는 SampleTime 결과로 본다.
+ *
+ * revalidate=true 이면 처음 받은 ETag 로 If-None-Match 를 보내서 304 경로만 잰다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(32)
+@Fork(1)
+public class ServletVsReactiveBenchmark {
+
+    @Param({"servlet", "reactive"})
+    private String stack;
+
+    @Param({"/", "/etag", "/resource-versioning", "static"})
+    private String route;
+
+    @Param({"false", "true"})
+    private boolean revalidate;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest request;
+
+    @Setup
+    public void setUp() throws IOException, InterruptedException {
+        context = "servlet".equals(stack)
+                ? new SpringApplicationBuilder(App.class).web(WebApplicationType.SERVLET).run("--server.port=0")
+                : new SpringApplicationBuilder(ReactiveApp.class).web(WebApplicationType.REACTIVE).run("--server.port=0");
+        final int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        final String path = "static".equals(route)
+                ? PREFIX_STATIC_RESOURCES + "/" + context.getBean(ResourceVersion.class).getVersion("/js/index.js")
+                .orElseThrow() + "/js/index.js"
+                : route;
+        final var uri = URI.create("http://localhost:" + port + path);
+
+        httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        final HttpRequest.Builder builder = HttpRequest.newBuilder(uri).header(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        if (revalidate) {
+            final HttpResponse<Void> first = httpClient.send(builder.build(), HttpResponse.BodyHandlers.discarding());
+            builder.header(HttpHeaders.IF_NONE_MATCH, first.headers().firstValue(HttpHeaders.ETAG).orElseThrow());
+        }
+        request = builder.build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int request() throws IOException, InterruptedException {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray()).statusCode();
+    }
+}
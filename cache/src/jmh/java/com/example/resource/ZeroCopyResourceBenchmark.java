@@ -0,0 +1,113 @@
+package com.example.resource;
+
+import com.example.DiscardingResponse;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+/**
+ * 큰 JS 번들을 보내는 비용을 비교한다. 할당량은 "-prof gc" 의 gc.alloc.rate.norm 으로 확인한다.
+ * - resourceHttpRequestHandler: 지금의 경로. 리소스 InputStream 을 응답으로 복사한다.
+ * - zeroCopyTransferTo: FileChannel.transferTo 로 보낸다.
+ * - zeroCopySendfile: Tomcat sendfile 을 쓸 수 있는 경우. 본문은 커넥터가 커널에서 보내므로 애플리케이션 비용만 남는다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ZeroCopyResourceBenchmark {
+
+    private static final String FILE_NAME = "bundle.js";
+    private static final FilterChain NOT_HANDLED = (request, response) -> {
+        throw new IllegalStateException("zero-copy filter did not handle " + FILE_NAME);
+    };
+
+    @Param({"65536", "1048576", "10485760"})
+    private int fileSize;
+
+    private Path staticDirectory;
+    private Path extractDirectory;
+    private String versionedUri;
+    private ResourceHttpRequestHandler resourceHttpRequestHandler;
+    private ZeroCopyResourceFilter zeroCopyResourceFilter;
+
+    @Setup
+    public void setUp() throws Exception {
+        staticDirectory = Files.createTempDirectory("static");
+        extractDirectory = Files.createTempDirectory("extracted");
+        final byte[] content = new byte[fileSize];
+        new Random(0).nextBytes(content);
+        Files.write(staticDirectory.resolve(FILE_NAME), content);
+
+        final var staticResourceIndex = new StaticResourceIndex(new DefaultResourceLoader(),
+                "file:" + staticDirectory + "/");
+        staticResourceIndex.init();
+        final var extractedStaticResources = new ExtractedStaticResources(extractDirectory);
+        extractedStaticResources.extract(staticResourceIndex);
+        zeroCopyResourceFilter = new ZeroCopyResourceFilter(staticResourceIndex, extractedStaticResources, 0);
+        versionedUri = "/resources/" + staticResourceIndex.find("/" + FILE_NAME).orElseThrow().getContentHash()
+                + "/" + FILE_NAME;
+
+        resourceHttpRequestHandler = new ResourceHttpRequestHandler();
+        resourceHttpRequestHandler.setLocations(List.of(new FileSystemResource(staticDirectory.toString() + "/")));
+        resourceHttpRequestHandler.setServletContext(new MockServletContext());
+        resourceHttpRequestHandler.afterPropertiesSet();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(staticDirectory);
+        FileSystemUtils.deleteRecursively(extractDirectory);
+    }
+
+    @Benchmark
+    public int resourceHttpRequestHandler() throws ServletException, IOException {
+        final var request = new MockHttpServletRequest("GET", "/resources/" + FILE_NAME);
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, FILE_NAME);
+        final var response = new DiscardingResponse();
+        resourceHttpRequestHandler.handleRequest(request, response);
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public int zeroCopyTransferTo() throws ServletException, IOException {
+        final var response = new DiscardingResponse();
+        zeroCopyResourceFilter.doFilter(new MockHttpServletRequest("GET", versionedUri), response, NOT_HANDLED);
+        return response.getStatus();
+    }
+
+    @Benchmark
+    public int zeroCopySendfile() throws ServletException, IOException {
+        final var request = new MockHttpServletRequest("GET", versionedUri);
+        request.setAttribute(ZeroCopyResourceFilter.SENDFILE_SUPPORTED_ATTRIBUTE, Boolean.TRUE);
+        final var response = new DiscardingResponse();
+        zeroCopyResourceFilter.doFilter(request, response, NOT_HANDLED);
+        return response.getStatus();
+    }
+}
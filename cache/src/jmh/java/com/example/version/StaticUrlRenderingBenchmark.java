@@ -0,0 +1,98 @@
+package com.example.version;
+
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+
+import com.example.App;
+import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.Helper;
+import com.github.jknack.handlebars.Template;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+/**
+ * 정적 파일을 references 개 참조하는 템플릿 하나를 렌더링하는 시간.
+ * 템플릿과 나머지 내용은 같고 staticUrls 헬퍼만 다르므로, 두 결과의 차이가 URL 을 만드는 비용이다.
+ * - staticUrlTable: 기동 시점에 만들어 둔 URL 을 꺼낸다(지금의 VersionHandlebarsHelper).
+ * - resourceChain: 요청마다 ResourceUrlProvider 로 URL 을 만든다(예전 방식).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StaticUrlRenderingBenchmark {
+
+    private static final List<String> PATHS = List.of(
+            "/js/index.js", "/js/demo/dom.js", "/js/demo/events.js", "/js/demo/format.js", "/js/demo/storage.js",
+            "/js/demo/http.js", "/js/demo/router.js", "/js/demo/widgets.js", "/js/demo/main.js",
+            "/css/demo/base.css", "/css/demo/layout.css", "/css/demo/components.css", "/css/demo/theme.css");
+
+    @Param({"12", "48"})
+    private int references;
+
+    private ConfigurableApplicationContext context;
+    private Template staticUrlTable;
+    private Template resourceChain;
+
+    @Setup
+    public void setUp() throws IOException {
+        context = new SpringApplicationBuilder(App.class).web(WebApplicationType.SERVLET).run("--server.port=0");
+        final var table = context.getBean(StaticUrlTable.class);
+        final var resourceUrlProvider = context.getBean(ResourceUrlProvider.class);
+        final String source = template(references);
+
+        staticUrlTable = new Handlebars()
+                .registerHelper("staticUrls", (Helper<String>) (path, options) -> table.get(path))
+                .compileInline(source);
+        resourceChain = new Handlebars()
+                .registerHelper("staticUrls", (Helper<String>) (path, options) ->
+                        resourceUrlProvider.getForLookupPath(PREFIX_STATIC_RESOURCES + path))
+                .compileInline(source);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String staticUrlTable() throws IOException {
+        return staticUrlTable.apply(null);
+    }
+
+    @Benchmark
+    public String resourceChain() throws IOException {
+        return resourceChain.apply(null);
+    }
+
+    private static String template(final int references) {
+        final var builder = new StringBuilder("<!DOCTYPE HTML>\n<html lang=\"ko\">\n<body>\n");
+        for (int i = 0; i < references; i++) {
+            final String path = PATHS.get(i % PATHS.size());
+            if (path.endsWith(".css")) {
+                builder.append("<link rel=\"stylesheet\" href=\"{{staticUrls '").append(path).append("'}}\" />\n");
+            } else {
+                builder.append("<script src=\"{{staticUrls '").append(path).append("'}}\"></script>\n");
+            }
+        }
+        return builder.append("</body>\n</html>\n").toString();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.version;
+
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+
+import com.example.App;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
+
+/**
+ * 템플릿에서 정적 파일마다 한 번씩 불리는 staticUrls 헬퍼의 비용. 할당량은 "-prof gc" 로 확인한다.
+ * - staticUrls: StaticUrlTable 에서 만들어 둔 URL 을 꺼낸다.
+ * - resourceChain: 예전 방식. ResourceUrlProvider 가 리소스 체인(VersionResourceResolver)으로 URL 을 만든다.
+ * - resourceVersion: 인덱스에서 content hash 만 꺼낸다. URL 문자열은 만들지 않는다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StaticUrlsBenchmark {
+
+    @Param({"/js/index.js", "/css/demo/components.css", "/js/missing.js"})
+    private String path;
+
+    private ConfigurableApplicationContext context;
+    private VersionHandlebarsHelper versionHandlebarsHelper;
+    private ResourceVersion resourceVersion;
+    private ResourceUrlProvider resourceUrlProvider;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(App.class).web(WebApplicationType.SERVLET).run("--server.port=0");
+        versionHandlebarsHelper = context.getBean(VersionHandlebarsHelper.class);
+        resourceVersion = context.getBean(ResourceVersion.class);
+        resourceUrlProvider = context.getBean(ResourceUrlProvider.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String staticUrls() {
+        return versionHandlebarsHelper.staticUrls(path, null);
+    }
+
+    @Benchmark
+    public String resourceChain() {
+        return resourceUrlProvider.getForLookupPath(PREFIX_STATIC_RESOURCES + path);
+    }
+
+    @Benchmark
+    public Optional<String> resourceVersion() {
+        return resourceVersion.getVersion(path);
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.view;
+
+import com.example.App;
+import com.github.jknack.handlebars.springmvc.HandlebarsViewResolver;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.ServletContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.View;
+
+/**
+ * Handlebars 뷰 하나를 렌더링하는 비용.
+ * - render: 매번 템플릿을 실행한다. staticUrls 헬퍼 호출이 포함된다.
+ * - renderCached: CachingView 가 L1 에서 찾은 바이트를 내보낸다(ETag 비교 포함).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TemplateRenderingBenchmark {
+
+    @Param({"index", "resource-versioning", "assets"})
+    private String viewName;
+
+    private ConfigurableApplicationContext context;
+    private ServletContext servletContext;
+    private View view;
+    private View cachingView;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(App.class).web(WebApplicationType.SERVLET).run("--server.port=0");
+        servletContext = ((WebApplicationContext) context).getServletContext();
+        view = context.getBean(HandlebarsViewResolver.class).resolveViewName(viewName, Locale.KOREA);
+        cachingView = new CachingView(viewName, view, new RenderedViewCache(16));
+        cachingView.render(Map.of(), request(), new MockHttpServletResponse());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int render() throws Exception {
+        final var response = new MockHttpServletResponse();
+        view.render(Map.of(), request(), response);
+        return response.getContentLength();
+    }
+
+    @Benchmark
+    public int renderCached() throws Exception {
+        final var response = new MockHttpServletResponse();
+        cachingView.render(Map.of(), request(), response);
+        return response.getContentLength();
+    }
+
+    private MockHttpServletRequest request() {
+        return new MockHttpServletRequest(servletContext, "GET", "/" + viewName);
+    }
+}
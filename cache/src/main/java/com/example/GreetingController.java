@@ -1,30 +1,30 @@
 package com.example;
 
-import org.springframework.http.CacheControl;
-import org.springframework.http.HttpHeaders;
+import com.example.cachecontrol.CachePolicy;
+import com.example.etag.ConditionalRequest;
+import com.example.version.TemplateVersionValidator;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
 
-import javax.servlet.http.HttpServletResponse;
-
 @Controller
 public class GreetingController {
 
+    /**
+     * 템플릿과 정적 리소스 버전이 같으면 렌더링하지 않고 304 를 보낸다.
+     */
+    @ConditionalRequest(TemplateVersionValidator.class)
     @GetMapping("/")
     public String index() {
         return "index";
     }
 
     /**
-     * 인터셉터를 쓰지 않고 response에 직접 헤더값을 지정할 수도 있다.
+     * response에 직접 헤더값을 지정하지 않고 핸들러마다 정책을 선언한다.
+     * 헤더 문자열은 기동 시점에 한 번만 만들어진다.
      */
+    @CachePolicy(noCache = true, cachePrivate = true)
     @GetMapping("/cache-control")
-    public String cacheControl(final HttpServletResponse response) {
-        final String cacheControl = CacheControl
-                .noCache()
-                .cachePrivate()
-                .getHeaderValue();
-        response.addHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+    public String cacheControl() {
         return "index";
     }
 
@@ -33,8 +33,25 @@ public class GreetingController {
         return "index";
     }
 
+    @ConditionalRequest(TemplateVersionValidator.class)
     @GetMapping("/resource-versioning")
     public String resourceVersioning() {
         return "resource-versioning";
     }
+
+    /**
+     * 정적 파일 여러 개를 하나씩 참조하는 페이지와, 같은 파일들을 번들로 묶어 참조하는 페이지.
+     * 요청 수와 전송량 차이는 AssetBundleBenchmark 로 비교한다.
+     */
+    @ConditionalRequest(TemplateVersionValidator.class)
+    @GetMapping("/assets")
+    public String assets() {
+        return "assets";
+    }
+
+    @ConditionalRequest(TemplateVersionValidator.class)
+    @GetMapping("/assets/bundled")
+    public String bundledAssets() {
+        return "assets-bundled";
+    }
 }
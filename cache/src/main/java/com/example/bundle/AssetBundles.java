@@ -0,0 +1,123 @@
+package com.example.bundle;
+
+import com.example.resource.StaticResourceIndex;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * 기동 시점에 classpath:/static/ 의 JS, CSS 를 번들 단위로 이어 붙이고 줄여서 로컬 디렉터리에 쓴다.
+ * 번들은 StaticResourceIndex 에 일반 정적 파일처럼 인덱싱되므로 content hash 버전, ETag, 압축본이 그대로 적용된다.
+ *
+ * 번들 파일은 {directory}/bundles/{name} 에 생기고 /resources/{hash}/bundles/{name} 로 나간다.
+ */
+public class AssetBundles {
+
+    public static final String BUNDLE_PREFIX = "/bundles/";
+
+    private static final Logger log = LoggerFactory.getLogger(AssetBundles.class);
+
+    private final ResourceLoader resourceLoader;
+    private final BundleProperties bundleProperties;
+
+    private Path directory;
+    private boolean temporary;
+
+    public AssetBundles(final ResourceLoader resourceLoader, final BundleProperties bundleProperties) {
+        this.resourceLoader = resourceLoader;
+        this.bundleProperties = bundleProperties;
+    }
+
+    public void build() {
+        final Map<String, List<String>> definitions = bundleProperties.getDefinitions();
+        if (definitions.isEmpty()) {
+            return;
+        }
+        try {
+            temporary = bundleProperties.getDirectory().isBlank();
+            directory = temporary
+                    ? Files.createTempDirectory("asset-bundles")
+                    : Path.of(bundleProperties.getDirectory());
+            final Path bundles = Files.createDirectories(directory.resolve(BUNDLE_PREFIX.substring(1)));
+            for (final Map.Entry<String, List<String>> definition : definitions.entrySet()) {
+                final String content = bundle(definition.getKey(), definition.getValue());
+                Files.writeString(bundles.resolve(definition.getKey()), content, StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 임시 디렉터리에 만든 번들은 재시작할 때마다 새로 만들므로 컨텍스트가 닫힐 때 지운다.
+     * 설정한 디렉터리는 그대로 둔다.
+     */
+    public void close() {
+        if (directory == null || !temporary) {
+            return;
+        }
+        try {
+            FileSystemUtils.deleteRecursively(directory);
+        } catch (IOException e) {
+            log.warn("failed to delete bundle directory {}", directory, e);
+        }
+    }
+
+    /**
+     * @return 번들을 만들었다면 정적 리소스 위치로 쓸 "file:" 경로
+     */
+    public Optional<String> getLocation() {
+        return Optional.ofNullable(directory).map(path -> "file:" + path.toAbsolutePath() + "/");
+    }
+
+    public static String path(final String name) {
+        return BUNDLE_PREFIX + name;
+    }
+
+    private String bundle(final String name, final List<String> sources) throws IOException {
+        final boolean javascript = name.endsWith(".js");
+        if (!javascript && !name.endsWith(".css")) {
+            throw new IllegalArgumentException("bundle must be .js or .css: " + name);
+        }
+        final var builder = new StringBuilder();
+        long originalLength = 0;
+        for (final String source : sources) {
+            final String content = read(source);
+            originalLength += content.length();
+            builder.append(minify(javascript, content));
+            // 세미콜론 없이 끝나는 파일이 다음 파일과 한 문장으로 붙지 않게 한다.
+            builder.append(javascript ? ";\n" : "\n");
+        }
+        log.info("bundled {} files into {} ({} -> {} chars)", sources.size(), name, originalLength, builder.length());
+        return builder.toString();
+    }
+
+    private String minify(final boolean javascript, final String content) {
+        if (!bundleProperties.isMinify()) {
+            return content;
+        }
+        return javascript ? JsMinifier.minify(content) : CssMinifier.minify(content);
+    }
+
+    private String read(final String source) throws IOException {
+        final Resource resource = resourceLoader.getResource(
+                StaticResourceIndex.STATIC_LOCATION + (source.startsWith("/") ? source.substring(1) : source));
+        if (!resource.isReadable()) {
+            throw new IllegalStateException("bundle source not found: " + source);
+        }
+        try (InputStream inputStream = resource.getInputStream()) {
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.bundle;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ResourceLoader;
+
+@Configuration
+@EnableConfigurationProperties(BundleProperties.class)
+public class BundleConfiguration {
+
+    /**
+     * StaticResourceIndex 가 번들 디렉터리까지 인덱싱하도록 인덱스보다 먼저 만들어진다.
+     */
+    @Bean(destroyMethod = "close")
+    public AssetBundles assetBundles(final ResourceLoader resourceLoader, final BundleProperties bundleProperties) {
+        final var assetBundles = new AssetBundles(resourceLoader, bundleProperties);
+        assetBundles.build();
+        return assetBundles;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.bundle;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "cache.bundles")
+public class BundleProperties {
+
+    /**
+     * 번들을 써 둘 디렉터리. 비어 있으면 임시 디렉터리를 만든다.
+     */
+    private String directory = "";
+
+    private boolean minify = true;
+
+    /**
+     * 번들 이름(예: demo.js) -> classpath:/static/ 기준 원본 경로 목록. 적힌 순서대로 이어 붙인다.
+     */
+    private Map<String, List<String>> definitions = new LinkedHashMap<>();
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(final String directory) {
+        this.directory = directory;
+    }
+
+    public boolean isMinify() {
+        return minify;
+    }
+
+    public void setMinify(final boolean minify) {
+        this.minify = minify;
+    }
+
+    public Map<String, List<String>> getDefinitions() {
+        return definitions;
+    }
+
+    public void setDefinitions(final Map<String, List<String>> definitions) {
+        this.definitions = definitions;
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.bundle;
+
+/**
+ * JSMin 과 같은 방식의 보수적인 JS 압축기.
+ * 주석을 지우고 공백을 줄이지만 이름을 바꾸거나 구문을 다시 쓰지 않는다.
+ *
+ * - 문자열, 템플릿 리터럴, 정규식 리터럴 안은 그대로 둔다.
+ * - 자동 세미콜론 삽입(ASI)에 기대는 코드가 깨지지 않도록 줄바꿈은 한 줄로 모으기만 하고 지우지 않는다.
+ *   단, 앞 문자가 {, (, [, ',', ; 처럼 문장이 이어질 수밖에 없는 경우에는 지운다.
+ */
+public final class JsMinifier {
+
+    private static final String NEWLINE_REMOVABLE_AFTER = "{([,;";
+    private static final String REGEX_ALLOWED_AFTER = "(,=:[!&|?{};+-*%<>~^";
+    private static final String[] REGEX_ALLOWED_AFTER_KEYWORDS = {
+            "return", "typeof", "case", "do", "else", "in", "of", "new", "delete", "void", "throw"};
+
+    private JsMinifier() {
+    }
+
+    public static String minify(final String js) {
+        final var out = new StringBuilder(js.length());
+        boolean pendingSpace = false;
+        boolean pendingNewline = false;
+        int i = 0;
+        while (i < js.length()) {
+            final char c = js.charAt(i);
+            final char next = i + 1 < js.length() ? js.charAt(i + 1) : 0;
+            if (c == '/' && next == '/') {
+                final int end = js.indexOf('\n', i);
+                i = end < 0 ? js.length() : end;
+                continue;
+            }
+            if (c == '/' && next == '*') {
+                final int end = js.indexOf("*/", i + 2);
+                final int commentEnd = end < 0 ? js.length() : end + 2;
+                if (js.substring(i, commentEnd).indexOf('\n') >= 0) {
+                    pendingNewline = true;
+                } else {
+                    pendingSpace = true;
+                }
+                i = commentEnd;
+                continue;
+            }
+            if (c == '\n' || c == '\r') {
+                pendingNewline = true;
+                i++;
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                i++;
+                continue;
+            }
+
+            appendPendingWhitespace(out, pendingSpace, pendingNewline, c);
+            pendingSpace = false;
+            pendingNewline = false;
+
+            if (c == '"' || c == '\'' || c == '`') {
+                i = copyLiteral(js, i, out, c);
+            } else if (c == '/' && isRegexAllowed(out, out.length() - 1)) {
+                i = copyRegex(js, i, out);
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return out.toString();
+    }
+
+    private static void appendPendingWhitespace(final StringBuilder out, final boolean pendingSpace,
+                                                final boolean pendingNewline, final char next) {
+        if (out.length() == 0 || (!pendingSpace && !pendingNewline)) {
+            return;
+        }
+        final char previous = out.charAt(out.length() - 1);
+        if (pendingNewline && NEWLINE_REMOVABLE_AFTER.indexOf(previous) < 0) {
+            out.append('\n');
+            return;
+        }
+        // a + +b, a - -b 처럼 공백을 지우면 ++, -- 가 되는 경우와 식별자 사이의 공백만 남긴다.
+        if ((isIdentifierPart(previous) && isIdentifierPart(next))
+                || ((previous == '+' || previous == '-') && previous == next)) {
+            out.append(' ');
+        }
+    }
+
+    private static boolean isIdentifierPart(final char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '\\' || c > 126;
+    }
+
+    private static boolean isRegexAllowed(final StringBuilder out, final int index) {
+        int i = index;
+        while (i >= 0 && Character.isWhitespace(out.charAt(i))) {
+            i--;
+        }
+        if (i < 0 || REGEX_ALLOWED_AFTER.indexOf(out.charAt(i)) >= 0) {
+            return true;
+        }
+        for (final String keyword : REGEX_ALLOWED_AFTER_KEYWORDS) {
+            final int start = i - keyword.length() + 1;
+            if (start >= 0 && out.substring(start, i + 1).equals(keyword)
+                    && (start == 0 || !isIdentifierPart(out.charAt(start - 1)))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int copyLiteral(final String js, final int start, final StringBuilder out, final char quote) {
+        int i = start;
+        out.append(quote);
+        i++;
+        while (i < js.length()) {
+            final char c = js.charAt(i);
+            out.append(c);
+            i++;
+            if (c == '\\' && i < js.length()) {
+                out.append(js.charAt(i));
+                i++;
+            } else if (c == quote) {
+                break;
+            }
+        }
+        return i;
+    }
+
+    private static int copyRegex(final String js, final int start, final StringBuilder out) {
+        int i = start;
+        boolean inClass = false;
+        out.append('/');
+        i++;
+        while (i < js.length()) {
+            final char c = js.charAt(i);
+            out.append(c);
+            i++;
+            if (c == '\\' && i < js.length()) {
+                out.append(js.charAt(i));
+                i++;
+            } else if (c == '[') {
+                inClass = true;
+            } else if (c == ']') {
+                inClass = false;
+            } else if (c == '/' && !inClass) {
+                break;
+            } else if (c == '\n') {
+                break;
+            }
+        }
+        return i;
+    }
+}
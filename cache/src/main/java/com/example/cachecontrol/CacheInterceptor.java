@@ -2,22 +2,28 @@ package com.example.cachecontrol;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import org.springframework.context.annotation.Bean;
-import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+/**
+ * 핸들러에 지정된 @CachePolicy 로 Cache-Control 헤더를 넣는다. 없으면 no-cache, private.
+ */
 public class CacheInterceptor implements HandlerInterceptor {
 
+    private final CachePolicyRegistry cachePolicyRegistry;
+
+    public CacheInterceptor(final CachePolicyRegistry cachePolicyRegistry) {
+        this.cachePolicyRegistry = cachePolicyRegistry;
+    }
+
     @Override
     public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler)
             throws Exception {
 
-        final String headerValue = CacheControl.noCache()
-                .cachePrivate()
-                .getHeaderValue();
-
-        response.setHeader(HttpHeaders.CACHE_CONTROL, headerValue);
+        final String headerValue = cachePolicyRegistry.getHeaderValue(handler);
+        if (!headerValue.isEmpty()) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, headerValue);
+        }
 
         return true;
     }
@@ -0,0 +1,36 @@
+package com.example.cachecontrol;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 핸들러 메소드(또는 컨트롤러 전체)의 Cache-Control 정책.
+ * 시간 값은 모두 초 단위이고 음수면 디렉티브를 넣지 않는다.
+ * 헤더 문자열은 기동 시점에 CachePolicyRegistry 가 한 번만 만든다.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CachePolicy {
+
+    long maxAge() default -1;
+
+    long sMaxAge() default -1;
+
+    long staleWhileRevalidate() default -1;
+
+    long staleIfError() default -1;
+
+    boolean noCache() default false;
+
+    boolean noStore() default false;
+
+    boolean mustRevalidate() default false;
+
+    boolean cachePublic() default false;
+
+    boolean cachePrivate() default false;
+}
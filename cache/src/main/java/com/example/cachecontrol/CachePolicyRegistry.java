@@ -0,0 +1,104 @@
+package com.example.cachecontrol;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+/**
+ * 핸들러 메소드별 Cache-Control 헤더 값을 기동 시점에 미리 만들어 둔다.
+ * 요청마다 CacheControl 빌더를 만들지 않고 맵에서 문자열만 꺼낸다.
+ */
+public class CachePolicyRegistry implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(CachePolicyRegistry.class);
+
+    /**
+     * @CachePolicy 가 없는 핸들러에 적용하는 기본 정책. 항상 재검증한다.
+     */
+    public static final String DEFAULT_HEADER_VALUE = CacheControl.noCache().cachePrivate().getHeaderValue();
+
+    private final ApplicationContext applicationContext;
+    private Map<Method, String> headerValues = Map.of();
+
+    public CachePolicyRegistry(final ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        final Map<Method, String> resolved = new HashMap<>();
+        for (final RequestMappingHandlerMapping handlerMapping
+                : applicationContext.getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+            for (final HandlerMethod handlerMethod : handlerMapping.getHandlerMethods().values()) {
+                resolved.put(handlerMethod.getMethod(), resolve(handlerMethod.getMethod()));
+            }
+        }
+        headerValues = Map.copyOf(resolved);
+        log.info("resolved Cache-Control for {} handler methods", headerValues.size());
+    }
+
+    /**
+     * @return 헤더를 넣지 않아야 하면 빈 문자열
+     */
+    public String getHeaderValue(final Object handler) {
+        if (handler instanceof HandlerMethod) {
+            final String headerValue = headerValues.get(((HandlerMethod) handler).getMethod());
+            if (headerValue != null) {
+                return headerValue;
+            }
+        }
+        return DEFAULT_HEADER_VALUE;
+    }
+
+    static String resolve(final Method method) {
+        CachePolicy cachePolicy = AnnotatedElementUtils.findMergedAnnotation(method, CachePolicy.class);
+        if (cachePolicy == null) {
+            cachePolicy = AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), CachePolicy.class);
+        }
+        if (cachePolicy == null) {
+            return DEFAULT_HEADER_VALUE;
+        }
+        final String headerValue = toCacheControl(cachePolicy).getHeaderValue();
+        return headerValue != null ? headerValue : "";
+    }
+
+    static CacheControl toCacheControl(final CachePolicy cachePolicy) {
+        if (cachePolicy.noStore()) {
+            return CacheControl.noStore();
+        }
+        CacheControl cacheControl = CacheControl.empty();
+        if (cachePolicy.noCache()) {
+            cacheControl = CacheControl.noCache();
+        } else if (cachePolicy.maxAge() >= 0) {
+            cacheControl = CacheControl.maxAge(cachePolicy.maxAge(), TimeUnit.SECONDS);
+        }
+        if (cachePolicy.sMaxAge() >= 0) {
+            cacheControl = cacheControl.sMaxAge(cachePolicy.sMaxAge(), TimeUnit.SECONDS);
+        }
+        if (cachePolicy.staleWhileRevalidate() >= 0) {
+            cacheControl = cacheControl.staleWhileRevalidate(cachePolicy.staleWhileRevalidate(), TimeUnit.SECONDS);
+        }
+        if (cachePolicy.staleIfError() >= 0) {
+            cacheControl = cacheControl.staleIfError(cachePolicy.staleIfError(), TimeUnit.SECONDS);
+        }
+        if (cachePolicy.mustRevalidate()) {
+            cacheControl = cacheControl.mustRevalidate();
+        }
+        if (cachePolicy.cachePublic()) {
+            cacheControl = cacheControl.cachePublic();
+        }
+        if (cachePolicy.cachePrivate()) {
+            cacheControl = cacheControl.cachePrivate();
+        }
+        return cacheControl;
+    }
+}
@@ -1,5 +1,9 @@
 package com.example.cachecontrol;
 
+import com.example.etag.ConditionalRequestInterceptor;
+import com.example.version.PreloadLinkInterceptor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
@@ -8,13 +12,41 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @Configuration
 public class CacheWebConfig implements WebMvcConfigurer {
 
+    private final ApplicationContext applicationContext;
+    private final boolean preloadPush;
+
+    public CacheWebConfig(final ApplicationContext applicationContext,
+                          @Value("${cache.preload.push:false}") final boolean preloadPush) {
+        this.applicationContext = applicationContext;
+        this.preloadPush = preloadPush;
+    }
+
     @Override
     public void addInterceptors(final InterceptorRegistry registry) {
         registry.addInterceptor(cacheInterceptor());
+        // 304 에도 Cache-Control 이 실리도록 CacheInterceptor 다음에 둔다.
+        registry.addInterceptor(conditionalRequestInterceptor());
+        // 304 로 끝나는 응답에는 preload 할 필요가 없다.
+        registry.addInterceptor(preloadLinkInterceptor());
+    }
+
+    @Bean
+    public CachePolicyRegistry cachePolicyRegistry() {
+        return new CachePolicyRegistry(applicationContext);
     }
 
     @Bean
     public CacheInterceptor cacheInterceptor() {
-        return new CacheInterceptor();
+        return new CacheInterceptor(cachePolicyRegistry());
+    }
+
+    @Bean
+    public ConditionalRequestInterceptor conditionalRequestInterceptor() {
+        return new ConditionalRequestInterceptor(applicationContext);
+    }
+
+    @Bean
+    public PreloadLinkInterceptor preloadLinkInterceptor() {
+        return new PreloadLinkInterceptor(preloadPush);
     }
 }
@@ -0,0 +1,62 @@
+package com.example.compression;
+
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.server.Compression;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * cache.compression.adaptive.enabled=true 이면 동적 응답의 압축을 Tomcat 대신 AdaptiveCompressionFilter 가 맡는다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "cache.compression.adaptive", name = "enabled", havingValue = "true")
+public class AdaptiveCompressionConfiguration {
+
+    @Bean
+    public CompressionPolicy compressionPolicy(
+            @Value("${cache.compression.adaptive.mime-types:text/html,text/xml,text/plain,application/json,application/xml}")
+            final Set<String> mimeTypes,
+            @Value("${cache.compression.adaptive.min-size:215}") final int minSize,
+            @Value("${cache.compression.adaptive.large-size:65536}") final int largeSize,
+            @Value("${cache.compression.adaptive.level:6}") final int level,
+            @Value("${cache.compression.adaptive.fast-above:0.7}") final double fastAbove,
+            @Value("${cache.compression.adaptive.skip-above:0.9}") final double skipAbove,
+            @Value("${cache.compression.adaptive.sample-interval-millis:1000}") final long sampleIntervalMillis) {
+        return new CompressionPolicy(new CpuLoadSampler(sampleIntervalMillis), mimeTypes, minSize, largeSize, level,
+                fastAbove, skipAbove);
+    }
+
+    @Bean
+    public AdaptiveCompressionMetrics adaptiveCompressionMetrics(final CompressionPolicy compressionPolicy) {
+        return new AdaptiveCompressionMetrics(compressionPolicy);
+    }
+
+    /**
+     * 응답 캐시(LOWEST - 3)보다 바깥, 메트릭 필터(LOWEST - 5)보다 안쪽.
+     */
+    @Bean
+    public FilterRegistrationBean<AdaptiveCompressionFilter> adaptiveCompressionFilter(
+            final CompressionPolicy compressionPolicy, final AdaptiveCompressionMetrics adaptiveCompressionMetrics) {
+        FilterRegistrationBean<AdaptiveCompressionFilter> filterRegistrationBean = new FilterRegistrationBean<>(
+                new AdaptiveCompressionFilter(compressionPolicy, adaptiveCompressionMetrics));
+        filterRegistrationBean.addUrlPatterns("/*");
+        filterRegistrationBean.setOrder(Ordered.LOWEST_PRECEDENCE - 4);
+
+        return filterRegistrationBean;
+    }
+
+    /**
+     * 필터가 압축하지 않기로 한 응답을 Tomcat 이 다시 압축하지 않도록 server.compression 을 끈다.
+     * server.* 설정을 적용하는 customizer(order 0) 뒤에 실행된다.
+     */
+    @Bean
+    public WebServerFactoryCustomizer<ConfigurableServletWebServerFactory> disableServerCompression() {
+        return factory -> factory.setCompression(new Compression());
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.compression;
+
+import java.io.IOException;
+import java.util.EnumSet;
+import java.util.Set;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * server.compression 은 부하와 상관없이 같은 레벨로 압축한다.
+ * 이 필터는 응답마다 CompressionPolicy 로 gzip 레벨을 고르고, CPU 가 바쁘면 압축하지 않고 그대로 보낸다.
+ *
+ * 응답 캐시가 압축 전 본문을 보관하도록 그보다 바깥에, 보낸 바이트를 세는 메트릭 필터보다는 안쪽에 둔다.
+ */
+public class AdaptiveCompressionFilter extends OncePerRequestFilter {
+
+    private static final Set<ContentCoding> GZIP_ONLY = EnumSet.of(ContentCoding.GZIP);
+
+    private final CompressionPolicy policy;
+    private final AdaptiveCompressionMetrics metrics;
+
+    public AdaptiveCompressionFilter(final CompressionPolicy policy, final AdaptiveCompressionMetrics metrics) {
+        this.policy = policy;
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        if (HttpMethod.HEAD.matches(request.getMethod()) || !acceptsGzip(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        final var responseWrapper = new CompressingResponseWrapper(response, policy, metrics);
+        try {
+            filterChain.doFilter(request, responseWrapper);
+        } finally {
+            if (isAsyncStarted(request)) {
+                responseWrapper.passThrough();
+            } else {
+                responseWrapper.complete();
+            }
+        }
+    }
+
+    private static boolean acceptsGzip(final HttpServletRequest request) {
+        return ContentCoding.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING), GZIP_ONLY) != null;
+    }
+}
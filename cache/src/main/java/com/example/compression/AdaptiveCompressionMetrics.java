@@ -0,0 +1,59 @@
+package com.example.compression;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.Deflater;
+
+/**
+ * AdaptiveCompressionFilter 가 내린 결정을 레벨별, 건너뛴 이유별로 센다.
+ */
+public class AdaptiveCompressionMetrics {
+
+    private final CompressionPolicy policy;
+    private final LongAdder[] compressed = newAdders(Deflater.BEST_COMPRESSION + 1);
+    private final LongAdder[] skipped = newAdders(CompressionDecision.Skip.values().length);
+    private final LongAdder originalBytes = new LongAdder();
+    private final LongAdder compressedBytes = new LongAdder();
+    private final LongAdder compressionNanos = new LongAdder();
+
+    public AdaptiveCompressionMetrics(final CompressionPolicy policy) {
+        this.policy = policy;
+    }
+
+    void recordSkipped(final CompressionDecision.Skip skip) {
+        skipped[skip.ordinal()].increment();
+    }
+
+    void recordCompressed(final int level, final long originalBytes, final long compressedBytes, final long nanos) {
+        compressed[level].increment();
+        this.originalBytes.add(originalBytes);
+        this.compressedBytes.add(compressedBytes);
+        this.compressionNanos.add(nanos);
+    }
+
+    public AdaptiveCompressionStats stats() {
+        final Map<Integer, Long> byLevel = new TreeMap<>();
+        for (int level = Deflater.BEST_SPEED; level < compressed.length; level++) {
+            final long count = compressed[level].sum();
+            if (count > 0) {
+                byLevel.put(level, count);
+            }
+        }
+        final Map<CompressionDecision.Skip, Long> byReason = new TreeMap<>();
+        for (final CompressionDecision.Skip skip : CompressionDecision.Skip.values()) {
+            byReason.put(skip, skipped[skip.ordinal()].sum());
+        }
+        return new AdaptiveCompressionStats(policy.getCpuLoad(), byLevel, byReason, originalBytes.sum(),
+                compressedBytes.sum(), TimeUnit.NANOSECONDS.toMillis(compressionNanos.sum()));
+    }
+
+    private static LongAdder[] newAdders(final int length) {
+        final LongAdder[] adders = new LongAdder[length];
+        for (int i = 0; i < length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
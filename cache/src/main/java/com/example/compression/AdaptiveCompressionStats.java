@@ -0,0 +1,64 @@
+package com.example.compression;
+
+import java.util.Map;
+
+public class AdaptiveCompressionStats {
+
+    private final double cpuLoad;
+    private final Map<Integer, Long> compressed;
+    private final Map<CompressionDecision.Skip, Long> skipped;
+    private final long originalBytes;
+    private final long compressedBytes;
+    private final long compressionMillis;
+
+    public AdaptiveCompressionStats(final double cpuLoad, final Map<Integer, Long> compressed,
+                                    final Map<CompressionDecision.Skip, Long> skipped, final long originalBytes,
+                                    final long compressedBytes, final long compressionMillis) {
+        this.cpuLoad = cpuLoad;
+        this.compressed = compressed;
+        this.skipped = skipped;
+        this.originalBytes = originalBytes;
+        this.compressedBytes = compressedBytes;
+        this.compressionMillis = compressionMillis;
+    }
+
+    /**
+     * 가장 최근에 잰 시스템 CPU 사용률 (0~1)
+     */
+    public double getCpuLoad() {
+        return cpuLoad;
+    }
+
+    /**
+     * gzip 레벨별 압축한 응답 수
+     */
+    public Map<Integer, Long> getCompressed() {
+        return compressed;
+    }
+
+    /**
+     * 이유별 압축하지 않은 응답 수
+     */
+    public Map<CompressionDecision.Skip, Long> getSkipped() {
+        return skipped;
+    }
+
+    public long getOriginalBytes() {
+        return originalBytes;
+    }
+
+    public long getCompressedBytes() {
+        return compressedBytes;
+    }
+
+    public long getCompressionMillis() {
+        return compressionMillis;
+    }
+
+    /**
+     * 압축한 크기 / 원본 크기
+     */
+    public double getRatio() {
+        return originalBytes == 0 ? 0 : (double) compressedBytes / originalBytes;
+    }
+}
@@ -0,0 +1,367 @@
+package com.example.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.FastByteArrayOutputStream;
+
+/**
+ * 본문을 policy 의 largeSize 까지 모았다가 압축 여부와 레벨을 정한다.
+ * 그보다 큰 응답은 그 시점에 정하고 나머지는 바로 압축하거나 그대로 흘려보낸다.
+ */
+class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+    private static final String NO_TRANSFORM = "no-transform";
+    private static final String WEAK_PREFIX = "W/";
+
+    private enum Mode {
+        BUFFERING, COMPRESSING, PASS_THROUGH
+    }
+
+    private final CompressionPolicy policy;
+    private final AdaptiveCompressionMetrics metrics;
+    private final FastByteArrayOutputStream buffer = new FastByteArrayOutputStream(1024);
+
+    private Mode mode = Mode.BUFFERING;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+    private LeveledGzipOutputStream gzip;
+    private long contentLength = -1;
+    private long originalBytes;
+    private long compressionNanos;
+
+    CompressingResponseWrapper(final HttpServletResponse response, final CompressionPolicy policy,
+                               final AdaptiveCompressionMetrics metrics) {
+        super(response);
+        this.policy = policy;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (outputStream == null) {
+            outputStream = new CompressingOutputStream();
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(final int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(final long len) {
+        if (mode == Mode.BUFFERING) {
+            contentLength = len;
+        } else if (mode == Mode.PASS_THROUGH) {
+            super.setContentLengthLong(len);
+        }
+    }
+
+    @Override
+    public void setHeader(final String name, final String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else if (mode == Mode.COMPRESSING && HttpHeaders.ETAG.equalsIgnoreCase(name)) {
+            super.setHeader(name, weaken(value));
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void setTrailerFields(final Supplier<Map<String, String>> supplier) {
+        super.setTrailerFields(() -> weakenTrailerEtag(supplier.get()));
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        flushWriter();
+        decide(buffer.size(), false);
+        if (gzip != null) {
+            gzip.flush();
+        }
+        super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(final int sc) throws IOException {
+        discardBuffer();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(final int sc, final String msg) throws IOException {
+        discardBuffer();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendRedirect(final String location) throws IOException {
+        discardBuffer();
+        super.sendRedirect(location);
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        if (mode == Mode.BUFFERING) {
+            buffer.reset();
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        if (mode == Mode.BUFFERING) {
+            buffer.reset();
+            contentLength = -1;
+        }
+    }
+
+    /**
+     * 체인이 끝난 뒤 호출된다. 버퍼에 남은 응답은 이제 크기를 알 수 있으므로 결정하고, 압축 중이었다면 마무리한다.
+     */
+    void complete() throws IOException {
+        flushWriter();
+        decide(buffer.size(), true);
+        if (gzip == null) {
+            return;
+        }
+        try {
+            gzip.finish();
+            metrics.recordCompressed(gzip.getLevel(), originalBytes, gzip.getCompressedBytes(), compressionNanos);
+        } finally {
+            gzip.release();
+        }
+    }
+
+    /**
+     * 비동기 처리가 시작되면 체인이 끝나도 본문이 끝나지 않는다. 모아 둔 바이트를 그대로 흘려보낸다.
+     */
+    void passThrough() throws IOException {
+        if (mode != Mode.BUFFERING) {
+            return;
+        }
+        mode = Mode.PASS_THROUGH;
+        if (contentLength >= 0) {
+            super.setContentLengthLong(contentLength);
+        }
+        buffer.writeTo(getResponse().getOutputStream());
+        buffer.reset();
+    }
+
+    /**
+     * @param finished 본문을 다 받았는지. 다 받았다면 버퍼 크기가 곧 Content-Length 다.
+     */
+    private void decide(final long size, final boolean finished) throws IOException {
+        if (mode != Mode.BUFFERING) {
+            return;
+        }
+        if (!isEligible()) {
+            passThrough();
+            return;
+        }
+        final CompressionDecision decision = policy.decide(getContentType(),
+                contentLength >= 0 ? contentLength : size);
+        if (decision.getSkip() != CompressionDecision.Skip.CONTENT_TYPE) {
+            addVary();
+        }
+        if (!decision.isCompress()) {
+            metrics.recordSkipped(decision.getSkip());
+            if (contentLength < 0 && finished) {
+                contentLength = buffer.size();
+            }
+            passThrough();
+            return;
+        }
+
+        mode = Mode.COMPRESSING;
+        super.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        // 압축한 표현은 바이트가 다르므로 원본에 대해 계산한 강한 ETag 를 약한 ETag 로 바꾼다.
+        final String etag = getHeader(HttpHeaders.ETAG);
+        if (etag != null) {
+            super.setHeader(HttpHeaders.ETAG, weaken(etag));
+        }
+        gzip = new LeveledGzipOutputStream(getResponse().getOutputStream(), decision.getLevel());
+        if (buffer.size() > 0) {
+            compress(buffer.toByteArrayUnsafe(), 0, buffer.size());
+        }
+        buffer.reset();
+    }
+
+    /**
+     * 이미 압축된 본문, 부분 응답, 본문 없는 응답은 건드리지 않는다.
+     */
+    private boolean isEligible() {
+        final int status = getStatus();
+        if (status < 200 || status >= 300 || status == HttpServletResponse.SC_NO_CONTENT
+                || status == HttpServletResponse.SC_PARTIAL_CONTENT) {
+            return false;
+        }
+        if (getHeader(HttpHeaders.CONTENT_ENCODING) != null) {
+            return false;
+        }
+        final String cacheControl = getHeader(HttpHeaders.CACHE_CONTROL);
+        return cacheControl == null || !cacheControl.contains(NO_TRANSFORM);
+    }
+
+    private void compress(final byte[] b, final int off, final int len) throws IOException {
+        final long start = System.nanoTime();
+        gzip.write(b, off, len);
+        compressionNanos += System.nanoTime() - start;
+        originalBytes += len;
+    }
+
+    private Map<String, String> weakenTrailerEtag(final Map<String, String> trailers) {
+        if (mode != Mode.COMPRESSING || trailers == null) {
+            return trailers;
+        }
+        final String etag = trailers.get(HttpHeaders.ETAG);
+        if (etag == null) {
+            return trailers;
+        }
+        final Map<String, String> weakened = new HashMap<>(trailers);
+        weakened.put(HttpHeaders.ETAG, weaken(etag));
+        return weakened;
+    }
+
+    private void addVary() {
+        for (final String vary : getHeaders(HttpHeaders.VARY)) {
+            if (vary.toLowerCase(Locale.ROOT).contains("accept-encoding") || vary.trim().equals("*")) {
+                return;
+            }
+        }
+        addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    private static String weaken(final String etag) {
+        return etag.startsWith(WEAK_PREFIX) ? etag : WEAK_PREFIX + etag;
+    }
+
+    private void discardBuffer() {
+        buffer.reset();
+        if (mode == Mode.BUFFERING) {
+            mode = Mode.PASS_THROUGH;
+        }
+    }
+
+    private void flushWriter() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    private class CompressingOutputStream extends ServletOutputStream {
+
+        @Override
+        public void write(final int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (mode == Mode.BUFFERING && buffer.size() + len > policy.getLargeSize()) {
+                decide(buffer.size() + (long) len, false);
+            }
+            switch (mode) {
+                case BUFFERING:
+                    buffer.write(b, off, len);
+                    break;
+                case COMPRESSING:
+                    compress(b, off, len);
+                    break;
+                default:
+                    getResponse().getOutputStream().write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (mode == Mode.COMPRESSING) {
+                gzip.flush();
+            } else if (mode == Mode.PASS_THROUGH) {
+                getResponse().getOutputStream().flush();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return mode == Mode.BUFFERING || rawOutputStream().isReady();
+        }
+
+        /**
+         * 논블로킹 쓰기에서는 isReady() 가 컨테이너 스트림을 따라야 하므로, 아직 정하지 않았다면 압축하지 않고 흘려보낸다.
+         */
+        @Override
+        public void setWriteListener(final WriteListener writeListener) {
+            try {
+                passThrough();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rawOutputStream().setWriteListener(writeListener);
+        }
+
+        private ServletOutputStream rawOutputStream() {
+            try {
+                return getResponse().getOutputStream();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * 레벨을 고를 수 있는 GZIPOutputStream. flush 하면 그때까지 압축한 바이트를 내보낸다 (SYNC_FLUSH).
+     */
+    private static class LeveledGzipOutputStream extends GZIPOutputStream {
+
+        // gzip 헤더 10 바이트와 CRC, 길이 trailer 8 바이트
+        private static final int GZIP_OVERHEAD = 18;
+
+        private final int level;
+
+        LeveledGzipOutputStream(final OutputStream out, final int level) throws IOException {
+            super(out, 8192, true);
+            this.level = level;
+            def.setLevel(level);
+        }
+
+        int getLevel() {
+            return level;
+        }
+
+        long getCompressedBytes() {
+            return def.getBytesWritten() + GZIP_OVERHEAD;
+        }
+
+        /**
+         * 응답 스트림은 컨테이너가 닫으므로 close 대신 Deflater 의 네이티브 메모리만 돌려준다.
+         */
+        void release() {
+            def.end();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.compression;
+
+import java.util.zip.Deflater;
+
+/**
+ * 응답 하나에 대한 압축 결정. 압축한다면 gzip 레벨을, 압축하지 않는다면 그 이유를 담는다.
+ */
+public final class CompressionDecision {
+
+    public enum Skip {
+        CONTENT_TYPE, SIZE, LOAD
+    }
+
+    private static final CompressionDecision[] LEVELS = new CompressionDecision[Deflater.BEST_COMPRESSION + 1];
+    private static final CompressionDecision[] SKIPS = new CompressionDecision[Skip.values().length];
+
+    static {
+        for (int level = Deflater.BEST_SPEED; level <= Deflater.BEST_COMPRESSION; level++) {
+            LEVELS[level] = new CompressionDecision(level, null);
+        }
+        for (final Skip skip : Skip.values()) {
+            SKIPS[skip.ordinal()] = new CompressionDecision(Deflater.NO_COMPRESSION, skip);
+        }
+    }
+
+    private final int level;
+    private final Skip skip;
+
+    private CompressionDecision(final int level, final Skip skip) {
+        this.level = level;
+        this.skip = skip;
+    }
+
+    public static CompressionDecision compress(final int level) {
+        if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("gzip level must be 1-9: " + level);
+        }
+        return LEVELS[level];
+    }
+
+    public static CompressionDecision skip(final Skip skip) {
+        return SKIPS[skip.ordinal()];
+    }
+
+    public boolean isCompress() {
+        return skip == null;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * @return 압축하지 않는 이유. 압축한다면 null
+     */
+    public Skip getSkip() {
+        return skip;
+    }
+
+    @Override
+    public String toString() {
+        return isCompress() ? "gzip(" + level + ")" : "skip(" + skip + ")";
+    }
+}
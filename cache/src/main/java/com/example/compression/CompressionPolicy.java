@@ -0,0 +1,82 @@
+package com.example.compression;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.DoubleSupplier;
+import java.util.stream.Collectors;
+import java.util.zip.Deflater;
+
+/**
+ * 응답마다 content type, 크기, 현재 CPU 사용률을 보고 gzip 레벨을 고른다.
+ *
+ * - 압축할 content type 이 아니거나 minSize 보다 작으면 압축하지 않는다.
+ * - CPU 사용률이 skipAbove 이상이면 압축하지 않는다. 압축을 기다리며 요청이 밀리는 것보다 바이트를 더 보내는 편이 낫다.
+ * - fastAbove 이상이거나 largeSize 이상인 응답은 BEST_SPEED 로 압축한다. 압축 비용은 크기에 비례하기 때문이다.
+ * - 그 밖에는 level 로 압축한다.
+ */
+public class CompressionPolicy {
+
+    private final DoubleSupplier cpuLoad;
+    private final Set<String> mimeTypes;
+    private final int minSize;
+    private final int largeSize;
+    private final int level;
+    private final double fastAbove;
+    private final double skipAbove;
+
+    public CompressionPolicy(final DoubleSupplier cpuLoad, final Set<String> mimeTypes, final int minSize,
+                             final int largeSize, final int level, final double fastAbove, final double skipAbove) {
+        if (fastAbove > skipAbove) {
+            throw new IllegalArgumentException("fastAbove must not exceed skipAbove: " + fastAbove + " > " + skipAbove);
+        }
+        this.cpuLoad = cpuLoad;
+        this.mimeTypes = mimeTypes.stream()
+                .map(mimeType -> mimeType.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+        this.minSize = minSize;
+        this.largeSize = largeSize;
+        this.level = CompressionDecision.compress(level).getLevel();
+        this.fastAbove = fastAbove;
+        this.skipAbove = skipAbove;
+    }
+
+    public boolean isCompressible(final String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        final int semicolon = contentType.indexOf(';');
+        final String mimeType = semicolon < 0 ? contentType : contentType.substring(0, semicolon);
+        return mimeTypes.contains(mimeType.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @param size 본문 크기. 아직 다 쓰이지 않은 큰 응답이면 지금까지 쓰인 크기(largeSize 이상)
+     */
+    public CompressionDecision decide(final String contentType, final long size) {
+        if (!isCompressible(contentType)) {
+            return CompressionDecision.skip(CompressionDecision.Skip.CONTENT_TYPE);
+        }
+        if (size < minSize) {
+            return CompressionDecision.skip(CompressionDecision.Skip.SIZE);
+        }
+        final double load = cpuLoad.getAsDouble();
+        if (load >= skipAbove) {
+            return CompressionDecision.skip(CompressionDecision.Skip.LOAD);
+        }
+        if (load >= fastAbove || size >= largeSize) {
+            return CompressionDecision.compress(Deflater.BEST_SPEED);
+        }
+        return CompressionDecision.compress(level);
+    }
+
+    /**
+     * 이 크기까지는 본문을 모아서 정확한 크기로 결정한다.
+     */
+    public int getLargeSize() {
+        return largeSize;
+    }
+
+    public double getCpuLoad() {
+        return cpuLoad.getAsDouble();
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.compression;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * 미리 압축해 둘 수 있는 content coding. 선언 순서가 곧 서버가 선호하는 순서다.
+ */
+public enum ContentCoding {
+
+    BROTLI("br", ".br"),
+    GZIP("gzip", ".gz");
+
+    private final String token;
+    private final String extension;
+
+    ContentCoding(final String token, final String extension) {
+        this.token = token;
+        this.extension = extension;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Accept-Encoding 헤더와 준비된 variant 를 비교해 보낼 coding 을 고른다. 없으면 null (identity).
+     */
+    public static ContentCoding negotiate(final String acceptEncoding, final Set<ContentCoding> available) {
+        if (acceptEncoding == null || available.isEmpty()) {
+            return null;
+        }
+        final String header = acceptEncoding.toLowerCase(Locale.ROOT);
+        for (final ContentCoding coding : values()) {
+            if (available.contains(coding) && isAccepted(header, coding.token)) {
+                return coding;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * coding 을 직접 적은 항목이 "*" 보다 우선한다. "*;q=0, gzip" 이면 gzip 은 받는다.
+     */
+    private static boolean isAccepted(final String header, final String token) {
+        String[] wildcard = null;
+        for (final String part : header.split(",")) {
+            final String[] params = part.trim().split(";");
+            final String name = params[0].trim();
+            if (name.equals(token)) {
+                return !hasZeroQuality(params);
+            }
+            if (name.equals("*") && wildcard == null) {
+                wildcard = params;
+            }
+        }
+        return wildcard != null && !hasZeroQuality(wildcard);
+    }
+
+    private static boolean hasZeroQuality(final String[] params) {
+        for (int i = 1; i < params.length; i++) {
+            final String param = params[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2)) == 0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
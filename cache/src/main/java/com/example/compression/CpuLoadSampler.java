@@ -0,0 +1,47 @@
+package com.example.compression;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+
+/**
+ * 시스템 CPU 사용률(0~1)을 interval 마다 한 번만 읽는다. 응답마다 MXBean 을 호출하지 않기 위해서다.
+ * 읽을 수 없는 플랫폼이면 0 으로 본다.
+ */
+public class CpuLoadSampler implements DoubleSupplier {
+
+    private final com.sun.management.OperatingSystemMXBean operatingSystem;
+    private final long intervalNanos;
+    private final AtomicLong nextSampleAt;
+
+    private volatile double load;
+
+    public CpuLoadSampler(final long intervalMillis) {
+        final var bean = ManagementFactory.getOperatingSystemMXBean();
+        this.operatingSystem = bean instanceof com.sun.management.OperatingSystemMXBean
+                ? (com.sun.management.OperatingSystemMXBean) bean : null;
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.nextSampleAt = new AtomicLong(System.nanoTime());
+    }
+
+    @Override
+    public double getAsDouble() {
+        final long now = System.nanoTime();
+        final long next = nextSampleAt.get();
+        if (now - next >= 0 && nextSampleAt.compareAndSet(next, now + intervalNanos)) {
+            load = sample();
+        }
+        return load;
+    }
+
+    @SuppressWarnings("deprecation")
+    private double sample() {
+        if (operatingSystem == null) {
+            return 0;
+        }
+        // Java 11 에는 getCpuLoad 가 없다. 직전 호출 이후 구간의 평균이므로 interval 이 곧 측정 구간이 된다.
+        final double value = operatingSystem.getSystemCpuLoad();
+        return value < 0 ? 0 : value;
+    }
+}
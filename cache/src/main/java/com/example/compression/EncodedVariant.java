@@ -0,0 +1,34 @@
+package com.example.compression;
+
+/**
+ * 정적 파일 하나를 특정 coding 으로 압축해 둔 결과.
+ * 같은 리소스라도 표현(representation)이 다르므로 강한 ETag 도 coding 별로 다르게 준다.
+ */
+public class EncodedVariant {
+
+    private final ContentCoding coding;
+    private final byte[] content;
+    private final String etag;
+
+    public EncodedVariant(final ContentCoding coding, final byte[] content, final String contentHash) {
+        this.coding = coding;
+        this.content = content;
+        this.etag = "\"" + contentHash + "-" + coding.getToken() + "\"";
+    }
+
+    public ContentCoding getCoding() {
+        return coding;
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public int getContentLength() {
+        return content.length;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.compression;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.resource.HttpResource;
+
+/**
+ * 리소스 체인이 찾은 원본 리소스를 기동 시점에 만든 압축본으로 바꿔서 내보낸다.
+ * variant 가 null 이면 원본을 그대로 보내되, 압축본이 존재한다는 사실을 Vary 헤더로 알린다.
+ */
+public class PrecompressedResource extends AbstractResource implements HttpResource {
+
+    private final Resource original;
+    private final EncodedVariant variant;
+    private final String etag;
+
+    public PrecompressedResource(final Resource original, final EncodedVariant variant, final String etag) {
+        this.original = original;
+        this.variant = variant;
+        this.etag = etag;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return variant != null ? new ByteArrayInputStream(variant.getContent()) : original.getInputStream();
+    }
+
+    @Override
+    public boolean exists() {
+        return original.exists();
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        return variant != null ? variant.getContentLength() : original.contentLength();
+    }
+
+    @Override
+    public long lastModified() throws IOException {
+        return original.lastModified();
+    }
+
+    @Override
+    public String getFilename() {
+        return original.getFilename();
+    }
+
+    @Override
+    public String getDescription() {
+        final String coding = variant != null ? variant.getCoding().getToken() : "identity";
+        return "precompressed [" + original.getDescription() + "] (" + coding + ")";
+    }
+
+    @Override
+    public HttpHeaders getResponseHeaders() {
+        final HttpHeaders headers = original instanceof HttpResource
+                ? ((HttpResource) original).getResponseHeaders()
+                : new HttpHeaders();
+        if (variant != null) {
+            headers.set(HttpHeaders.CONTENT_ENCODING, variant.getCoding().getToken());
+        }
+        headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        headers.setETag(etag);
+        return headers;
+    }
+}
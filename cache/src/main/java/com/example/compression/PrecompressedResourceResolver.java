@@ -0,0 +1,49 @@
+package com.example.compression;
+
+import com.example.resource.StaticResource;
+import com.example.resource.StaticResourceIndex;
+import java.util.List;
+import java.util.Optional;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+/**
+ * Accept-Encoding 을 보고 StaticResourceIndex 에 준비된 압축본을 고른다.
+ * VersionResourceResolver 보다 앞에 두어야 버전 계산에는 압축하지 않은 원본이 쓰인다.
+ */
+public class PrecompressedResourceResolver extends AbstractResourceResolver {
+
+    private final StaticResourceIndex staticResourceIndex;
+
+    public PrecompressedResourceResolver(final StaticResourceIndex staticResourceIndex) {
+        this.staticResourceIndex = staticResourceIndex;
+    }
+
+    @Override
+    protected Resource resolveResourceInternal(final HttpServletRequest request, final String requestPath,
+                                               final List<? extends Resource> locations,
+                                               final ResourceResolverChain chain) {
+        final Resource resource = chain.resolveResource(request, requestPath, locations);
+        if (request == null || resource == null) {
+            return resource;
+        }
+        final Optional<StaticResource> staticResource = staticResourceIndex.find(resource)
+                .filter(StaticResource::hasVariants);
+        if (staticResource.isEmpty()) {
+            return resource;
+        }
+        final ContentCoding coding = ContentCoding.negotiate(
+                request.getHeader(HttpHeaders.ACCEPT_ENCODING), staticResource.get().getCodings());
+        return new PrecompressedResource(resource, staticResource.get().getVariant(coding),
+                staticResource.get().getEtag(coding));
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(final String resourceUrlPath, final List<? extends Resource> locations,
+                                            final ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+}
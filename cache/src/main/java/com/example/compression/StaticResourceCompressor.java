@@ -0,0 +1,107 @@
+package com.example.compression;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+
+/**
+ * 기동 시점에 정적 파일의 압축본을 한 번만 만든다.
+ * 요청마다 Tomcat 이 gzip 하던 CPU 비용을 없애는 것이 목적이다.
+ *
+ * - gzip 은 JDK 의 Deflater 로 직접 만든다.
+ * - brotli 는 JDK 에 인코더가 없으므로 빌드 단계에서 만든 "index.js.br" 같은 사이드 파일이 있을 때만 사용한다.
+ */
+public class StaticResourceCompressor {
+
+    // application.yml 의 server.compression.min-response-size 와 같은 기준
+    public static final int MIN_COMPRESSION_SIZE = 215;
+
+    private static final Set<String> COMPRESSIBLE_SUBTYPES = Set.of("javascript", "json", "xml", "svg+xml");
+
+    public Map<ContentCoding, EncodedVariant> compress(final Resource resource, final String contentHash) {
+        final Map<ContentCoding, EncodedVariant> variants = new EnumMap<>(ContentCoding.class);
+        final String filename = resource.getFilename();
+        if (filename == null || !isCompressible(filename)) {
+            return variants;
+        }
+        try {
+            final byte[] content = read(resource);
+            if (content.length < MIN_COMPRESSION_SIZE) {
+                return variants;
+            }
+            for (final ContentCoding coding : ContentCoding.values()) {
+                final Resource sideFile = sideFile(resource, filename + coding.getExtension());
+                if (sideFile != null && sideFile.isReadable()) {
+                    variants.put(coding, new EncodedVariant(coding, read(sideFile), contentHash));
+                }
+            }
+            if (!variants.containsKey(ContentCoding.GZIP)) {
+                final byte[] gzipped = gzip(content);
+                if (gzipped.length < content.length) {
+                    variants.put(ContentCoding.GZIP, new EncodedVariant(ContentCoding.GZIP, gzipped, contentHash));
+                }
+            }
+            return variants;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * "index.js.gz" 처럼 다른 파일의 압축본인 사이드 파일은 독립된 리소스로 인덱싱하지 않는다.
+     */
+    public static boolean isSideFile(final String path) {
+        for (final ContentCoding coding : ContentCoding.values()) {
+            if (path.endsWith(coding.getExtension())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean isCompressible(final String filename) {
+        return MediaTypeFactory.getMediaType(filename)
+                .map(StaticResourceCompressor::isCompressibleType)
+                .orElse(false);
+    }
+
+    private static boolean isCompressibleType(final MediaType mediaType) {
+        return "text".equals(mediaType.getType()) || COMPRESSIBLE_SUBTYPES.contains(mediaType.getSubtype());
+    }
+
+    private static Resource sideFile(final Resource resource, final String relativePath) {
+        try {
+            return resource.createRelative(relativePath);
+        } catch (IOException e) {
+            // 메모리에만 있는 리소스처럼 상대 경로를 만들 수 없는 경우
+            return null;
+        }
+    }
+
+    private static byte[] gzip(final byte[] content) throws IOException {
+        final var outputStream = new ByteArrayOutputStream(content.length);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzipOutputStream.write(content);
+        }
+        return outputStream.toByteArray();
+    }
+
+    private static byte[] read(final Resource resource) throws IOException {
+        try (InputStream inputStream = resource.getInputStream()) {
+            return inputStream.readAllBytes();
+        }
+    }
+}
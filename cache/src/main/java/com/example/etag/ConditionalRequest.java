@@ -0,0 +1,22 @@
+package com.example.etag;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 핸들러를 실행하기 전에 If-None-Match / If-Modified-Since 를 확인한다.
+ * 값이 같으면 핸들러와 뷰 렌더링 없이 바로 304 를 보낸다.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ConditionalRequest {
+
+    /**
+     * 응답 본문을 만들지 않고 검증자를 계산하는 빈 타입
+     */
+    Class<? extends RequestValidator> value();
+}
@@ -0,0 +1,66 @@
+package com.example.etag;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+/**
+ * @ConditionalRequest 가 붙은 핸들러는 실행 전에 검증자로 조건부 요청을 처리한다.
+ * ShallowEtagHeaderFilter 처럼 렌더링한 본문을 해시하지 않으므로 304 에 렌더링 비용이 들지 않는다.
+ */
+public class ConditionalRequestInterceptor implements HandlerInterceptor, SmartInitializingSingleton {
+
+    private final ApplicationContext applicationContext;
+    private Map<Method, RequestValidator> validators = Map.of();
+
+    public ConditionalRequestInterceptor(final ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        final Map<Method, RequestValidator> resolved = new HashMap<>();
+        for (final RequestMappingHandlerMapping handlerMapping
+                : applicationContext.getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+            for (final HandlerMethod handlerMethod : handlerMapping.getHandlerMethods().values()) {
+                final ConditionalRequest conditionalRequest = findAnnotation(handlerMethod.getMethod());
+                if (conditionalRequest != null) {
+                    resolved.put(handlerMethod.getMethod(), applicationContext.getBean(conditionalRequest.value()));
+                }
+            }
+        }
+        validators = Map.copyOf(resolved);
+    }
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler)
+            throws Exception {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        final RequestValidator validator = validators.get(((HandlerMethod) handler).getMethod());
+        if (validator == null) {
+            return true;
+        }
+
+        // GET, HEAD 는 304, 그 밖의 메소드는 If-Match 가 맞지 않을 때 412 로 끝난다.
+        final var webRequest = new ServletWebRequest(request, response);
+        return !webRequest.checkNotModified(validator.getEtag(request), validator.getLastModified(request));
+    }
+
+    private static ConditionalRequest findAnnotation(final Method method) {
+        final ConditionalRequest conditionalRequest = AnnotatedElementUtils.findMergedAnnotation(
+                method, ConditionalRequest.class);
+        return conditionalRequest != null ? conditionalRequest
+                : AnnotatedElementUtils.findMergedAnnotation(method.getDeclaringClass(), ConditionalRequest.class);
+    }
+}
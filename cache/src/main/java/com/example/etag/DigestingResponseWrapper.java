@@ -0,0 +1,314 @@
+package com.example.etag;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.FastByteArrayOutputStream;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * 응답 본문을 흘려보내면서 MD5 다이제스트를 누적하는 래퍼.
+ * 본문이 threshold 를 넘기 전까지만 메모리에 잡아 두고, 넘는 순간부터는 원래 응답으로 바로 쓴다.
+ */
+class DigestingResponseWrapper extends HttpServletResponseWrapper {
+
+    private static final String DIGEST_ALGORITHM = "MD5";
+    private static final String NO_STORE = "no-store";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private enum Mode {
+        BUFFERING, STREAMING, PASS_THROUGH
+    }
+
+    private final int bufferThreshold;
+    private final boolean trailersAccepted;
+    private final MessageDigest digest;
+    private final FastByteArrayOutputStream buffer = new FastByteArrayOutputStream(1024);
+
+    private Mode mode = Mode.BUFFERING;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+    private volatile String streamedEtag;
+    private long hashedBytes;
+    private long hashingNanos;
+
+    DigestingResponseWrapper(final HttpServletResponse response, final int bufferThreshold,
+                             final boolean trailersAccepted) {
+        super(response);
+        this.bufferThreshold = bufferThreshold;
+        this.trailersAccepted = trailersAccepted;
+        this.digest = newDigest();
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (outputStream == null) {
+            outputStream = new DigestingOutputStream();
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(final int len) {
+        if (mode != Mode.BUFFERING) {
+            super.setContentLength(len);
+        }
+    }
+
+    @Override
+    public void setContentLengthLong(final long len) {
+        if (mode != Mode.BUFFERING) {
+            super.setContentLengthLong(len);
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        flushWriter();
+        stopBuffering();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(final int sc) throws IOException {
+        discardBuffer();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(final int sc, final String msg) throws IOException {
+        discardBuffer();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendRedirect(final String location) throws IOException {
+        discardBuffer();
+        super.sendRedirect(location);
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        if (mode == Mode.BUFFERING) {
+            buffer.reset();
+            digest.reset();
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        if (mode == Mode.BUFFERING) {
+            buffer.reset();
+            digest.reset();
+        }
+    }
+
+    /**
+     * 버퍼링을 멈추고 지금까지 모은 바이트를 내보낸다.
+     * ETag 를 붙일 수 있는 응답이면 다이제스트 계산은 계속 이어간다.
+     */
+    void stopBuffering() throws IOException {
+        if (mode != Mode.BUFFERING) {
+            return;
+        }
+        // trailer 로 보낼 수 없으면 다이제스트를 계산해도 쓸 곳이 없다.
+        mode = isEligibleForEtag() && announceTrailer() ? Mode.STREAMING : Mode.PASS_THROUGH;
+        buffer.writeTo(getResponse().getOutputStream());
+        buffer.reset();
+    }
+
+    /**
+     * 체인이 끝난 뒤 호출된다. 버퍼에 남아 있는 작은 응답이라면 ETag 와 조건부 요청을 처리한다.
+     */
+    void complete(final HttpServletRequest request) throws IOException {
+        flushWriter();
+        if (mode != Mode.BUFFERING) {
+            return;
+        }
+        final var rawResponse = (HttpServletResponse) getResponse();
+        if (!isEligibleForEtag()) {
+            mode = Mode.PASS_THROUGH;
+            writeBufferTo(rawResponse);
+            return;
+        }
+
+        final String etag = toEtag(digest.digest());
+        rawResponse.setHeader(HttpHeaders.ETAG, etag);
+        if (new ServletWebRequest(request, rawResponse).checkNotModified(etag)) {
+            buffer.reset();
+            return;
+        }
+        writeBufferTo(rawResponse);
+    }
+
+    long getHashedBytes() {
+        return hashedBytes;
+    }
+
+    long getHashingNanos() {
+        return hashingNanos;
+    }
+
+    private void updateDigest(final byte[] b, final int off, final int len) {
+        final long start = System.nanoTime();
+        digest.update(b, off, len);
+        hashingNanos += System.nanoTime() - start;
+        hashedBytes += len;
+    }
+
+    private void writeBufferTo(final HttpServletResponse rawResponse) throws IOException {
+        if (!rawResponse.isCommitted() && buffer.size() > 0) {
+            rawResponse.setContentLength(buffer.size());
+        }
+        buffer.writeTo(rawResponse.getOutputStream());
+        buffer.reset();
+    }
+
+    private boolean isEligibleForEtag() {
+        final int status = getStatus();
+        if (status < 200 || status >= 300 || status == HttpServletResponse.SC_PARTIAL_CONTENT) {
+            return false;
+        }
+        if (getHeader(HttpHeaders.ETAG) != null) {
+            return false;
+        }
+        final String cacheControl = getHeader(HttpHeaders.CACHE_CONTROL);
+        return cacheControl == null || !cacheControl.contains(NO_STORE);
+    }
+
+    /**
+     * @return trailer 를 등록했으면 true
+     */
+    private boolean announceTrailer() {
+        if (!trailersAccepted || isCommitted()) {
+            return false;
+        }
+        try {
+            setTrailerFields(() -> Map.of(HttpHeaders.ETAG, streamedEtag()));
+        } catch (IllegalStateException e) {
+            // 커넥터가 trailer 를 지원하지 않으면(HTTP/1.0 등) ETag 없이 스트리밍한다.
+            return false;
+        }
+        setHeader(HttpHeaders.TRAILER, HttpHeaders.ETAG);
+        return true;
+    }
+
+    private synchronized String streamedEtag() {
+        if (streamedEtag == null) {
+            streamedEtag = toEtag(digest.digest());
+        }
+        return streamedEtag;
+    }
+
+    private void discardBuffer() {
+        buffer.reset();
+        mode = Mode.PASS_THROUGH;
+    }
+
+    private void flushWriter() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    static String toEtag(final byte[] hash) {
+        final var builder = new StringBuilder(hash.length * 2 + 3);
+        builder.append("\"0");
+        for (final byte b : hash) {
+            builder.append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+        }
+        return builder.append('"').toString();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private class DigestingOutputStream extends ServletOutputStream {
+
+        @Override
+        public void write(final int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (mode == Mode.BUFFERING && buffer.size() + len > bufferThreshold) {
+                stopBuffering();
+            }
+            switch (mode) {
+                case BUFFERING:
+                    updateDigest(b, off, len);
+                    buffer.write(b, off, len);
+                    break;
+                case STREAMING:
+                    updateDigest(b, off, len);
+                    getResponse().getOutputStream().write(b, off, len);
+                    break;
+                default:
+                    getResponse().getOutputStream().write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (mode != Mode.BUFFERING) {
+                getResponse().getOutputStream().flush();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return mode == Mode.BUFFERING || rawOutputStream().isReady();
+        }
+
+        /**
+         * 논블로킹 쓰기에서는 isReady() 가 컨테이너 스트림을 따라야 하므로, 버퍼링 중이었다면 그만두고 그대로 흘려보낸다.
+         */
+        @Override
+        public void setWriteListener(final WriteListener writeListener) {
+            if (mode == Mode.BUFFERING) {
+                mode = Mode.PASS_THROUGH;
+                try {
+                    buffer.writeTo(rawOutputStream());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                buffer.reset();
+            }
+            rawOutputStream().setWriteListener(writeListener);
+        }
+
+        private ServletOutputStream rawOutputStream() {
+            try {
+                return getResponse().getOutputStream();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
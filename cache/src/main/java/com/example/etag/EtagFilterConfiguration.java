@@ -1,18 +1,38 @@
 package com.example.etag;
 
-import java.util.Collections;
+import com.example.metrics.CacheMetrics;
+import com.example.resource.StaticResourceIndex;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.core.Ordered;
 
 @Configuration
 public class EtagFilterConfiguration {
 
+    /**
+     * 정적 리소스는 미리 계산해 둔 ETag 로 먼저 조건부 요청을 처리한다.
+     */
     @Bean
-    public FilterRegistrationBean<ShallowEtagHeaderFilter> shallowEtagHeaderFilter() {
-        FilterRegistrationBean<ShallowEtagHeaderFilter> filterRegistrationBean = new FilterRegistrationBean(new ShallowEtagHeaderFilter());
+    public FilterRegistrationBean<StaticResourceEtagFilter> staticResourceEtagFilter(
+            final StaticResourceIndex staticResourceIndex) {
+        FilterRegistrationBean<StaticResourceEtagFilter> filterRegistrationBean = new FilterRegistrationBean<>(
+                new StaticResourceEtagFilter(staticResourceIndex));
+        filterRegistrationBean.addUrlPatterns("/resources/*");
+        filterRegistrationBean.setOrder(Ordered.LOWEST_PRECEDENCE - 2);
+
+        return filterRegistrationBean;
+    }
+
+    /**
+     * ShallowEtagHeaderFilter 대신 응답을 통째로 복사하지 않는 StreamingEtagFilter 를 사용한다.
+     */
+    @Bean
+    public FilterRegistrationBean<StreamingEtagFilter> streamingEtagFilter(final CacheMetrics cacheMetrics) {
+        FilterRegistrationBean<StreamingEtagFilter> filterRegistrationBean = new FilterRegistrationBean<>(
+                new StreamingEtagFilter(StreamingEtagFilter.DEFAULT_BUFFER_THRESHOLD, cacheMetrics));
         filterRegistrationBean.addUrlPatterns("/etag", "/resources/*"); // string 여러개를 가변인자로 받는 메소드
+        filterRegistrationBean.setOrder(Ordered.LOWEST_PRECEDENCE);
 
         return filterRegistrationBean;
     }
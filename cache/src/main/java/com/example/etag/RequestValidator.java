@@ -0,0 +1,19 @@
+package com.example.etag;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * 응답을 렌더링하지 않고 ETag, Last-Modified 를 계산한다. 요청마다 호출되므로 싸야 한다.
+ */
+public interface RequestValidator {
+
+    /**
+     * @return 따옴표를 포함한 ETag. null 이면 ETag 를 비교하지 않는다.
+     */
+    String getEtag(HttpServletRequest request);
+
+    /**
+     * @return epoch millis. 음수면 Last-Modified 를 비교하지 않는다.
+     */
+    long getLastModified(HttpServletRequest request);
+}
@@ -0,0 +1,141 @@
+package com.example.etag;
+
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+import static com.example.version.CacheBustingWebConfig.STATIC_RESOURCES_CACHE_CONTROL;
+
+import com.example.compression.ContentCoding;
+import com.example.resource.ByteRanges;
+import com.example.resource.StaticResource;
+import com.example.resource.StaticResourceIndex;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * /resources/{content hash}/** 요청에 대해 StaticResourceIndex 에 미리 계산해 둔 ETag 를 사용한다.
+ * If-None-Match 가 일치하면 리소스를 열어보지도 않고 바로 304 로 응답한다.
+ * If-Range 가 일치하지 않으면 Range 를 지워서 뒤의 핸들러가 전체 내용을 보내게 한다.
+ *
+ * VersionResourceResolver 는 압축 여부와 상관없이 W/"{hash}" 를 붙이는데, weak ETag 로는 If-Range 를 만족할 수 없다.
+ * 표현(coding)마다 다른 인덱스의 strong ETag 가 그대로 나가도록 뒤에서 바꾸는 ETag 는 무시한다.
+ */
+public class StaticResourceEtagFilter extends OncePerRequestFilter {
+
+    private final StaticResourceIndex staticResourceIndex;
+    private final String cacheControl;
+
+    public StaticResourceEtagFilter(final StaticResourceIndex staticResourceIndex) {
+        this.staticResourceIndex = staticResourceIndex;
+        this.cacheControl = STATIC_RESOURCES_CACHE_CONTROL.getHeaderValue();
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        final Optional<StaticResource> staticResource = findStaticResource(request);
+        if (staticResource.isEmpty()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        final String etag = negotiatedEtag(request, staticResource.get());
+        if (staticResource.get().hasVariants()) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        response.setHeader(HttpHeaders.ETAG, etag);
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            return;
+        }
+        final var etagResponse = new IndexEtagResponse(response);
+        if (request.getHeader(HttpHeaders.RANGE) != null
+                && !ByteRanges.ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), etag)) {
+            filterChain.doFilter(new FullContentRequest(request), etagResponse);
+            return;
+        }
+        filterChain.doFilter(request, etagResponse);
+    }
+
+    // 압축본은 원본과 다른 표현이므로 Accept-Encoding 에 따라 비교할 ETag 가 달라진다.
+    private static String negotiatedEtag(final HttpServletRequest request, final StaticResource staticResource) {
+        final ContentCoding coding = ContentCoding.negotiate(
+                request.getHeader(HttpHeaders.ACCEPT_ENCODING), staticResource.getCodings());
+        return staticResource.getEtag(coding);
+    }
+
+    private Optional<StaticResource> findStaticResource(final HttpServletRequest request) {
+        final String method = request.getMethod();
+        if (!HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)) {
+            return Optional.empty();
+        }
+        final String uri = request.getRequestURI().substring(request.getContextPath().length());
+        if (!uri.startsWith(PREFIX_STATIC_RESOURCES)) {
+            return Optional.empty();
+        }
+        return staticResourceIndex.findVersioned(uri.substring(PREFIX_STATIC_RESOURCES.length()));
+    }
+
+    /**
+     * ResourceHttpRequestHandler 는 If-Range 를 보지 않으므로 Range 헤더 자체를 감춘다.
+     */
+    private static class FullContentRequest extends HttpServletRequestWrapper {
+
+        FullContentRequest(final HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public String getHeader(final String name) {
+            return isRange(name) ? null : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(final String name) {
+            return isRange(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            return Collections.enumeration(Collections.list(super.getHeaderNames()).stream()
+                    .filter(name -> !isRange(name))
+                    .collect(Collectors.toList()));
+        }
+
+        private static boolean isRange(final String name) {
+            return HttpHeaders.RANGE.equalsIgnoreCase(name) || HttpHeaders.IF_RANGE.equalsIgnoreCase(name);
+        }
+    }
+
+    private static class IndexEtagResponse extends HttpServletResponseWrapper {
+
+        IndexEtagResponse(final HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public void setHeader(final String name, final String value) {
+            if (!HttpHeaders.ETAG.equalsIgnoreCase(name)) {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(final String name, final String value) {
+            if (!HttpHeaders.ETAG.equalsIgnoreCase(name)) {
+                super.addHeader(name, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.etag;
+
+import com.example.metrics.CacheMetrics;
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * ShallowEtagHeaderFilter 는 응답 전체를 byte 배열에 복사한 뒤 MD5 를 계산한다.
+ * 이 필터는 응답이 클라이언트로 흘러가는 동안 다이제스트를 점진적으로 계산한다.
+ *
+ * - bufferThreshold 이하의 작은 응답은 기존처럼 ETag 헤더를 붙이고 If-None-Match 에 304 로 응답한다.
+ * - 그보다 큰 응답은 버퍼링을 멈추고 바로 스트리밍한다.
+ *   클라이언트가 "TE: trailers" 를 보냈다면 완성된 강한 ETag 를 trailer 로 전송한다.
+ * - 핸들러나 앞단 필터가 ETag 를 미리 계산해 두었다면(precomputed digest) 그 값을 그대로 사용한다.
+ */
+public class StreamingEtagFilter extends OncePerRequestFilter {
+
+    public static final int DEFAULT_BUFFER_THRESHOLD = 64 * 1024;
+
+    private static final String TRAILERS = "trailers";
+
+    private final int bufferThreshold;
+    private final CacheMetrics cacheMetrics;
+
+    public StreamingEtagFilter() {
+        this(DEFAULT_BUFFER_THRESHOLD);
+    }
+
+    public StreamingEtagFilter(final int bufferThreshold) {
+        this(bufferThreshold, null);
+    }
+
+    /**
+     * @param cacheMetrics null 이 아니면 해시에 쓴 시간과 바이트 수를 기록한다.
+     */
+    public StreamingEtagFilter(final int bufferThreshold, final CacheMetrics cacheMetrics) {
+        this.bufferThreshold = bufferThreshold;
+        this.cacheMetrics = cacheMetrics;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        if (!isEligibleRequest(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        final var responseWrapper = new DigestingResponseWrapper(response, bufferThreshold, acceptsTrailers(request));
+        try {
+            filterChain.doFilter(request, responseWrapper);
+        } finally {
+            if (isAsyncStarted(request)) {
+                responseWrapper.stopBuffering();
+            } else {
+                responseWrapper.complete(request);
+            }
+            if (cacheMetrics != null && responseWrapper.getHashedBytes() > 0) {
+                cacheMetrics.recordHashing(responseWrapper.getHashedBytes(), responseWrapper.getHashingNanos());
+            }
+        }
+    }
+
+    private static boolean isEligibleRequest(final HttpServletRequest request) {
+        final String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method);
+    }
+
+    private static boolean acceptsTrailers(final HttpServletRequest request) {
+        final String te = request.getHeader(HttpHeaders.TE);
+        return te != null && te.toLowerCase().contains(TRAILERS);
+    }
+}
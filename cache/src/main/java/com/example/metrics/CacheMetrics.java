@@ -0,0 +1,70 @@
+package com.example.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.stereotype.Component;
+
+/**
+ * 캐시 계층이 실제로 얼마나 효과가 있는지 보기 위한 카운터 모음.
+ * 요청 경로에서 호출되므로 락 없이 LongAdder 에 더하기만 한다.
+ */
+@Component
+public class CacheMetrics {
+
+    private final ConcurrentHashMap<String, RouteMetrics> routes = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CodingMetrics> encodedResponses = new ConcurrentHashMap<>();
+
+    private final LongAdder hashedResponses = new LongAdder();
+    private final LongAdder hashedBytes = new LongAdder();
+    private final LongAdder hashingNanos = new LongAdder();
+
+    public void recordResponse(final String route, final int status, final long bytes) {
+        routes.computeIfAbsent(route, key -> new RouteMetrics()).record(status, bytes);
+    }
+
+    /**
+     * @param coding Content-Encoding 헤더 값
+     */
+    public void recordEncoded(final String coding, final long bytes) {
+        encodedResponses.computeIfAbsent(coding, key -> new CodingMetrics()).record(bytes);
+    }
+
+    public void recordHashing(final long bytes, final long nanos) {
+        hashedResponses.increment();
+        hashedBytes.add(bytes);
+        hashingNanos.add(nanos);
+    }
+
+    public Map<String, RouteMetrics> getRoutes() {
+        return new TreeMap<>(routes);
+    }
+
+    public Map<String, CodingMetrics> getEncodedResponses() {
+        return new TreeMap<>(encodedResponses);
+    }
+
+    public HashingStats hashingStats() {
+        return new HashingStats(hashedResponses.sum(), hashedBytes.sum(), hashingNanos.sum());
+    }
+
+    public static class CodingMetrics {
+
+        private final LongAdder responses = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+
+        void record(final long bytes) {
+            responses.increment();
+            this.bytes.add(bytes);
+        }
+
+        public long getResponses() {
+            return responses.sum();
+        }
+
+        public long getBytes() {
+            return bytes.sum();
+        }
+    }
+}
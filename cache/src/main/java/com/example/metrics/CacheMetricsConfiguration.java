@@ -0,0 +1,24 @@
+package com.example.metrics;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class CacheMetricsConfiguration {
+
+    /**
+     * 응답 캐시, ETag 필터가 304 로 끝낸 응답까지 세도록 그보다 바깥에 둔다.
+     * 압축 필터보다도 바깥이어서 실제로 보낸(압축된) 바이트를 센다.
+     */
+    @Bean
+    public FilterRegistrationBean<CacheMetricsFilter> cacheMetricsFilter(final CacheMetrics cacheMetrics) {
+        FilterRegistrationBean<CacheMetricsFilter> filterRegistrationBean = new FilterRegistrationBean<>(
+                new CacheMetricsFilter(cacheMetrics));
+        filterRegistrationBean.addUrlPatterns("/*");
+        filterRegistrationBean.setOrder(Ordered.LOWEST_PRECEDENCE - 5);
+
+        return filterRegistrationBean;
+    }
+}
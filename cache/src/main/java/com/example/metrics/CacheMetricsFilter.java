@@ -0,0 +1,71 @@
+package com.example.metrics;
+
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+
+import java.io.IOException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * 라우트별 200/304 횟수와 보낸 바이트 수를 센다. 캐시 관련 필터들보다 바깥에 둔다.
+ *
+ * 라우트는 요청 URI 대신 매칭된 패턴으로 묶는다. 앞단 필터가 핸들러 없이 응답한 경우에는 패턴이 없으므로
+ * 정적 리소스는 /resources/**, 나머지는 UNMATCHED 로 센다.
+ */
+public class CacheMetricsFilter extends OncePerRequestFilter {
+
+    static final String STATIC_RESOURCES_ROUTE = PREFIX_STATIC_RESOURCES + "/**";
+    static final String UNMATCHED_ROUTE = "UNMATCHED";
+
+    private final CacheMetrics cacheMetrics;
+
+    public CacheMetricsFilter(final CacheMetrics cacheMetrics) {
+        this.cacheMetrics = cacheMetrics;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        final var responseWrapper = new CountingResponseWrapper(response);
+        filterChain.doFilter(request, responseWrapper);
+        if (isAsyncStarted(request)) {
+            return;
+        }
+        responseWrapper.flushWriter();
+        record(request, responseWrapper);
+    }
+
+    private void record(final HttpServletRequest request, final CountingResponseWrapper response) {
+        final long bytes = bytesSent(request, response);
+        cacheMetrics.recordResponse(route(request), response.getStatus(), bytes);
+        final String contentEncoding = response.getHeader(HttpHeaders.CONTENT_ENCODING);
+        if (contentEncoding != null) {
+            cacheMetrics.recordEncoded(contentEncoding, bytes);
+        }
+    }
+
+    // sendfile 로 보낸 본문은 출력 스트림을 거치지 않으므로 Content-Length 로 센다.
+    private static long bytesSent(final HttpServletRequest request, final CountingResponseWrapper response) {
+        if (response.getCount() > 0 || HttpMethod.HEAD.matches(request.getMethod())
+                || response.getStatus() != HttpServletResponse.SC_OK) {
+            return response.getCount();
+        }
+        final String contentLength = response.getHeader(HttpHeaders.CONTENT_LENGTH);
+        return contentLength != null ? Long.parseLong(contentLength) : 0;
+    }
+
+    private static String route(final HttpServletRequest request) {
+        final Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            return pattern.toString();
+        }
+        final String uri = request.getRequestURI().substring(request.getContextPath().length());
+        return uri.startsWith(PREFIX_STATIC_RESOURCES + "/") ? STATIC_RESOURCES_ROUTE : UNMATCHED_ROUTE;
+    }
+}
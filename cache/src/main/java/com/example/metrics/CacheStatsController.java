@@ -0,0 +1,108 @@
+package com.example.metrics;
+
+import com.example.compression.AdaptiveCompressionMetrics;
+import com.example.compression.AdaptiveCompressionStats;
+import com.example.resource.StaticResourceIndex;
+import com.example.response.ResponseCache;
+import com.example.response.ResponseCacheStats;
+import com.example.view.RenderedViewCache;
+import com.example.view.RenderedViewCacheStats;
+import com.example.warmup.CacheWarmer;
+import com.example.warmup.WarmupReport;
+import java.util.Map;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 캐시 크기를 정할 수 있도록 캐시 계층의 통계를 조회한다.
+ */
+@RestController
+@RequestMapping("/cache/stats")
+public class CacheStatsController {
+
+    private final CacheMetrics cacheMetrics;
+    private final StaticResourceIndex staticResourceIndex;
+    private final ObjectProvider<RenderedViewCache> renderedViewCache;
+    private final ObjectProvider<ResponseCache> responseCache;
+    private final ObjectProvider<AdaptiveCompressionMetrics> adaptiveCompressionMetrics;
+    private final ObjectProvider<CacheWarmer> cacheWarmer;
+
+    public CacheStatsController(final CacheMetrics cacheMetrics, final StaticResourceIndex staticResourceIndex,
+                                final ObjectProvider<RenderedViewCache> renderedViewCache,
+                                final ObjectProvider<ResponseCache> responseCache,
+                                final ObjectProvider<AdaptiveCompressionMetrics> adaptiveCompressionMetrics,
+                                final ObjectProvider<CacheWarmer> cacheWarmer) {
+        this.cacheMetrics = cacheMetrics;
+        this.staticResourceIndex = staticResourceIndex;
+        this.renderedViewCache = renderedViewCache;
+        this.responseCache = responseCache;
+        this.adaptiveCompressionMetrics = adaptiveCompressionMetrics;
+        this.cacheWarmer = cacheWarmer;
+    }
+
+    /**
+     * 라우트별 200/304 횟수, 보낸 바이트와 304 로 아낀 바이트
+     */
+    @GetMapping("/routes")
+    public Map<String, RouteMetrics> routes() {
+        return cacheMetrics.getRoutes();
+    }
+
+    /**
+     * StreamingEtagFilter 가 응답 본문을 해시하는 데 쓴 시간
+     */
+    @GetMapping("/hashing")
+    public HashingStats hashing() {
+        return cacheMetrics.hashingStats();
+    }
+
+    @GetMapping("/compression")
+    public CompressionStats compression() {
+        return new CompressionStats(staticResourceIndex, cacheMetrics);
+    }
+
+    /**
+     * AdaptiveCompressionFilter 가 고른 gzip 레벨별 응답 수와 압축하지 않은 이유
+     */
+    @GetMapping("/compression/adaptive")
+    public ResponseEntity<AdaptiveCompressionStats> adaptiveCompression() {
+        final AdaptiveCompressionMetrics metrics = adaptiveCompressionMetrics.getIfAvailable();
+        if (metrics == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(metrics.stats());
+    }
+
+    @GetMapping("/views")
+    public ResponseEntity<RenderedViewCacheStats> views() {
+        final RenderedViewCache cache = renderedViewCache.getIfAvailable();
+        if (cache == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(cache.stats());
+    }
+
+    @GetMapping("/responses")
+    public ResponseEntity<ResponseCacheStats> responses() {
+        final ResponseCache cache = responseCache.getIfAvailable();
+        if (cache == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(cache.stats());
+    }
+
+    /**
+     * 기동 직후 워밍업에 걸린 시간과 채운 캐시 항목 수
+     */
+    @GetMapping("/warmup")
+    public ResponseEntity<WarmupReport> warmup() {
+        final CacheWarmer warmer = cacheWarmer.getIfAvailable();
+        if (warmer == null || warmer.getReport() == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(warmer.getReport());
+    }
+}
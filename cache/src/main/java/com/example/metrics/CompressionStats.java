@@ -0,0 +1,77 @@
+package com.example.metrics;
+
+import com.example.compression.ContentCoding;
+import com.example.compression.EncodedVariant;
+import com.example.resource.StaticResource;
+import com.example.resource.StaticResourceIndex;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 기동 시점에 만든 정적 파일 압축본의 압축률과, 실제로 압축본을 내보낸 횟수.
+ * Tomcat 이 커넥터에서 동적으로 압축하는 응답(server.compression)은 필터 뒤에서 일어나므로 여기에 잡히지 않는다.
+ * AdaptiveCompressionFilter 가 압축한 응답은 served 의 gzip 에 함께 잡힌다.
+ */
+public class CompressionStats {
+
+    private final Map<String, CodingStats> staticResources = new TreeMap<>();
+    private final long compressionMillis;
+    private final Map<String, CacheMetrics.CodingMetrics> served;
+
+    public CompressionStats(final StaticResourceIndex staticResourceIndex, final CacheMetrics cacheMetrics) {
+        for (final StaticResource staticResource : staticResourceIndex.getResources()) {
+            for (final ContentCoding coding : staticResource.getCodings()) {
+                final EncodedVariant variant = staticResource.getVariant(coding);
+                staticResources.computeIfAbsent(coding.getToken(), key -> new CodingStats())
+                        .add(staticResource.getContentLength(), variant.getContentLength());
+            }
+        }
+        this.compressionMillis = TimeUnit.NANOSECONDS.toMillis(staticResourceIndex.getCompressionNanos());
+        this.served = cacheMetrics.getEncodedResponses();
+    }
+
+    public Map<String, CodingStats> getStaticResources() {
+        return staticResources;
+    }
+
+    public long getCompressionMillis() {
+        return compressionMillis;
+    }
+
+    public Map<String, CacheMetrics.CodingMetrics> getServed() {
+        return served;
+    }
+
+    public static class CodingStats {
+
+        private int resources;
+        private long originalBytes;
+        private long encodedBytes;
+
+        void add(final long originalBytes, final long encodedBytes) {
+            this.resources++;
+            this.originalBytes += originalBytes;
+            this.encodedBytes += encodedBytes;
+        }
+
+        public int getResources() {
+            return resources;
+        }
+
+        public long getOriginalBytes() {
+            return originalBytes;
+        }
+
+        public long getEncodedBytes() {
+            return encodedBytes;
+        }
+
+        /**
+         * 압축본 크기 / 원본 크기
+         */
+        public double getRatio() {
+            return originalBytes == 0 ? 0 : (double) encodedBytes / originalBytes;
+        }
+    }
+}
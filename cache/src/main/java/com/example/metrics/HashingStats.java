@@ -0,0 +1,32 @@
+package com.example.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+public class HashingStats {
+
+    private final long responses;
+    private final long bytes;
+    private final long nanos;
+
+    public HashingStats(final long responses, final long bytes, final long nanos) {
+        this.responses = responses;
+        this.bytes = bytes;
+        this.nanos = nanos;
+    }
+
+    public long getResponses() {
+        return responses;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    public double getMegabytesPerSecond() {
+        return nanos == 0 ? 0 : (bytes / (1024.0 * 1024.0)) / (nanos / 1_000_000_000.0);
+    }
+}
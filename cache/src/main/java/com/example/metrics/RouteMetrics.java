@@ -0,0 +1,68 @@
+package com.example.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * 라우트 하나의 응답 통계. 요청 스레드끼리 경합하지 않도록 LongAdder 로 센다.
+ */
+public class RouteMetrics {
+
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder other = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+    private final LongAdder okBytes = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    void record(final int status, final long bytes) {
+        bytesSent.add(bytes);
+        if (status == HttpServletResponse.SC_OK) {
+            ok.increment();
+            okBytes.add(bytes);
+        } else if (status == HttpServletResponse.SC_NOT_MODIFIED) {
+            notModified.increment();
+            bytesSaved.add(averageOkBytes());
+        } else {
+            other.increment();
+        }
+    }
+
+    public long getOk() {
+        return ok.sum();
+    }
+
+    public long getNotModified() {
+        return notModified.sum();
+    }
+
+    public long getOther() {
+        return other.sum();
+    }
+
+    public double getNotModifiedRatio() {
+        final long notModified = getNotModified();
+        final long revalidated = getOk() + notModified;
+        return revalidated == 0 ? 0 : (double) notModified / revalidated;
+    }
+
+    public long getBytesSent() {
+        return bytesSent.sum();
+    }
+
+    /**
+     * 304 대신 200 을 보냈다면 더 보냈을 바이트 수. 같은 라우트의 200 응답 평균 크기로 추정한다.
+     */
+    public long getBytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    public long getBytesWithoutRevalidation() {
+        return getBytesSent() + getBytesSaved();
+    }
+
+    private long averageOkBytes() {
+        final long count = ok.sum();
+        return count == 0 ? 0 : okBytes.sum() / count;
+    }
+}
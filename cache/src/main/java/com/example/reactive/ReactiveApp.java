@@ -0,0 +1,39 @@
+package com.example.reactive;
+
+import com.example.bundle.BundleConfiguration;
+import com.example.resource.StaticResourceIndex;
+import com.example.version.ResourceVersion;
+import com.example.version.StaticUrlTable;
+import com.example.version.TemplateVersionValidator;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+import pl.allegro.tech.boot.autoconfigure.handlebars.HandlebarsAutoConfiguration;
+import pl.allegro.tech.boot.autoconfigure.handlebars.HandlebarsHelpersAutoConfiguration;
+
+/**
+ * GreetingController 의 라우트를 WebFlux(Netty) 위에서 띄운다.
+ * 같은 정적 리소스 인덱스와 버전을 쓰므로 서블릿 스택과 같은 응답을 내보낸다.
+ *
+ * com.example 아래를 스캔하는 App 에 함께 잡히지 않도록 reactive 웹 애플리케이션일 때만 등록된다.
+ * HandlebarsViewResolver 는 서블릿용이라 자동 설정에서 빼고 템플릿은 핸들러에서 직접 렌더링한다.
+ */
+@SpringBootApplication(exclude = {HandlebarsAutoConfiguration.class, HandlebarsHelpersAutoConfiguration.class})
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@Import({BundleConfiguration.class, StaticResourceIndex.class, ResourceVersion.class, StaticUrlTable.class,
+        TemplateVersionValidator.class})
+public class ReactiveApp {
+
+    public static void main(String[] args) {
+        start(args);
+    }
+
+    public static ConfigurableApplicationContext start(final String... args) {
+        return new SpringApplicationBuilder(ReactiveApp.class)
+                .web(WebApplicationType.REACTIVE)
+                .run(args);
+    }
+}
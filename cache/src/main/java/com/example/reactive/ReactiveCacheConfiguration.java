@@ -0,0 +1,59 @@
+package com.example.reactive;
+
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+import static org.springframework.web.reactive.function.server.RequestPredicates.GET;
+
+import com.example.bundle.AssetBundles;
+import com.example.resource.StaticResourceIndex;
+import com.example.version.StaticUrlTable;
+import com.example.version.TemplateVersionValidator;
+import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.Helper;
+import com.github.jknack.handlebars.io.ClassPathTemplateLoader;
+import java.io.IOException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveCacheConfiguration {
+
+    @Bean
+    public ReactiveGreetingHandler reactiveGreetingHandler(
+            final StaticUrlTable staticUrlTable, final TemplateVersionValidator templateVersionValidator,
+            @Value("${handlebars.suffix:.html}") final String suffix) throws IOException {
+        final var handlebars = new Handlebars(new ClassPathTemplateLoader("/templates", suffix));
+        handlebars.registerHelper("staticUrls", (Helper<String>) (path, options) -> {
+            final String url = staticUrlTable.get(path);
+            return url != null ? url : PREFIX_STATIC_RESOURCES + path;
+        });
+        handlebars.registerHelper("bundleUrl", (Helper<String>) (name, options) -> {
+            final String url = staticUrlTable.getBundle(name);
+            return url != null ? url : PREFIX_STATIC_RESOURCES + AssetBundles.path(name);
+        });
+        return new ReactiveGreetingHandler(handlebars, templateVersionValidator);
+    }
+
+    @Bean
+    public ReactiveStaticResourceHandler reactiveStaticResourceHandler(
+            final StaticResourceIndex staticResourceIndex) {
+        return new ReactiveStaticResourceHandler(staticResourceIndex);
+    }
+
+    @Bean
+    public RouterFunction<ServerResponse> cacheRoutes(final ReactiveGreetingHandler greetingHandler,
+                                                      final ReactiveStaticResourceHandler staticResourceHandler) {
+        return RouterFunctions.route(GET("/"), greetingHandler::index)
+                .andRoute(GET("/cache-control"), greetingHandler::cacheControl)
+                .andRoute(GET("/etag"), greetingHandler::etag)
+                .andRoute(GET("/resource-versioning"), greetingHandler::resourceVersioning)
+                .andRoute(GET("/assets"), greetingHandler::assets)
+                .andRoute(GET("/assets/bundled"), greetingHandler::bundledAssets)
+                .andRoute(GET(PREFIX_STATIC_RESOURCES + "/**"), staticResourceHandler::handle);
+    }
+}
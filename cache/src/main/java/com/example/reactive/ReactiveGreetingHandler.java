@@ -0,0 +1,101 @@
+package com.example.reactive;
+
+import com.example.cachecontrol.CachePolicyRegistry;
+import com.example.version.TemplateVersionValidator;
+import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.Template;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * GreetingController 의 WebFlux 버전.
+ * 캐시 헤더와 조건부 요청 처리는 서블릿 쪽 인터셉터, 필터와 같은 결과가 나오도록 맞춘다.
+ */
+public class ReactiveGreetingHandler {
+
+    private static final MediaType TEXT_HTML_UTF8 = new MediaType(MediaType.TEXT_HTML, StandardCharsets.UTF_8);
+
+    private final TemplateVersionValidator templateVersionValidator;
+    private final Template index;
+    private final Template resourceVersioning;
+    private final Template assets;
+    private final Template bundledAssets;
+
+    public ReactiveGreetingHandler(final Handlebars handlebars,
+                                   final TemplateVersionValidator templateVersionValidator) throws IOException {
+        this.templateVersionValidator = templateVersionValidator;
+        this.index = handlebars.compile("index");
+        this.resourceVersioning = handlebars.compile("resource-versioning");
+        this.assets = handlebars.compile("assets");
+        this.bundledAssets = handlebars.compile("assets-bundled");
+    }
+
+    /**
+     * @ConditionalRequest 처럼 렌더링하기 전에 템플릿 버전으로 304 를 판단한다.
+     */
+    public Mono<ServerResponse> index(final ServerRequest request) {
+        return renderUnlessNotModified(request, index);
+    }
+
+    public Mono<ServerResponse> cacheControl(final ServerRequest request) {
+        return page().bodyValue(render(index));
+    }
+
+    /**
+     * StreamingEtagFilter 처럼 렌더링한 본문으로 강한 ETag 를 만든다.
+     */
+    public Mono<ServerResponse> etag(final ServerRequest request) {
+        final byte[] body = render(index);
+        final String etag = "\"0" + DigestUtils.md5DigestAsHex(body) + "\"";
+        return request.checkNotModified(etag)
+                .flatMap(this::withCachePolicy)
+                .switchIfEmpty(Mono.defer(() -> page().eTag(etag).bodyValue(body)));
+    }
+
+    public Mono<ServerResponse> resourceVersioning(final ServerRequest request) {
+        return renderUnlessNotModified(request, resourceVersioning);
+    }
+
+    public Mono<ServerResponse> assets(final ServerRequest request) {
+        return renderUnlessNotModified(request, assets);
+    }
+
+    public Mono<ServerResponse> bundledAssets(final ServerRequest request) {
+        return renderUnlessNotModified(request, bundledAssets);
+    }
+
+    private Mono<ServerResponse> renderUnlessNotModified(final ServerRequest request, final Template template) {
+        final String etag = templateVersionValidator.getEtag();
+        return request.checkNotModified(etag)
+                .flatMap(this::withCachePolicy)
+                .switchIfEmpty(Mono.defer(() -> page().eTag(etag).bodyValue(render(template))));
+    }
+
+    private Mono<ServerResponse> withCachePolicy(final ServerResponse notModified) {
+        return ServerResponse.from(notModified)
+                .header(HttpHeaders.CACHE_CONTROL, CachePolicyRegistry.DEFAULT_HEADER_VALUE)
+                .build();
+    }
+
+    private static ServerResponse.BodyBuilder page() {
+        return ServerResponse.ok()
+                .contentType(TEXT_HTML_UTF8)
+                .header(HttpHeaders.CACHE_CONTROL, CachePolicyRegistry.DEFAULT_HEADER_VALUE);
+    }
+
+    private static byte[] render(final Template template) {
+        try {
+            return template.apply(Map.of()).getBytes(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.reactive;
+
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+import static com.example.version.CacheBustingWebConfig.STATIC_RESOURCES_CACHE_CONTROL;
+
+import com.example.compression.ContentCoding;
+import com.example.compression.EncodedVariant;
+import com.example.resource.StaticResource;
+import com.example.resource.StaticResourceIndex;
+import java.util.Optional;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * /resources/{content hash}/** 를 StaticResourceIndex 에서 바로 찾아 보낸다.
+ * ETag 와 압축본은 기동 시점에 만든 것을 쓰므로 요청마다 파일을 읽거나 해시하지 않는다.
+ */
+public class ReactiveStaticResourceHandler {
+
+    private final StaticResourceIndex staticResourceIndex;
+    private final String cacheControl;
+
+    public ReactiveStaticResourceHandler(final StaticResourceIndex staticResourceIndex) {
+        this.staticResourceIndex = staticResourceIndex;
+        this.cacheControl = STATIC_RESOURCES_CACHE_CONTROL.getHeaderValue();
+    }
+
+    public Mono<ServerResponse> handle(final ServerRequest request) {
+        final String path = request.path().substring(PREFIX_STATIC_RESOURCES.length());
+        final Optional<StaticResource> found = staticResourceIndex.findVersioned(path);
+        if (found.isEmpty()) {
+            return ServerResponse.notFound().build();
+        }
+        final StaticResource staticResource = found.get();
+        final ContentCoding coding = ContentCoding.negotiate(
+                request.headers().firstHeader(HttpHeaders.ACCEPT_ENCODING), staticResource.getCodings());
+        final String etag = staticResource.getEtag(coding);
+
+        return request.checkNotModified(etag)
+                .flatMap(notModified -> ServerResponse.from(notModified)
+                        .headers(headers -> writeCacheHeaders(headers, staticResource))
+                        .build())
+                .switchIfEmpty(Mono.defer(() -> write(staticResource, coding, etag)));
+    }
+
+    private Mono<ServerResponse> write(final StaticResource staticResource, final ContentCoding coding,
+                                       final String etag) {
+        final ServerResponse.BodyBuilder builder = ServerResponse.ok()
+                .contentType(MediaTypeFactory.getMediaType(staticResource.getResource())
+                        .orElse(MediaType.APPLICATION_OCTET_STREAM))
+                .eTag(etag)
+                .headers(headers -> writeCacheHeaders(headers, staticResource));
+        final EncodedVariant variant = staticResource.getVariant(coding);
+        if (variant != null) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, variant.getCoding().getToken())
+                    .contentLength(variant.getContentLength())
+                    .bodyValue(variant.getContent());
+        }
+        // 파일 리소스면 ResourceHttpMessageWriter 가 zero-copy 로 보낸다.
+        return builder.body(BodyInserters.fromResource(staticResource.getResource()));
+    }
+
+    private void writeCacheHeaders(final HttpHeaders headers, final StaticResource staticResource) {
+        headers.set(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (staticResource.hasVariants()) {
+            headers.set(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+    }
+}
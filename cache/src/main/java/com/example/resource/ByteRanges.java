@@ -0,0 +1,99 @@
+package com.example.resource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.springframework.http.HttpRange;
+
+/**
+ * Range, If-Range 헤더를 파일 길이에 맞춰 구간 목록으로 바꾼다.
+ */
+public final class ByteRanges {
+
+    private ByteRanges() {
+    }
+
+    /**
+     * 포함 구간 [start, end].
+     */
+    static final class Region {
+
+        private final long start;
+        private final long end;
+
+        Region(final long start, final long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        long getStart() {
+            return start;
+        }
+
+        long getEnd() {
+            return end;
+        }
+
+        long getLength() {
+            return end - start + 1;
+        }
+
+        String contentRange(final long totalLength) {
+            return "bytes " + start + '-' + end + '/' + totalLength;
+        }
+    }
+
+    /**
+     * 문법이 틀렸거나 구간이 너무 많은 Range 헤더는 RFC 7233 에 따라 없는 것으로 본다.
+     * 겹치거나 맞닿은 구간은 하나로 합쳐서, 같은 바이트를 여러 번 보내지 않는다.
+     *
+     * @return 전체를 보내야 하면 null, 만족할 수 있는 구간이 하나도 없으면(416) 빈 목록
+     */
+    static List<Region> parse(final String rangeHeader, final long length) {
+        final List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (ranges.isEmpty()) {
+            return null;
+        }
+        final List<Region> regions = new ArrayList<>(ranges.size());
+        for (final HttpRange range : ranges) {
+            final long start = range.getRangeStart(length);
+            final long end = range.getRangeEnd(length);
+            if (start < length && start <= end) {
+                regions.add(new Region(start, end));
+            }
+        }
+        return coalesce(regions);
+    }
+
+    /**
+     * If-Range 는 strong ETag 가 정확히 같을 때만 만족한다. 날짜나 weak ETag 이면 전체를 보낸다.
+     */
+    public static boolean ifRangeMatches(final String ifRange, final String etag) {
+        return ifRange == null || (!ifRange.startsWith("W/") && ifRange.trim().equals(etag));
+    }
+
+    private static List<Region> coalesce(final List<Region> regions) {
+        if (regions.size() < 2) {
+            return regions;
+        }
+        regions.sort(Comparator.comparingLong(Region::getStart));
+        final List<Region> coalesced = new ArrayList<>(regions.size());
+        Region current = regions.get(0);
+        for (int i = 1; i < regions.size(); i++) {
+            final Region next = regions.get(i);
+            if (next.getStart() <= current.getEnd() + 1) {
+                current = new Region(current.getStart(), Math.max(current.getEnd(), next.getEnd()));
+            } else {
+                coalesced.add(current);
+                current = next;
+            }
+        }
+        coalesced.add(current);
+        return coalesced;
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.resource;
+
+import com.example.compression.ContentCoding;
+import com.example.compression.EncodedVariant;
+import com.example.version.ResourceVersionChangedEvent;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * classpath 안의 정적 파일은 jar 안에 있어서 파일 채널로 열 수 없다.
+ * 기동 시점에 원본과 압축본을 로컬 디렉터리로 꺼내 두고 sendfile, transferTo 로 보낼 수 있게 한다.
+ *
+ * 꺼낼 때마다 directory 아래에 새 디렉터리를 만들고 다 꺼낸 뒤에 바꿔 끼운다. 정적 리소스 버전이 바뀌면 다시 꺼낸다.
+ * 바꿔 끼우기 직전 것은 sendfile 로 보내고 있을 수 있으므로 한 세대 더 남겨 두고 그 전 것을 지운다.
+ */
+public class ExtractedStaticResources {
+
+    private static final Logger log = LoggerFactory.getLogger(ExtractedStaticResources.class);
+    private static final String GENERATION_PREFIX = "generation-";
+
+    private final Path directory;
+    private final boolean temporary;
+
+    private volatile Generation current;
+    private Generation previous;
+    private StaticResourceIndex staticResourceIndex;
+
+    public ExtractedStaticResources(final Path directory) {
+        this(directory, false);
+    }
+
+    /**
+     * @param temporary true 면 {@link #close()} 할 때 directory 까지 지운다.
+     */
+    public ExtractedStaticResources(final Path directory, final boolean temporary) {
+        this.directory = directory;
+        this.temporary = temporary;
+    }
+
+    /**
+     * 꺼낸 파일은 재시작할 때마다 새로 꺼내므로 컨텍스트가 닫힐 때 지운다. 설정한 디렉터리 자체는 남긴다.
+     */
+    public synchronized void close() {
+        delete(previous);
+        delete(current);
+        previous = null;
+        current = null;
+        if (!temporary) {
+            return;
+        }
+        try {
+            FileSystemUtils.deleteRecursively(directory);
+        } catch (IOException e) {
+            log.warn("failed to delete extracted static resources {}", directory, e);
+        }
+    }
+
+    /**
+     * 인덱스에 있는 파일을 새 디렉터리로 꺼내고 다 꺼낸 뒤에 바꿔 끼운다.
+     */
+    public synchronized void extract(final StaticResourceIndex staticResourceIndex) {
+        this.staticResourceIndex = staticResourceIndex;
+        final Generation extracted;
+        try {
+            Files.createDirectories(directory);
+            final Path generationDirectory = Files.createTempDirectory(directory, GENERATION_PREFIX);
+            final Map<String, String> contentHashes = new HashMap<>();
+            for (final StaticResource staticResource : staticResourceIndex.getResources()) {
+                final Path target = resolve(generationDirectory, staticResource, null);
+                Files.createDirectories(target.getParent());
+                try (InputStream inputStream = staticResource.getResource().getInputStream()) {
+                    Files.copy(inputStream, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+                for (final ContentCoding coding : staticResource.getCodings()) {
+                    final EncodedVariant variant = staticResource.getVariant(coding);
+                    Files.write(resolve(generationDirectory, staticResource, coding), variant.getContent());
+                }
+                contentHashes.put(staticResource.getPath(), staticResource.getContentHash());
+            }
+            extracted = new Generation(generationDirectory, Map.copyOf(contentHashes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        delete(previous);
+        previous = current;
+        current = extracted;
+        log.info("extracted {} static resources to {}", extracted.contentHashes.size(), extracted.directory);
+    }
+
+    /**
+     * 다시 인덱싱한 정적 리소스는 새 content hash 로 찾으므로 그 내용으로 다시 꺼낸다.
+     * 다 꺼낼 때까지 새 hash 로 들어온 요청은 {@link #resolve} 가 null 을 돌려서 기존 핸들러로 간다.
+     */
+    @EventListener
+    public synchronized void onResourceVersionChanged(final ResourceVersionChangedEvent event) {
+        if (staticResourceIndex != null) {
+            extract(staticResourceIndex);
+        }
+    }
+
+    /**
+     * @param coding null 이면 압축하지 않은 원본 파일
+     * @return 아직 꺼내지 않았거나 꺼낸 뒤에 내용이 바뀐 파일이면 null
+     */
+    public Path resolve(final StaticResource staticResource, final ContentCoding coding) {
+        final Generation generation = current;
+        if (generation == null
+                || !staticResource.getContentHash().equals(generation.contentHashes.get(staticResource.getPath()))) {
+            return null;
+        }
+        return resolve(generation.directory, staticResource, coding);
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    private static Path resolve(final Path generationDirectory, final StaticResource staticResource,
+                                final ContentCoding coding) {
+        final String fileName = staticResource.getPath().substring(1)
+                + (coding != null ? coding.getExtension() : "");
+        return generationDirectory.resolve(fileName);
+    }
+
+    private static void delete(final Generation generation) {
+        if (generation == null) {
+            return;
+        }
+        try {
+            FileSystemUtils.deleteRecursively(generation.directory);
+        } catch (IOException e) {
+            log.warn("failed to delete extracted static resources {}", generation.directory, e);
+        }
+    }
+
+    /**
+     * 한 번에 꺼낸 디렉터리와, 그때 꺼낸 파일의 경로 -> content hash
+     */
+    private static class Generation {
+
+        private final Path directory;
+        private final Map<String, String> contentHashes;
+
+        Generation(final Path directory, final Map<String, String> contentHashes) {
+            this.directory = directory;
+            this.contentHashes = contentHashes;
+        }
+    }
+}
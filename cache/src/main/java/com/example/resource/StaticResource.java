@@ -0,0 +1,73 @@
+package com.example.resource;
+
+import com.example.compression.ContentCoding;
+import com.example.compression.EncodedVariant;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.core.io.Resource;
+
+/**
+ * classpath:/static/ 아래 파일 하나의 메타데이터. 기동 시점에 한 번만 계산한다.
+ */
+public class StaticResource {
+
+    private final String path;
+    private final Resource resource;
+    private final String contentHash;
+    private final long contentLength;
+    private final String etag;
+    private final Map<ContentCoding, EncodedVariant> variants;
+
+    public StaticResource(final String path, final Resource resource, final String contentHash,
+                          final long contentLength, final Map<ContentCoding, EncodedVariant> variants) {
+        this.path = path;
+        this.resource = resource;
+        this.contentHash = contentHash;
+        this.contentLength = contentLength;
+        this.etag = "\"" + contentHash + "\"";
+        this.variants = variants;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public Resource getResource() {
+        return resource;
+    }
+
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * @param coding null 이면 압축하지 않은 원본(identity)
+     */
+    public String getEtag(final ContentCoding coding) {
+        final EncodedVariant variant = getVariant(coding);
+        return variant != null ? variant.getEtag() : etag;
+    }
+
+    public EncodedVariant getVariant(final ContentCoding coding) {
+        return coding != null ? variants.get(coding) : null;
+    }
+
+    public Set<ContentCoding> getCodings() {
+        return variants.keySet();
+    }
+
+    /**
+     * 압축본이 있는 리소스는 Accept-Encoding 에 따라 응답이 달라지므로 Vary 헤더가 필요하다.
+     */
+    public boolean hasVariants() {
+        return !variants.isEmpty();
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.annotation.PostConstruct;
+import com.example.bundle.AssetBundles;
+import com.example.compression.ContentCoding;
+import com.example.compression.EncodedVariant;
+import com.example.compression.StaticResourceCompressor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+/**
+ * 기동 시점에 classpath:/static/ 을 훑어서 파일마다 content hash 와 압축본을 한 번만 만들어 둔다.
+ * 배포 후에는 정적 파일이 바뀌지 않으므로 요청마다 파일을 다시 읽고 해시하거나 압축할 필요가 없다.
+ */
+@Component
+public class StaticResourceIndex {
+
+    public static final String STATIC_LOCATION = "classpath:/static/";
+
+    private static final Logger log = LoggerFactory.getLogger(StaticResourceIndex.class);
+
+    private final ResourcePatternResolver resourcePatternResolver;
+    private final List<String> locations;
+    private final StaticResourceCompressor compressor = new StaticResourceCompressor();
+
+    private volatile Map<String, StaticResource> resources = Map.of();
+    private volatile Map<String, StaticResource> resourcesByUrl = Map.of();
+    private volatile long compressionNanos;
+
+    public StaticResourceIndex(final ResourceLoader resourceLoader) {
+        this(resourceLoader, STATIC_LOCATION);
+    }
+
+    /**
+     * 기동 시점에 만든 번들이 있으면 그 디렉터리도 함께 인덱싱한다.
+     */
+    @Autowired
+    public StaticResourceIndex(final ResourceLoader resourceLoader, final AssetBundles assetBundles) {
+        this(resourceLoader, assetBundles.getLocation()
+                .map(location -> List.of(STATIC_LOCATION, location))
+                .orElse(List.of(STATIC_LOCATION)));
+    }
+
+    public StaticResourceIndex(final ResourceLoader resourceLoader, final String location) {
+        this(resourceLoader, List.of(location));
+    }
+
+    public StaticResourceIndex(final ResourceLoader resourceLoader, final List<String> locations) {
+        this.resourcePatternResolver = ResourcePatternUtils.getResourcePatternResolver(resourceLoader);
+        this.locations = locations;
+    }
+
+    @PostConstruct
+    public void init() {
+        this.resources = scan();
+        this.resourcesByUrl = byUrl(resources);
+        log.info("indexed {} static resources", resources.size());
+    }
+
+    /**
+     * @param path "/js/index.js" 처럼 classpath:/static/ 기준의 경로
+     */
+    public Optional<StaticResource> find(final String path) {
+        return Optional.ofNullable(resources.get(path));
+    }
+
+    /**
+     * @param versionedPath "/{content hash}/js/index.js" 처럼 /resources 뒤에 오는 경로.
+     *                      해시가 현재 파일 내용과 다르면 찾지 못한 것으로 본다.
+     */
+    public Optional<StaticResource> findVersioned(final String versionedPath) {
+        final int versionEnd = versionedPath.indexOf('/', 1);
+        if (!versionedPath.startsWith("/") || versionEnd < 0) {
+            return Optional.empty();
+        }
+        final String version = versionedPath.substring(1, versionEnd);
+        return find(versionedPath.substring(versionEnd))
+                .filter(staticResource -> staticResource.getContentHash().equals(version));
+    }
+
+    /**
+     * 리소스 체인이 찾아낸 Resource 가 인덱스에 있는 파일이면 그 메타데이터를 돌려준다.
+     */
+    public Optional<StaticResource> find(final Resource resource) {
+        try {
+            return Optional.ofNullable(resourcesByUrl.get(resource.getURL().toString()));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * /resources/** 핸들러에 같은 순서로 등록해야 인덱스와 리소스 체인이 같은 파일을 본다.
+     */
+    public List<String> getLocations() {
+        return locations;
+    }
+
+    public Collection<StaticResource> getResources() {
+        return resources.values();
+    }
+
+    /**
+     * 기동 시점에 압축본을 만드는 데 쓴 시간
+     */
+    public long getCompressionNanos() {
+        return compressionNanos;
+    }
+
+    private Map<String, StaticResource> scan() {
+        final Map<String, StaticResource> scanned = new HashMap<>();
+        for (final String location : locations) {
+            scan(location).forEach(scanned::putIfAbsent);
+        }
+        return Map.copyOf(scanned);
+    }
+
+    private Map<String, StaticResource> scan(final String location) {
+        try {
+            final Map<String, StaticResource> scanned = new HashMap<>();
+            for (final String root : roots(location)) {
+                for (final Resource resource : resourcePatternResolver.getResources(root + "**")) {
+                    final String url = resource.getURL().toString();
+                    if (!resource.isReadable() || url.endsWith("/") || !url.startsWith(root)) {
+                        continue;
+                    }
+                    final String path = "/" + url.substring(root.length());
+                    if (StaticResourceCompressor.isSideFile(path) || scanned.containsKey(path)) {
+                        continue;
+                    }
+                    scanned.put(path, index(path, resource));
+                }
+            }
+            return scanned;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 리소스 핸들러는 classpath: 위치를 클래스로더로 찾으므로 같은 경로가 있는 모든 classpath 루트에서 파일을 꺼낸다.
+     * 인덱스도 모든 루트를 앞에서부터 훑고, 같은 경로는 먼저 나온 것을 쓴다.
+     */
+    private List<String> roots(final String location) throws IOException {
+        if (!location.startsWith(ResourceLoader.CLASSPATH_URL_PREFIX)) {
+            return List.of(resourcePatternResolver.getResource(location).getURL().toString());
+        }
+        final List<String> roots = new ArrayList<>();
+        for (final Resource root : resourcePatternResolver.getResources(ResourcePatternResolver.CLASSPATH_ALL_URL_PREFIX
+                + location.substring(ResourceLoader.CLASSPATH_URL_PREFIX.length()))) {
+            roots.add(root.getURL().toString());
+        }
+        return roots;
+    }
+
+    private static Map<String, StaticResource> byUrl(final Map<String, StaticResource> resources) {
+        final Map<String, StaticResource> byUrl = new HashMap<>();
+        for (final StaticResource staticResource : resources.values()) {
+            try {
+                byUrl.put(staticResource.getResource().getURL().toString(), staticResource);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return Map.copyOf(byUrl);
+    }
+
+    private StaticResource index(final String path, final Resource resource) throws IOException {
+        final String contentHash = contentHash(resource);
+        final long start = System.nanoTime();
+        final Map<ContentCoding, EncodedVariant> variants = compressor.compress(resource, contentHash);
+        compressionNanos += System.nanoTime() - start;
+        return new StaticResource(path, resource, contentHash, resource.contentLength(), variants);
+    }
+
+    public static String contentHash(final Resource resource) {
+        try (InputStream inputStream = resource.getInputStream()) {
+            return DigestUtils.md5DigestAsHex(inputStream);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
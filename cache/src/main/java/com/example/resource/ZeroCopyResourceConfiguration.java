@@ -0,0 +1,45 @@
+package com.example.resource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * cache.static.zero-copy.enabled=true 이면 정적 파일을 로컬 디렉터리로 꺼내서 sendfile 로 보낸다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "cache.static.zero-copy", name = "enabled", havingValue = "true")
+public class ZeroCopyResourceConfiguration {
+
+    @Bean(destroyMethod = "close")
+    public ExtractedStaticResources extractedStaticResources(
+            final StaticResourceIndex staticResourceIndex,
+            @Value("${cache.static.zero-copy.directory:}") final String directory) throws IOException {
+        final var extractedStaticResources = directory.isBlank()
+                ? new ExtractedStaticResources(Files.createTempDirectory("static-resources"), true)
+                : new ExtractedStaticResources(Path.of(directory));
+        extractedStaticResources.extract(staticResourceIndex);
+        return extractedStaticResources;
+    }
+
+    /**
+     * 304 는 StaticResourceEtagFilter 가 먼저 처리하고, 나머지 큰 파일만 이 필터가 직접 보낸다.
+     */
+    @Bean
+    public FilterRegistrationBean<ZeroCopyResourceFilter> zeroCopyResourceFilter(
+            final StaticResourceIndex staticResourceIndex, final ExtractedStaticResources extractedStaticResources,
+            @Value("${cache.static.zero-copy.min-size:49152}") final long minSize) {
+        FilterRegistrationBean<ZeroCopyResourceFilter> filterRegistrationBean = new FilterRegistrationBean<>(
+                new ZeroCopyResourceFilter(staticResourceIndex, extractedStaticResources, minSize));
+        filterRegistrationBean.addUrlPatterns("/resources/*");
+        filterRegistrationBean.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+
+        return filterRegistrationBean;
+    }
+}
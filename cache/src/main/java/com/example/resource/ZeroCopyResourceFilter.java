@@ -0,0 +1,210 @@
+package com.example.resource;
+
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+import static com.example.version.CacheBustingWebConfig.STATIC_RESOURCES_CACHE_CONTROL;
+
+import com.example.compression.ContentCoding;
+import com.example.compression.EncodedVariant;
+import com.example.resource.ByteRanges.Region;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * 큰 정적 파일을 사용자 공간 복사 없이 내보낸다.
+ *
+ * - Tomcat 커넥터가 sendfile 을 지원하면 파일 경로만 요청 속성으로 넘기고 본문은 커넥터가 커널에서 바로 보낸다.
+ * - 지원하지 않으면 FileChannel.transferTo 로 고정 크기 버퍼를 거쳐 흘려보낸다. 파일 전체를 힙에 올리지 않는다.
+ *
+ * Range 요청도 같은 방식으로 보낸다. 구간 하나는 sendfile(또는 transferTo)로, 여러 구간은 multipart/byteranges 로
+ * 구간마다 transferTo 한다. If-Range 는 인덱스의 ETag 와 비교한다.
+ *
+ * minSize 보다 작은 파일과, 다시 인덱싱한 뒤 아직 꺼내지 않은 파일은 기존 ResourceHttpRequestHandler 경로로 보낸다.
+ */
+public class ZeroCopyResourceFilter extends OncePerRequestFilter {
+
+    static final String SENDFILE_SUPPORTED_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    public static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+    private final StaticResourceIndex staticResourceIndex;
+    private final ExtractedStaticResources extractedStaticResources;
+    private final long minSize;
+    private final String cacheControl;
+
+    public ZeroCopyResourceFilter(final StaticResourceIndex staticResourceIndex,
+                                  final ExtractedStaticResources extractedStaticResources, final long minSize) {
+        this.staticResourceIndex = staticResourceIndex;
+        this.extractedStaticResources = extractedStaticResources;
+        this.minSize = minSize;
+        this.cacheControl = STATIC_RESOURCES_CACHE_CONTROL.getHeaderValue();
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        final Optional<StaticResource> staticResource = findStaticResource(request);
+        if (staticResource.isEmpty() || staticResource.get().getContentLength() < minSize) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        final ContentCoding coding = ContentCoding.negotiate(
+                request.getHeader(HttpHeaders.ACCEPT_ENCODING), staticResource.get().getCodings());
+        final Path file = extractedStaticResources.resolve(staticResource.get(), coding);
+        if (file == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        final long length = Files.size(file);
+        final String contentType = mediaType(request, staticResource.get()).toString();
+
+        writeHeaders(response, staticResource.get(), coding, contentType);
+        final List<Region> regions = requestedRegions(request, staticResource.get().getEtag(coding), length);
+        if (regions == null) {
+            response.setContentLengthLong(length);
+            if (!HttpMethod.HEAD.matches(request.getMethod())) {
+                transfer(request, response, file, new Region(0, length - 1));
+            }
+        } else if (regions.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            response.setContentLength(0);
+        } else if (regions.size() == 1) {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, regions.get(0).contentRange(length));
+            response.setContentLengthLong(regions.get(0).getLength());
+            transfer(request, response, file, regions.get(0));
+        } else {
+            transferMultipart(response, file, contentType, regions, length);
+        }
+    }
+
+    /**
+     * Range 는 GET 에만 적용한다. If-Range 가 지금 표현의 ETag 와 다르면 전체를 보낸다.
+     *
+     * @return 전체를 보내야 하면 null
+     */
+    private static List<Region> requestedRegions(final HttpServletRequest request, final String etag,
+                                                 final long length) {
+        final String range = request.getHeader(HttpHeaders.RANGE);
+        if (range == null || !HttpMethod.GET.matches(request.getMethod())
+                || !ByteRanges.ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), etag)) {
+            return null;
+        }
+        return ByteRanges.parse(range, length);
+    }
+
+    private void writeHeaders(final HttpServletResponse response, final StaticResource staticResource,
+                              final ContentCoding coding, final String contentType) {
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        response.setHeader(HttpHeaders.ETAG, staticResource.getEtag(coding));
+        if (staticResource.hasVariants()) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        final EncodedVariant variant = staticResource.getVariant(coding);
+        if (variant != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, variant.getCoding().getToken());
+        }
+    }
+
+    private static void transfer(final HttpServletRequest request, final HttpServletResponse response,
+                                 final Path file, final Region region) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTRIBUTE))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTRIBUTE, region.getStart());
+            request.setAttribute(SENDFILE_END_ATTRIBUTE, region.getEnd() + 1);
+            return;
+        }
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            transferTo(fileChannel, region, Channels.newChannel(response.getOutputStream()));
+        }
+    }
+
+    /**
+     * sendfile 은 요청당 구간 하나만 보낼 수 있으므로 여러 구간은 구간마다 transferTo 한다.
+     * Content-Length 는 구분자 길이까지 미리 계산한다.
+     */
+    private static void transferMultipart(final HttpServletResponse response, final Path file,
+                                          final String contentType, final List<Region> regions, final long length)
+            throws IOException {
+        final String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        final List<byte[]> partHeaders = new ArrayList<>(regions.size());
+        long contentLength = 0;
+        for (final Region region : regions) {
+            final byte[] partHeader = ("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": " + region.contentRange(length) + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            partHeaders.add(partHeader);
+            contentLength += partHeader.length + region.getLength();
+        }
+        final byte[] end = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+        contentLength += end.length;
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        final OutputStream outputStream = response.getOutputStream();
+        final WritableByteChannel target = Channels.newChannel(outputStream);
+        try (FileChannel fileChannel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (int i = 0; i < regions.size(); i++) {
+                outputStream.write(partHeaders.get(i));
+                transferTo(fileChannel, regions.get(i), target);
+            }
+        }
+        outputStream.write(end);
+    }
+
+    private static void transferTo(final FileChannel fileChannel, final Region region,
+                                   final WritableByteChannel target) throws IOException {
+        final long end = region.getEnd() + 1;
+        long position = region.getStart();
+        while (position < end) {
+            position += fileChannel.transferTo(position, end - position, target);
+        }
+    }
+
+    private static MediaType mediaType(final HttpServletRequest request, final StaticResource staticResource) {
+        final String filename = staticResource.getResource().getFilename();
+        final String mimeType = request.getServletContext().getMimeType(filename);
+        if (mimeType != null) {
+            return MediaType.parseMediaType(mimeType);
+        }
+        return MediaTypeFactory.getMediaType(filename).orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    private Optional<StaticResource> findStaticResource(final HttpServletRequest request) {
+        final String method = request.getMethod();
+        if (!HttpMethod.GET.matches(method) && !HttpMethod.HEAD.matches(method)) {
+            return Optional.empty();
+        }
+        final String uri = request.getRequestURI().substring(request.getContextPath().length());
+        if (!uri.startsWith(PREFIX_STATIC_RESOURCES)) {
+            return Optional.empty();
+        }
+        return staticResourceIndex.findVersioned(uri.substring(PREFIX_STATIC_RESOURCES.length()));
+    }
+}
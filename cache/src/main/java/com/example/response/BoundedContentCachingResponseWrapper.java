@@ -0,0 +1,225 @@
+package com.example.response;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.FastByteArrayOutputStream;
+
+/**
+ * ContentCachingResponseWrapper 처럼 본문을 모으되 maxBodySize 까지만 모은다.
+ * 넘는 순간 모아 둔 바이트를 내보내고 나머지는 그대로 흘려보낸다. 그런 응답은 캐시하지 않는다.
+ */
+class BoundedContentCachingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final int maxBodySize;
+    private final FastByteArrayOutputStream buffer = new FastByteArrayOutputStream(1024);
+
+    private boolean overflowed;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+    private long contentLength = -1;
+
+    BoundedContentCachingResponseWrapper(final HttpServletResponse response, final int maxBodySize) {
+        super(response);
+        this.maxBodySize = maxBodySize;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (outputStream == null) {
+            outputStream = new BoundedOutputStream();
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentLength(final int len) {
+        setContentLengthLong(len);
+    }
+
+    @Override
+    public void setContentLengthLong(final long len) {
+        if (overflowed) {
+            super.setContentLengthLong(len);
+        } else {
+            contentLength = len;
+        }
+    }
+
+    @Override
+    public void setHeader(final String name, final String value) {
+        if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+            setContentLengthLong(Long.parseLong(value));
+        } else {
+            super.setHeader(name, value);
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        flushWriter();
+        if (overflowed) {
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void sendError(final int sc) throws IOException {
+        discardBuffer();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(final int sc, final String msg) throws IOException {
+        discardBuffer();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendRedirect(final String location) throws IOException {
+        discardBuffer();
+        super.sendRedirect(location);
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        if (!overflowed) {
+            buffer.reset();
+        }
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        if (!overflowed) {
+            buffer.reset();
+            contentLength = -1;
+        }
+    }
+
+    /**
+     * @return maxBodySize 를 넘어서 본문을 다 모으지 못했으면 true
+     */
+    boolean isOverflowed() {
+        flushWriter();
+        return overflowed;
+    }
+
+    byte[] getContentAsByteArray() {
+        flushWriter();
+        return buffer.toByteArray();
+    }
+
+    /**
+     * 체인이 끝난 뒤 호출된다. 모아 둔 본문을 원래 응답으로 내보낸다.
+     */
+    void copyBodyToResponse() throws IOException {
+        flushWriter();
+        if (overflowed) {
+            return;
+        }
+        final var rawResponse = (HttpServletResponse) getResponse();
+        if (!rawResponse.isCommitted()) {
+            if (buffer.size() > 0) {
+                rawResponse.setContentLength(buffer.size());
+            } else if (contentLength >= 0) {
+                rawResponse.setContentLengthLong(contentLength);
+            }
+        }
+        if (buffer.size() > 0) {
+            buffer.writeTo(rawResponse.getOutputStream());
+            buffer.reset();
+        }
+    }
+
+    private void overflow() throws IOException {
+        if (overflowed) {
+            return;
+        }
+        overflowed = true;
+        if (contentLength >= 0) {
+            super.setContentLengthLong(contentLength);
+        }
+        buffer.writeTo(getResponse().getOutputStream());
+        buffer.reset();
+    }
+
+    private void discardBuffer() {
+        buffer.reset();
+        overflowed = true;
+    }
+
+    private void flushWriter() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    private class BoundedOutputStream extends ServletOutputStream {
+
+        @Override
+        public void write(final int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            if (!overflowed && buffer.size() + len > maxBodySize) {
+                overflow();
+            }
+            if (overflowed) {
+                getResponse().getOutputStream().write(b, off, len);
+            } else {
+                buffer.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (overflowed) {
+                getResponse().getOutputStream().flush();
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return !overflowed || rawOutputStream().isReady();
+        }
+
+        /**
+         * 논블로킹으로 쓰는 응답은 모으지 않고 컨테이너 스트림으로 바로 보낸다.
+         */
+        @Override
+        public void setWriteListener(final WriteListener writeListener) {
+            try {
+                overflow();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rawOutputStream().setWriteListener(writeListener);
+        }
+
+        private ServletOutputStream rawOutputStream() {
+            try {
+                return getResponse().getOutputStream();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
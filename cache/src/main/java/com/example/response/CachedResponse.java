@@ -0,0 +1,65 @@
+package com.example.response;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * 캐시해 둔 응답 하나. 상태 코드, 헤더, 본문을 그대로 다시 내보낸다.
+ */
+public class CachedResponse {
+
+    private final int status;
+    private final Map<String, List<String>> headers;
+    private final String contentType;
+    private final byte[] body;
+    private final long storedAt;
+    private final long expiresAt;
+
+    public CachedResponse(final int status, final Map<String, List<String>> headers, final String contentType,
+                          final byte[] body, final long storedAt, final long ttlMillis) {
+        this.status = status;
+        this.headers = headers;
+        this.contentType = contentType;
+        this.body = body;
+        this.storedAt = storedAt;
+        this.expiresAt = storedAt + ttlMillis;
+    }
+
+    public boolean isFresh(final long now) {
+        return now < expiresAt;
+    }
+
+    public void writeTo(final HttpServletRequest request, final HttpServletResponse response, final long now)
+            throws IOException {
+        response.setStatus(status);
+        headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        response.setHeader(HttpHeaders.AGE, String.valueOf((now - storedAt) / 1000));
+        final String etag = getEtag();
+        if (etag != null && new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+        if (contentType != null) {
+            response.setContentType(contentType);
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getEtag() {
+        final List<String> etags = headers.get(HttpHeaders.ETAG);
+        return etags != null && !etags.isEmpty() ? etags.get(0) : null;
+    }
+
+    public byte[] getBody() {
+        return body;
+    }
+}
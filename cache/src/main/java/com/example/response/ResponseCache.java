@@ -0,0 +1,139 @@
+package com.example.response;
+
+import com.example.version.ResourceVersionChangedEvent;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.context.event.EventListener;
+
+/**
+ * 응답을 크기 제한이 있는 LRU 로 보관하고, 같은 키를 동시에 렌더링하지 않도록 진행 중인 렌더링을 기록한다.
+ */
+public class ResponseCache {
+
+    private final int maxEntries;
+    private final Map<String, CachedResponse> responses;
+    // 한 번이라도 캐시할 수 있었던 키. 만료되거나 clear() 된 뒤에도 남아서 다시 몰리는 요청을 모은다.
+    private final Map<String, Boolean> cacheableKeys;
+    private final ConcurrentHashMap<String, CompletableFuture<CachedResponse>> loading = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ResponseCache(final int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.responses = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, CachedResponse> eldest) {
+                if (size() > ResponseCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+        this.cacheableKeys = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Boolean> eldest) {
+                return size() > ResponseCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return 만료되지 않은 응답. 없으면 null
+     */
+    public CachedResponse get(final String key, final long now) {
+        final CachedResponse response;
+        synchronized (responses) {
+            response = responses.get(key);
+            if (response != null && !response.isFresh(now)) {
+                responses.remove(key);
+                return null;
+            }
+        }
+        if (response != null) {
+            hits.increment();
+        }
+        return response;
+    }
+
+    /**
+     * 같은 키를 이미 다른 요청이 렌더링하고 있으면 그 결과를 기다릴 future 를 돌려준다.
+     * null 이면 호출한 요청이 렌더링을 맡고, 끝나면 반드시 {@link #complete} 를 호출해야 한다.
+     *
+     * 캐시할 수 있었던 적이 없는 키는 기다려 봐야 결과를 받지 못하므로 항상 null 이다.
+     */
+    public CompletableFuture<CachedResponse> startLoading(final String key, final CompletableFuture<CachedResponse> future) {
+        final boolean cacheable;
+        synchronized (responses) {
+            cacheable = cacheableKeys.containsKey(key);
+        }
+        final CompletableFuture<CachedResponse> inFlight = cacheable ? loading.putIfAbsent(key, future) : null;
+        if (inFlight == null) {
+            misses.increment();
+        }
+        return inFlight;
+    }
+
+    /**
+     * startLoading 이 돌려준 future 를 기다린 결과를 센다.
+     *
+     * @param served 받은 응답으로 답했으면 true. false 면 기다린 요청이 직접 렌더링했으므로 miss 다.
+     */
+    public void recordWait(final boolean served) {
+        if (served) {
+            coalesced.increment();
+        } else {
+            misses.increment();
+        }
+    }
+
+    /**
+     * @param response 캐시할 수 없는 응답이었으면 null. 기다리던 요청들은 각자 렌더링한다.
+     */
+    public void complete(final String key, final CompletableFuture<CachedResponse> future,
+                         final CachedResponse response) {
+        synchronized (responses) {
+            if (response != null) {
+                responses.put(key, response);
+                cacheableKeys.put(key, Boolean.TRUE);
+            } else {
+                cacheableKeys.remove(key);
+            }
+        }
+        loading.remove(key, future);
+        future.complete(response);
+    }
+
+    public void fail(final String key, final CompletableFuture<CachedResponse> future, final Throwable e) {
+        loading.remove(key, future);
+        future.completeExceptionally(e);
+    }
+
+    public void clear() {
+        synchronized (responses) {
+            responses.clear();
+        }
+    }
+
+    /**
+     * 보관한 페이지에는 이전 버전의 정적 리소스 URL 이 들어 있다.
+     */
+    @EventListener
+    public void onResourceVersionChanged(final ResourceVersionChangedEvent event) {
+        clear();
+    }
+
+    public ResponseCacheStats stats() {
+        final int size;
+        synchronized (responses) {
+            size = responses.size();
+        }
+        return new ResponseCacheStats(hits.sum(), misses.sum(), coalesced.sum(), evictions.sum(), size, maxEntries);
+    }
+}
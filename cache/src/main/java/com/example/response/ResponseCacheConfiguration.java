@@ -0,0 +1,37 @@
+package com.example.response;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * cache.response.enabled=true 이면 캐시 가능한 GET 응답을 메모리에 보관한다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "cache.response", name = "enabled", havingValue = "true")
+public class ResponseCacheConfiguration {
+
+    @Bean
+    public ResponseCache responseCache(@Value("${cache.response.max-entries:256}") final int maxEntries) {
+        return new ResponseCache(maxEntries);
+    }
+
+    /**
+     * ETag 필터들이 만든 헤더까지 함께 보관하도록 그보다 바깥에 둔다.
+     */
+    @Bean
+    public FilterRegistrationBean<ResponseCacheFilter> responseCacheFilter(
+            final ResponseCache responseCache,
+            @Value("${cache.response.max-body-size:1048576}") final int maxBodySize,
+            @Value("${cache.response.coalesce-timeout-millis:10000}") final long coalesceTimeoutMillis) {
+        FilterRegistrationBean<ResponseCacheFilter> filterRegistrationBean = new FilterRegistrationBean<>(
+                new ResponseCacheFilter(responseCache, maxBodySize, coalesceTimeoutMillis));
+        filterRegistrationBean.addUrlPatterns("/*");
+        filterRegistrationBean.setOrder(Ordered.LOWEST_PRECEDENCE - 3);
+
+        return filterRegistrationBean;
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.response;
+
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+
+import com.example.resource.ZeroCopyResourceFilter;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Cache-Control 이 public 이고 max-age(s-maxage) 가 있는 GET 응답을 통째로 보관했다가 다시 내보낸다.
+ * 캐시가 비어 있는 키에 요청이 몰리면 첫 요청만 렌더링하고 나머지는 그 결과를 기다린다(single-flight).
+ *
+ * CacheInterceptor 의 기본값(no-cache, private)인 핸들러는 캐시하지 않는다.
+ * 요청을 모아서 기다리게 하는 것도 전에 캐시할 수 있었던 키만이다. 나머지는 각자 렌더링한다.
+ *
+ * 정적 리소스(/resources/**)는 이미 ETag 인덱스와 sendfile 로 처리하므로 건드리지 않는다.
+ * 본문은 maxBodySize 까지만 모으고, 넘으면 그대로 흘려보내고 캐시하지 않는다.
+ */
+public class ResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseCacheFilter.class);
+
+    // 컨테이너가 다시 계산하거나 요청마다 달라지는 헤더는 보관하지 않는다.
+    private static final Set<String> SKIPPED_HEADERS = Set.of(
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(), HttpHeaders.CONTENT_TYPE.toLowerCase(),
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(), HttpHeaders.DATE.toLowerCase(),
+            HttpHeaders.CONNECTION.toLowerCase());
+
+    private final ResponseCache responseCache;
+    private final int maxBodySize;
+    private final long coalesceTimeoutMillis;
+
+    public ResponseCacheFilter(final ResponseCache responseCache, final int maxBodySize,
+                               final long coalesceTimeoutMillis) {
+        this.responseCache = responseCache;
+        this.maxBodySize = maxBodySize;
+        this.coalesceTimeoutMillis = coalesceTimeoutMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        if (!HttpMethod.GET.matches(request.getMethod()) || bypassesCache(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        final String key = key(request);
+        final CachedResponse cached = responseCache.get(key, System.currentTimeMillis());
+        if (cached != null) {
+            cached.writeTo(request, response, System.currentTimeMillis());
+            return;
+        }
+
+        final var loading = new CompletableFuture<CachedResponse>();
+        final CompletableFuture<CachedResponse> inFlight = responseCache.startLoading(key, loading);
+        if (inFlight != null) {
+            final CachedResponse loaded = await(key, inFlight);
+            responseCache.recordWait(loaded != null);
+            if (loaded != null) {
+                loaded.writeTo(request, response, System.currentTimeMillis());
+            } else {
+                filterChain.doFilter(request, response);
+            }
+            return;
+        }
+
+        final var responseWrapper = new BoundedContentCachingResponseWrapper(response, maxBodySize);
+        try {
+            filterChain.doFilter(request, responseWrapper);
+        } catch (IOException | ServletException | RuntimeException e) {
+            responseCache.fail(key, loading, e);
+            throw e;
+        }
+        responseCache.complete(key, loading,
+                request.isAsyncStarted() || usedSendfile(request) ? null : toCachedResponse(responseWrapper));
+        responseWrapper.copyBodyToResponse();
+    }
+
+    private CachedResponse await(final String key, final CompletableFuture<CachedResponse> inFlight) {
+        try {
+            return inFlight.get(coalesceTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            log.debug("render in flight for {} did not complete, rendering again", key, e);
+            return null;
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        final String uri = request.getRequestURI().substring(request.getContextPath().length());
+        return uri.startsWith(PREFIX_STATIC_RESOURCES + "/");
+    }
+
+    private CachedResponse toCachedResponse(final BoundedContentCachingResponseWrapper response) {
+        if (response.getStatus() != HttpServletResponse.SC_OK || response.isOverflowed()
+                || response.containsHeader(HttpHeaders.SET_COOKIE) || response.containsHeader(HttpHeaders.VARY)) {
+            return null;
+        }
+        final long ttlMillis = ttlMillis(response.getHeaders(HttpHeaders.CACHE_CONTROL));
+        if (ttlMillis <= 0) {
+            return null;
+        }
+        final Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (final String name : response.getHeaderNames()) {
+            if (!SKIPPED_HEADERS.contains(name.toLowerCase())) {
+                headers.put(name, List.copyOf(response.getHeaders(name)));
+            }
+        }
+        return new CachedResponse(response.getStatus(), headers, response.getContentType(),
+                response.getContentAsByteArray(), System.currentTimeMillis(), ttlMillis);
+    }
+
+    /**
+     * 공유 캐시 기준으로 판단한다. public 이 있어야 하고 private, no-store, no-cache 가 있으면 보관하지 않는다.
+     * s-maxage 가 있으면 max-age 보다 우선한다.
+     *
+     * @return 보관할 수 없으면 0
+     */
+    static long ttlMillis(final Iterable<String> cacheControlHeaders) {
+        boolean cachePublic = false;
+        long maxAge = -1;
+        long sMaxAge = -1;
+        for (final String header : cacheControlHeaders) {
+            for (final String directive : StringUtils.tokenizeToStringArray(header, ",")) {
+                final String name = directive.toLowerCase();
+                if (name.equals("private") || name.equals("no-store") || name.equals("no-cache")) {
+                    return 0;
+                }
+                if (name.equals("public")) {
+                    cachePublic = true;
+                } else if (name.startsWith("s-maxage=")) {
+                    sMaxAge = parseSeconds(name.substring("s-maxage=".length()));
+                } else if (name.startsWith("max-age=")) {
+                    maxAge = parseSeconds(name.substring("max-age=".length()));
+                }
+            }
+        }
+        if (!cachePublic) {
+            return 0;
+        }
+        return TimeUnit.SECONDS.toMillis(Math.max(0, sMaxAge >= 0 ? sMaxAge : maxAge));
+    }
+
+    private static long parseSeconds(final String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // sendfile 로 보낸 본문은 래퍼를 거치지 않아 비어 있다.
+    private static boolean usedSendfile(final HttpServletRequest request) {
+        return request.getAttribute(ZeroCopyResourceFilter.SENDFILE_FILENAME_ATTRIBUTE) != null;
+    }
+
+    // 부분 요청은 전체 응답을 보관해 둔 것으로 답할 수 없으므로 뒤의 핸들러에 맡긴다.
+    private static boolean bypassesCache(final HttpServletRequest request) {
+        if (request.getHeader(HttpHeaders.RANGE) != null) {
+            return true;
+        }
+        final String cacheControl = request.getHeader(HttpHeaders.CACHE_CONTROL);
+        return cacheControl != null && (cacheControl.contains("no-cache") || cacheControl.contains("no-store"));
+    }
+
+    private static String key(final HttpServletRequest request) {
+        final String queryString = request.getQueryString();
+        return queryString == null ? request.getRequestURI() : request.getRequestURI() + '?' + queryString;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.response;
+
+public class ResponseCacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long coalesced;
+    private final long evictions;
+    private final int size;
+    private final int maxEntries;
+
+    public ResponseCacheStats(final long hits, final long misses, final long coalesced, final long evictions,
+                              final int size, final int maxEntries) {
+        this.hits = hits;
+        this.misses = misses;
+        this.coalesced = coalesced;
+        this.evictions = evictions;
+        this.size = size;
+        this.maxEntries = maxEntries;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * 다른 요청이 렌더링한 결과를 기다려서 받은 횟수
+     */
+    public long getCoalesced() {
+        return coalesced;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public double getHitRate() {
+        final long requests = hits + misses + coalesced;
+        return requests == 0 ? 0 : (double) (hits + coalesced) / requests;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.tiered;
+
+/**
+ * TieredCache 의 L2. 여러 인스턴스가 같은 저장소를 바라보면 한 곳에서 렌더링한 결과를 나머지도 쓴다.
+ * 같이 제공하는 구현은 로컬 디렉터리에 쓰는 FileCacheBackend 뿐이고, Redis 처럼 공유되는 저장소는
+ * 이 인터페이스를 구현한 빈을 등록하면 된다.
+ *
+ * namespace 는 캐시한 값이 기대는 버전이다. 버전이 바뀌면 이전 namespace 를 통째로 지운다.
+ * 저장소 장애가 요청 실패로 번지지 않도록 구현은 예외를 던지지 말고 miss 로 처리한다.
+ */
+public interface CacheBackend {
+
+    /**
+     * @return 없거나 읽지 못하면 null
+     */
+    byte[] get(String namespace, String key);
+
+    void put(String namespace, String key, byte[] value);
+
+    void clear(String namespace);
+
+    /**
+     * namespace 가 아닌 나머지 중 한동안 쓰지 않은 것을 지운다. 이전 배포가 남긴 값을 치우도록 기동할 때 부른다.
+     * 롤링 배포 중에는 이전 버전 인스턴스가 아직 쓰고 있으므로 최근에 쓴 namespace 는 남긴다.
+     */
+    default void clearStale(String namespace) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.tiered;
+
+/**
+ * L2 에 넣을 수 있도록 값을 바이트로 바꾼다.
+ */
+public interface CacheCodec<V> {
+
+    byte[] encode(V value);
+
+    V decode(byte[] bytes);
+}
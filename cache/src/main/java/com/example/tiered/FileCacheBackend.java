@@ -0,0 +1,135 @@
+package com.example.tiered;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.DigestUtils;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * 값 하나를 {directory}/{namespace}/{md5(key)} 파일 하나로 보관한다.
+ * 재시작해도 남아 있고, 같은 디렉터리(NFS 등)를 마운트한 인스턴스끼리는 공유된다. 읽을 때는 OS 페이지 캐시를 탄다.
+ *
+ * 파일 앞에 원래 키를 적어 두고 읽을 때 비교하므로 해시가 충돌해도 다른 값을 돌려주지 않는다.
+ * 임시 파일에 다 쓴 뒤 rename 하므로 다른 인스턴스가 쓰다 만 파일을 읽는 일은 없다.
+ *
+ * namespace 디렉터리의 수정 시각은 항목을 쓸 때마다 바뀐다. retention 동안 아무도 쓰지 않은 이전 namespace 는
+ * {@link #clearStale(String)} 에서 지운다.
+ */
+public class FileCacheBackend implements CacheBackend {
+
+    private static final Logger log = LoggerFactory.getLogger(FileCacheBackend.class);
+    private static final Pattern SAFE_NAMESPACE = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private static final Duration DEFAULT_RETENTION = Duration.ofHours(1);
+
+    private final Path directory;
+    private final Duration retention;
+
+    public FileCacheBackend(final Path directory) {
+        this(directory, DEFAULT_RETENTION);
+    }
+
+    public FileCacheBackend(final Path directory, final Duration retention) {
+        this.directory = directory;
+        this.retention = retention;
+    }
+
+    @Override
+    public byte[] get(final String namespace, final String key) {
+        final Path file = file(namespace, key);
+        try {
+            final byte[] content = Files.readAllBytes(file);
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(content))) {
+                if (!key.equals(in.readUTF())) {
+                    return null;
+                }
+                final byte[] value = new byte[in.readInt()];
+                in.readFully(value);
+                return value;
+            }
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            log.warn("failed to read cache entry {}", file, e);
+            return null;
+        }
+    }
+
+    @Override
+    public void put(final String namespace, final String key, final byte[] value) {
+        final Path file = file(namespace, key);
+        try {
+            final var bytes = new ByteArrayOutputStream(value.length + key.length() + 8);
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeUTF(key);
+                out.writeInt(value.length);
+                out.write(value);
+            }
+            Files.createDirectories(file.getParent());
+            final Path temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            Files.write(temp, bytes.toByteArray());
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("failed to write cache entry {}", file, e);
+        }
+    }
+
+    @Override
+    public void clear(final String namespace) {
+        try {
+            FileSystemUtils.deleteRecursively(directory.resolve(directoryName(namespace)));
+        } catch (IOException e) {
+            log.warn("failed to clear cache namespace {}", namespace, e);
+        }
+    }
+
+    @Override
+    public void clearStale(final String namespace) {
+        final String current = directoryName(namespace);
+        final Instant threshold = Instant.now().minus(retention);
+        final List<Path> stale = new ArrayList<>();
+        try (DirectoryStream<Path> namespaces = Files.newDirectoryStream(directory, Files::isDirectory)) {
+            for (final Path path : namespaces) {
+                if (!path.getFileName().toString().equals(current)
+                        && Files.getLastModifiedTime(path).toInstant().isBefore(threshold)) {
+                    stale.add(path);
+                }
+            }
+            for (final Path path : stale) {
+                FileSystemUtils.deleteRecursively(path);
+                log.info("cleared stale cache namespace {}", path.getFileName());
+            }
+        } catch (NoSuchFileException e) {
+            // 아직 아무것도 쓰지 않았다.
+        } catch (IOException e) {
+            log.warn("failed to clear stale cache namespaces in {}", directory, e);
+        }
+    }
+
+    private Path file(final String namespace, final String key) {
+        return directory.resolve(directoryName(namespace))
+                .resolve(DigestUtils.md5DigestAsHex(key.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String directoryName(final String namespace) {
+        return SAFE_NAMESPACE.matcher(namespace).matches()
+                ? namespace
+                : DigestUtils.md5DigestAsHex(namespace.getBytes(StandardCharsets.UTF_8));
+    }
+}
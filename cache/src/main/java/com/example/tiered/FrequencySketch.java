@@ -0,0 +1,86 @@
+package com.example.tiered;
+
+/**
+ * 최근에 얼마나 자주 요청된 키인지 대략 세는 count-min sketch. 키마다 4비트 카운터 4개를 쓴다.
+ * 카운터 증가 횟수가 표본 크기에 이르면 모든 카운터를 절반으로 줄여서 오래전 인기가 계속 남지 않게 한다.
+ *
+ * 동기화는 호출하는 쪽(TinyLfuCache)이 맡는다.
+ */
+class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    private static final long RESET_MASK = 0x7777777777777777L;
+    private static final int MAX_COUNT = 15;
+
+    private final long[] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(final int maxEntries) {
+        final int size = Math.max(16, Integer.highestOneBit(Math.max(1, maxEntries - 1)) << 1);
+        this.table = new long[size];
+        this.mask = size - 1;
+        this.sampleSize = 10 * Math.max(1, maxEntries);
+    }
+
+    int frequency(final Object key) {
+        final int hash = spread(key.hashCode());
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < SEEDS.length; row++) {
+            frequency = Math.min(frequency, count(hash, row));
+        }
+        return frequency;
+    }
+
+    void increment(final Object key) {
+        final int hash = spread(key.hashCode());
+        boolean added = false;
+        for (int row = 0; row < SEEDS.length; row++) {
+            added |= incrementAt(hash, row);
+        }
+        if (added && ++additions >= sampleSize) {
+            reset();
+        }
+    }
+
+    private int count(final int hash, final int row) {
+        final int index = indexOf(hash, row);
+        final int shift = offset(hash, row);
+        return (int) ((table[index] >>> shift) & 0xfL);
+    }
+
+    private boolean incrementAt(final int hash, final int row) {
+        final int index = indexOf(hash, row);
+        final int shift = offset(hash, row);
+        if (((table[index] >>> shift) & 0xfL) == MAX_COUNT) {
+            return false;
+        }
+        table[index] += 1L << shift;
+        return true;
+    }
+
+    private void reset() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private int indexOf(final int hash, final int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        h += h >>> 32;
+        return (int) h & mask;
+    }
+
+    // long 하나에 카운터 16개가 들어가므로 행마다 다른 4비트 칸을 고른다.
+    private static int offset(final int hash, final int row) {
+        return (((hash >>> (row * 8)) & 3) + (row << 2)) << 2;
+    }
+
+    private static int spread(final int hash) {
+        int h = hash * 0x9e3779b9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.tiered;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 힙 안의 L1(TinyLfuCache)과 인스턴스 밖의 L2(CacheBackend)를 차례로 찾는다.
+ * L2 에서 찾은 값은 L1 에 채워 두고, 새로 넣는 값은 두 곳 모두에 쓴다.
+ *
+ * L2 의 키는 namespace(값이 기대는 버전) 아래에 둔다. 버전이 다른 인스턴스끼리는 서로의 값을 읽지 않고,
+ * {@link #invalidate(String)} 로 버전이 바뀌면 L1 을 비우고 이전 namespace 를 지운다.
+ */
+public class TieredCache<K, V> {
+
+    private static final Logger log = LoggerFactory.getLogger(TieredCache.class);
+
+    private final TinyLfuCache<K, V> local;
+    private final CacheBackend shared;
+    private final CacheCodec<V> codec;
+    private final Function<K, String> sharedKey;
+
+    private volatile String namespace;
+
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder sharedHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * L2 없이 L1 만 쓴다.
+     */
+    public TieredCache(final int maxEntries) {
+        this(maxEntries, null, null, key -> null, "");
+    }
+
+    /**
+     * 이전 배포가 L2 에 남긴 다른 namespace 중 오래된 것은 여기서 지운다.
+     *
+     * @param sharedKey L2 에 쓸 문자열 키. null 을 돌려주면 그 항목은 L1 에만 둔다.
+     */
+    public TieredCache(final int maxEntries, final CacheBackend shared, final CacheCodec<V> codec,
+                       final Function<K, String> sharedKey, final String namespace) {
+        this.local = new TinyLfuCache<>(maxEntries);
+        this.shared = shared;
+        this.codec = codec;
+        this.sharedKey = sharedKey;
+        this.namespace = namespace;
+        if (shared != null) {
+            shared.clearStale(namespace);
+        }
+    }
+
+    public V get(final K key) {
+        return get(key, value -> true);
+    }
+
+    /**
+     * @param usable 찾은 값을 쓸 수 있는지. 만료된 값처럼 쓸 수 없으면 찾지 못한 것(miss)으로 센다.
+     *               L1 의 값을 쓸 수 없으면 다른 인스턴스가 새로 넣었을 수 있는 L2 를 찾는다.
+     */
+    public V get(final K key, final Predicate<V> usable) {
+        final V value = local.get(key);
+        if (value != null && usable.test(value)) {
+            localHits.increment();
+            return value;
+        }
+        final V loaded = getShared(key);
+        if (loaded != null && usable.test(loaded)) {
+            local.put(key, loaded);
+            sharedHits.increment();
+            return loaded;
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(final K key, final V value) {
+        local.put(key, value);
+        final String externalKey = shared == null ? null : sharedKey.apply(key);
+        if (externalKey != null) {
+            shared.put(namespace, externalKey, codec.encode(value));
+        }
+    }
+
+    /**
+     * 값이 기대는 버전이 바뀌었다. L1 을 비우고, 이전 버전의 L2 항목을 지운다.
+     */
+    public void invalidate(final String newNamespace) {
+        final String previous = namespace;
+        namespace = newNamespace;
+        local.clear();
+        if (shared != null && !previous.equals(newNamespace)) {
+            shared.clear(previous);
+        }
+    }
+
+    public void clear() {
+        local.clear();
+        if (shared != null) {
+            shared.clear(namespace);
+        }
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public TinyLfuCache<K, V> getLocal() {
+        return local;
+    }
+
+    /**
+     * L1, L2 어디서든 찾은 횟수
+     */
+    public long getHits() {
+        return localHits.sum() + sharedHits.sum();
+    }
+
+    public long getSharedHits() {
+        return sharedHits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    private V getShared(final K key) {
+        final String externalKey = shared == null ? null : sharedKey.apply(key);
+        if (externalKey == null) {
+            return null;
+        }
+        final byte[] bytes = shared.get(namespace, externalKey);
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            return codec.decode(bytes);
+        } catch (RuntimeException e) {
+            log.warn("failed to decode cache entry {}", externalKey, e);
+            return null;
+        }
+    }
+}
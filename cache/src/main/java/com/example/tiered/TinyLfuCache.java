@@ -0,0 +1,134 @@
+package com.example.tiered;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * W-TinyLFU 방식으로 크기를 제한하는 힙 캐시.
+ * 새 항목은 작은 LRU window(전체의 1%)에 먼저 들어간다. window 에서 밀려난 항목은 본 영역에서 밀려날 항목보다
+ * 최근 요청 빈도가 높을 때만 들어간다. 한 번 보고 마는 키가 자주 쓰는 페이지를 밀어내지 못하게 하기 위해서다.
+ *
+ * 본 영역은 SLRU 다. 처음 들어온 항목은 probation 에 있다가 다시 요청되면 protected(본 영역의 80%)로 옮겨진다.
+ */
+public class TinyLfuCache<K, V> {
+
+    private final int maxEntries;
+    private final int windowMax;
+    private final int protectedMax;
+    private final FrequencySketch sketch;
+
+    private final LinkedHashMap<K, V> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, V> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, V> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long evictions;
+    private long rejections;
+
+    public TinyLfuCache(final int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.windowMax = Math.max(1, maxEntries / 100);
+        this.protectedMax = (maxEntries - windowMax) * 8 / 10;
+        this.sketch = new FrequencySketch(maxEntries);
+    }
+
+    public synchronized V get(final K key) {
+        sketch.increment(key);
+        V value = window.get(key);
+        if (value != null) {
+            return value;
+        }
+        value = protectedSegment.get(key);
+        if (value != null) {
+            return value;
+        }
+        value = probation.remove(key);
+        if (value != null) {
+            protectedSegment.put(key, value);
+            demoteProtected();
+        }
+        return value;
+    }
+
+    public synchronized void put(final K key, final V value) {
+        if (window.containsKey(key)) {
+            window.put(key, value);
+            return;
+        }
+        if (protectedSegment.containsKey(key)) {
+            protectedSegment.put(key, value);
+            return;
+        }
+        if (probation.containsKey(key)) {
+            probation.put(key, value);
+            return;
+        }
+        window.put(key, value);
+        if (window.size() > windowMax) {
+            admit(removeEldest(window));
+        }
+    }
+
+    public synchronized void clear() {
+        window.clear();
+        probation.clear();
+        protectedSegment.clear();
+    }
+
+    public synchronized int size() {
+        return window.size() + probation.size() + protectedSegment.size();
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * window 에서 밀려났지만 빈도가 낮아서 본 영역에 들어가지 못한 횟수. evictions 에 포함된다.
+     */
+    public synchronized long getRejections() {
+        return rejections;
+    }
+
+    private void admit(final Map.Entry<K, V> candidate) {
+        if (probation.size() + protectedSegment.size() < maxEntries - windowMax) {
+            probation.put(candidate.getKey(), candidate.getValue());
+            return;
+        }
+        evictions++;
+        final Iterator<K> victims = (probation.isEmpty() ? protectedSegment : probation).keySet().iterator();
+        if (!victims.hasNext()) {
+            rejections++;
+            return;
+        }
+        final K victim = victims.next();
+        if (sketch.frequency(candidate.getKey()) > sketch.frequency(victim)) {
+            victims.remove();
+            probation.put(candidate.getKey(), candidate.getValue());
+        } else {
+            rejections++;
+        }
+    }
+
+    private void demoteProtected() {
+        if (protectedSegment.size() > protectedMax) {
+            final Map.Entry<K, V> demoted = removeEldest(protectedSegment);
+            probation.put(demoted.getKey(), demoted.getValue());
+        }
+    }
+
+    private static <K, V> Map.Entry<K, V> removeEldest(final LinkedHashMap<K, V> segment) {
+        final Iterator<Map.Entry<K, V>> iterator = segment.entrySet().iterator();
+        final Map.Entry<K, V> eldest = iterator.next();
+        final Map.Entry<K, V> removed = Map.entry(eldest.getKey(), eldest.getValue());
+        iterator.remove();
+        return removed;
+    }
+}
@@ -1,28 +1,45 @@
 package com.example.version;
 
+import com.example.compression.PrecompressedResourceResolver;
+import com.example.resource.StaticResourceIndex;
 import java.time.Duration;
-import java.util.concurrent.TimeUnit;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.CacheControl;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
 
 @Configuration
 public class CacheBustingWebConfig implements WebMvcConfigurer {
 
     public static final String PREFIX_STATIC_RESOURCES = "/resources";
+    public static final CacheControl STATIC_RESOURCES_CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(365)).cachePublic();
 
-    private final ResourceVersion version;
+    private final StaticResourceIndex staticResourceIndex;
 
     @Autowired
-    public CacheBustingWebConfig(ResourceVersion version) {
-        this.version = version;
+    public CacheBustingWebConfig(StaticResourceIndex staticResourceIndex) {
+        this.staticResourceIndex = staticResourceIndex;
     }
 
+    /**
+     * /resources/{content hash}/js/index.js 형태로 파일마다 버전을 붙인다.
+     * 내용이 바뀐 파일의 URL 만 바뀌므로 나머지 파일의 캐시는 배포 후에도 그대로 유지된다.
+     * 압축본은 기동 시점에 만들어 둔 것을 Accept-Encoding 에 맞춰 내보낸다.
+     * 위치는 StaticResourceIndex 와 같게 맞춘다(classpath:/static/ 과 번들 디렉터리).
+     *
+     * 리소스 체인의 CachingResourceResolver 는 Accept-Encoding 에 br, gzip 이 들어 있는지만 키로 삼아서
+     * q 값이나 * 로 고른 압축본을 거절한 클라이언트에게도 보낸다. 다시 인덱싱한 뒤에도 이전 결과를 돌려주므로 캐시하지 않는다.
+     * 찾는 비용은 StaticResourceIndex 조회라서 크지 않다.
+     */
     public void addResourceHandlers(final ResourceHandlerRegistry registry) {
-        registry.addResourceHandler(PREFIX_STATIC_RESOURCES + "/" + version.getVersion() + "/**")
-                .addResourceLocations("classpath:/static/")
-                .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic());
+        registry.addResourceHandler(PREFIX_STATIC_RESOURCES + "/**")
+                .addResourceLocations(staticResourceIndex.getLocations().toArray(String[]::new))
+                .setCacheControl(STATIC_RESOURCES_CACHE_CONTROL)
+                .resourceChain(false)
+                .addResolver(new PrecompressedResourceResolver(staticResourceIndex))
+                .addResolver(new VersionResourceResolver()
+                        .addVersionStrategy(new ContentHashVersionStrategy(staticResourceIndex), "/**"));
     }
 }
@@ -0,0 +1,67 @@
+package com.example.version;
+
+import com.example.resource.StaticResource;
+import com.example.resource.StaticResourceIndex;
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.resource.VersionStrategy;
+
+/**
+ * "{content hash}/js/index.js" 처럼 경로 앞에 파일별 content hash 를 붙이는 전략.
+ * 스프링의 ContentVersionStrategy 는 파일 이름 뒤에 해시를 붙이고 요청마다 해시를 계산하지만,
+ * 이 전략은 StaticResourceIndex 에 기동 시점에 계산해 둔 값을 사용한다.
+ */
+public class ContentHashVersionStrategy implements VersionStrategy {
+
+    private static final int HASH_LENGTH = 32;
+
+    private final StaticResourceIndex staticResourceIndex;
+
+    public ContentHashVersionStrategy(final StaticResourceIndex staticResourceIndex) {
+        this.staticResourceIndex = staticResourceIndex;
+    }
+
+    @Override
+    public String extractVersion(final String requestPath) {
+        final String path = stripLeadingSlash(requestPath);
+        final int end = path.indexOf('/');
+        if (end != HASH_LENGTH) {
+            return null;
+        }
+        final String candidate = path.substring(0, end);
+        return isHex(candidate) ? candidate : null;
+    }
+
+    @Override
+    public String removeVersion(final String requestPath, final String version) {
+        final String path = stripLeadingSlash(requestPath);
+        return path.substring(version.length());
+    }
+
+    @Override
+    public String addVersion(final String requestPath, final String version) {
+        if (requestPath.startsWith(".")) {
+            return requestPath;
+        }
+        return version + "/" + stripLeadingSlash(requestPath);
+    }
+
+    @Override
+    public String getResourceVersion(final Resource resource) {
+        return staticResourceIndex.find(resource)
+                .map(StaticResource::getContentHash)
+                .orElseGet(() -> StaticResourceIndex.contentHash(resource));
+    }
+
+    private static String stripLeadingSlash(final String path) {
+        return path.startsWith("/") ? path.substring(1) : path;
+    }
+
+    private static boolean isHex(final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.digit(value.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
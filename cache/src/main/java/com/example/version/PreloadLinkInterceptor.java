@@ -0,0 +1,91 @@
+package com.example.version;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.PushBuilder;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * 헤더는 본문보다 먼저 나가야 하므로 렌더링 중에 만든 URL 을 그 응답에 붙일 수는 없다.
+ * 핸들러마다 직전 렌더링에서 쓴 정적 리소스를 기억해 두었다가 다음 요청부터 렌더링 전에 Link: rel=preload 로 알린다.
+ * URL 에 content hash 가 들어 있으므로 배포 전까지는 한 번 배운 값이 그대로 유지된다.
+ * 정적 리소스 버전이 바뀌면 배운 URL 이 이전 hash 를 가리키므로 잊고 다시 배운다.
+ *
+ * push 를 켜면 HTTP/2 연결에서 PushBuilder 로 리소스를 함께 보낸다. HTTP/1.1 에서는 newPushBuilder() 가 null 이다.
+ */
+public class PreloadLinkInterceptor implements HandlerInterceptor {
+
+    private final boolean push;
+    private final ConcurrentHashMap<Method, LearnedLinks> learnedLinks = new ConcurrentHashMap<>();
+
+    public PreloadLinkInterceptor(final boolean push) {
+        this.push = push;
+    }
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response,
+                             final Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return true;
+        }
+        final LearnedLinks links = learnedLinks.get(((HandlerMethod) handler).getMethod());
+        if (links == null) {
+            return true;
+        }
+        response.setHeader(HttpHeaders.LINK, links.headerValue);
+        if (push) {
+            push(request, links.urls);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(final HttpServletRequest request, final HttpServletResponse response,
+                                final Object handler, final Exception ex) {
+        if (!(handler instanceof HandlerMethod) || ex != null) {
+            return;
+        }
+        final Set<String> emitted = PreloadLinks.emitted(request);
+        if (emitted.isEmpty()) {
+            return;
+        }
+        final Method method = ((HandlerMethod) handler).getMethod();
+        final LearnedLinks links = learnedLinks.get(method);
+        if (links == null || !links.urls.equals(List.copyOf(emitted))) {
+            learnedLinks.put(method, new LearnedLinks(List.copyOf(emitted)));
+        }
+    }
+
+    @EventListener
+    public void onResourceVersionChanged(final ResourceVersionChangedEvent event) {
+        learnedLinks.clear();
+    }
+
+    private static void push(final HttpServletRequest request, final List<String> urls) {
+        final PushBuilder pushBuilder = request.newPushBuilder();
+        if (pushBuilder == null) {
+            return;
+        }
+        for (final String url : urls) {
+            pushBuilder.path(url).push();
+        }
+    }
+
+    private static class LearnedLinks {
+
+        private final List<String> urls;
+        private final String headerValue;
+
+        LearnedLinks(final List<String> urls) {
+            this.urls = urls;
+            this.headerValue = PreloadLinks.toHeaderValue(urls);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.version;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * 렌더링 중에 staticUrls 헬퍼가 만든 정적 리소스 URL 을 요청 속성에 모은다.
+ */
+public final class PreloadLinks {
+
+    static final String EMITTED_URLS_ATTRIBUTE = PreloadLinks.class.getName() + ".EMITTED_URLS";
+
+    private PreloadLinks() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static void record(final String url) {
+        final RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return;
+        }
+        Set<String> urls = (Set<String>) requestAttributes.getAttribute(
+                EMITTED_URLS_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (urls == null) {
+            urls = new LinkedHashSet<>();
+            requestAttributes.setAttribute(EMITTED_URLS_ATTRIBUTE, urls, RequestAttributes.SCOPE_REQUEST);
+        }
+        urls.add(url);
+    }
+
+    @SuppressWarnings("unchecked")
+    static Set<String> emitted(final HttpServletRequest request) {
+        final Object urls = request.getAttribute(EMITTED_URLS_ATTRIBUTE);
+        return urls != null ? (Set<String>) urls : Set.of();
+    }
+
+    /**
+     * 예: {@code </resources/{hash}/js/index.js>; rel=preload; as=script}
+     */
+    static String toHeaderValue(final Collection<String> urls) {
+        return urls.stream()
+                .map(url -> "<" + url + ">; rel=preload; as=" + destination(url) + crossOrigin(url))
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String destination(final String url) {
+        if (url.endsWith(".js") || url.endsWith(".mjs")) {
+            return "script";
+        }
+        if (url.endsWith(".css")) {
+            return "style";
+        }
+        if (url.endsWith(".woff2") || url.endsWith(".woff") || url.endsWith(".ttf")) {
+            return "font";
+        }
+        if (url.endsWith(".json")) {
+            return "fetch";
+        }
+        return "image";
+    }
+
+    // 폰트, fetch 는 crossorigin 없이 preload 하면 브라우저가 다시 요청한다.
+    private static String crossOrigin(final String url) {
+        final String destination = destination(url);
+        return "font".equals(destination) || "fetch".equals(destination) ? "; crossorigin" : "";
+    }
+}
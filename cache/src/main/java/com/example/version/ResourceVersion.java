@@ -1,29 +1,77 @@
 package com.example.version;
 
-import org.springframework.stereotype.Component;
-
+import com.example.resource.StaticResource;
+import com.example.resource.StaticResourceIndex;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.Optional;
 import javax.annotation.PostConstruct;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
 
+/**
+ * 기동 시각이 아니라 파일 내용으로 버전을 만든다.
+ * 내용이 같으면 재시작하거나 다른 노드에서 띄워도 같은 URL 이 나오므로 클라이언트, CDN 캐시가 유지된다.
+ */
 @Component
 public class ResourceVersion {
 
-    private static final String DEFAULT_DATE_TIME_FORMAT = "yyyyMMddHHmmSS";
+    private final StaticResourceIndex staticResourceIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
-    private String version;
+    private volatile String version;
+
+    @Autowired
+    public ResourceVersion(final StaticResourceIndex staticResourceIndex,
+                           final ApplicationEventPublisher eventPublisher) {
+        this.staticResourceIndex = staticResourceIndex;
+        this.eventPublisher = eventPublisher;
+    }
 
     @PostConstruct
     public void init() {
-        this.version = now();
+        this.version = aggregate();
     }
 
+    /**
+     * 정적 파일을 다시 인덱싱한다. 버전이 바뀌었으면 ResourceVersionChangedEvent 를 발행해서
+     * 이 버전에 기대는 캐시들이 스스로 무효화하게 한다.
+     *
+     * @return 버전이 바뀌었으면 true
+     */
+    public synchronized boolean refresh() {
+        staticResourceIndex.init();
+        final String previous = version;
+        version = aggregate();
+        if (previous.equals(version)) {
+            return false;
+        }
+        eventPublisher.publishEvent(new ResourceVersionChangedEvent(this, previous, version));
+        return true;
+    }
+
+    /**
+     * 정적 파일 전체를 대표하는 버전. 파일 하나라도 바뀌면 달라진다.
+     */
     public String getVersion() {
         return version;
     }
 
-    private static String now() {
-        final DateTimeFormatter formatter = DateTimeFormatter.ofPattern(DEFAULT_DATE_TIME_FORMAT);
-        return LocalDateTime.now().format(formatter);
+    /**
+     * 파일 하나의 버전(content hash). 해당 파일이 바뀔 때만 달라진다.
+     */
+    public Optional<String> getVersion(final String path) {
+        return staticResourceIndex.find(path).map(StaticResource::getContentHash);
+    }
+
+    private String aggregate() {
+        final var builder = new StringBuilder();
+        staticResourceIndex.getResources().stream()
+                .sorted(Comparator.comparing(StaticResource::getPath))
+                .forEach(resource -> builder.append(resource.getPath()).append(':')
+                        .append(resource.getContentHash()).append('\n'));
+        return DigestUtils.md5DigestAsHex(builder.toString().getBytes(StandardCharsets.UTF_8));
     }
 }
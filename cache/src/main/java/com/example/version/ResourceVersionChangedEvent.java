@@ -0,0 +1,28 @@
+package com.example.version;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 정적 리소스를 다시 인덱싱했더니 전체 버전이 달라졌다. 이 버전에 기대어 만든 캐시는 더 이상 맞지 않는다.
+ */
+public class ResourceVersionChangedEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String previousVersion;
+    private final String version;
+
+    public ResourceVersionChangedEvent(final Object source, final String previousVersion, final String version) {
+        super(source);
+        this.previousVersion = previousVersion;
+        this.version = version;
+    }
+
+    public String getPreviousVersion() {
+        return previousVersion;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+}
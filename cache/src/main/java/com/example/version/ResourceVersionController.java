@@ -0,0 +1,25 @@
+package com.example.version;
+
+import java.util.Map;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 재시작하지 않고 정적 파일을 바꿨을 때(번들 디렉터리를 다시 만든 경우 등) 다시 인덱싱한다.
+ * 버전이 바뀌었으면 ResourceVersionChangedEvent 로 캐시들이 무효화된다.
+ */
+@RestController
+public class ResourceVersionController {
+
+    private final ResourceVersion resourceVersion;
+
+    public ResourceVersionController(final ResourceVersion resourceVersion) {
+        this.resourceVersion = resourceVersion;
+    }
+
+    @PostMapping("/cache/resources/refresh")
+    public Map<String, Object> refresh() {
+        final boolean changed = resourceVersion.refresh();
+        return Map.of("changed", changed, "version", resourceVersion.getVersion());
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.version;
+
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+
+import com.example.bundle.AssetBundles;
+import com.example.resource.StaticResource;
+import com.example.resource.StaticResourceIndex;
+import java.util.HashMap;
+import java.util.Map;
+import javax.annotation.PostConstruct;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * 정적 파일 경로 -> "/resources/{content hash}/js/index.js" 를 기동 시점에 모두 만들어 둔다.
+ * 템플릿은 렌더링할 때마다 파일 수만큼 URL 을 찾으므로, 조회는 맵에서 이미 만든 문자열을 꺼내기만 한다.
+ * 번들은 논리 이름(demo.js)으로도 찾을 수 있게 따로 둔다.
+ *
+ * 정적 리소스 버전이 바뀌면 통째로 다시 만든다.
+ */
+@Component
+public class StaticUrlTable {
+
+    private final StaticResourceIndex staticResourceIndex;
+
+    private volatile Map<String, String> urls = Map.of();
+    private volatile Map<String, String> bundleUrls = Map.of();
+
+    public StaticUrlTable(final StaticResourceIndex staticResourceIndex) {
+        this.staticResourceIndex = staticResourceIndex;
+    }
+
+    @PostConstruct
+    public void init() {
+        final Map<String, String> built = new HashMap<>();
+        final Map<String, String> bundles = new HashMap<>();
+        for (final StaticResource resource : staticResourceIndex.getResources()) {
+            final String url = PREFIX_STATIC_RESOURCES + "/" + resource.getContentHash() + resource.getPath();
+            built.put(resource.getPath(), url);
+            if (resource.getPath().startsWith(AssetBundles.BUNDLE_PREFIX)) {
+                bundles.put(resource.getPath().substring(AssetBundles.BUNDLE_PREFIX.length()), url);
+            }
+        }
+        this.urls = Map.copyOf(built);
+        this.bundleUrls = Map.copyOf(bundles);
+    }
+
+    /**
+     * 무효화된 캐시를 다시 채우는 렌더링이 새 URL 을 쓰도록 다른 리스너보다 먼저 실행한다.
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onResourceVersionChanged(final ResourceVersionChangedEvent event) {
+        init();
+    }
+
+    /**
+     * @param path "/js/index.js" 처럼 classpath:/static/ 기준의 경로
+     * @return 인덱스에 없는 파일이면 null
+     */
+    public String get(final String path) {
+        return urls.get(path);
+    }
+
+    /**
+     * @param name cache.bundles.definitions 의 번들 이름. 예: demo.js
+     * @return 만들어진 번들이 없으면 null
+     */
+    public String getBundle(final String name) {
+        return bundleUrls.get(name);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.version;
+
+import com.example.etag.RequestValidator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import javax.annotation.PostConstruct;
+import javax.servlet.http.HttpServletRequest;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+
+/**
+ * 템플릿 내용과 정적 리소스 버전으로 페이지의 검증자를 만든다.
+ * 요청 파라미터에 따라 달라지지 않는 페이지는 둘 중 하나가 바뀔 때만 렌더링 결과가 달라진다.
+ *
+ * Tomcat 은 strong ETag 가 붙은 응답을 압축하지 않으므로 weak ETag 를 쓴다.
+ *
+ * 기동 시각이나 번들처럼 기동할 때 만든 파일의 수정 시각은 노드마다, 재시작할 때마다 달라서 Last-Modified 는 주지 않는다.
+ */
+@Component
+public class TemplateVersionValidator implements RequestValidator {
+
+    private static final String TEMPLATE_LOCATION = "classpath:/templates/**";
+
+    private final ResourcePatternResolver resourcePatternResolver;
+    private final ResourceVersion resourceVersion;
+
+    private volatile String version;
+    private volatile String etag;
+
+    public TemplateVersionValidator(final ResourcePatternResolver resourcePatternResolver,
+                                    final ResourceVersion resourceVersion) {
+        this.resourcePatternResolver = resourcePatternResolver;
+        this.resourceVersion = resourceVersion;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        final Resource[] templates = resourcePatternResolver.getResources(TEMPLATE_LOCATION);
+        Arrays.sort(templates, Comparator.comparing(Resource::getDescription));
+        final var builder = new StringBuilder();
+        for (final Resource template : templates) {
+            if (template.isReadable()) {
+                try (InputStream inputStream = template.getInputStream()) {
+                    builder.append(template.getFilename()).append(':')
+                            .append(DigestUtils.md5DigestAsHex(inputStream)).append('\n');
+                }
+            }
+        }
+        builder.append(resourceVersion.getVersion());
+        this.version = DigestUtils.md5DigestAsHex(builder.toString().getBytes(StandardCharsets.UTF_8));
+        this.etag = "W/\"" + version + "\"";
+    }
+
+    /**
+     * 정적 리소스 버전이 ETag 에 들어가므로 다시 계산한다.
+     * 이 값을 캐시 namespace 로 쓰는 리스너들보다 먼저 실행되어야 한다.
+     */
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onResourceVersionChanged(final ResourceVersionChangedEvent event) throws IOException {
+        init();
+    }
+
+    @Override
+    public String getEtag(final HttpServletRequest request) {
+        return etag;
+    }
+
+    /**
+     * ETag 만 비교한다.
+     */
+    @Override
+    public long getLastModified(final HttpServletRequest request) {
+        return -1;
+    }
+
+    /**
+     * 요청과 상관없이 같은 값이므로 WebFlux 핸들러에서도 그대로 쓴다.
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * 템플릿과 정적 리소스를 합친 버전. 렌더링 결과를 보관하는 캐시의 namespace 로 쓴다.
+     */
+    public String getVersion() {
+        return version;
+    }
+}
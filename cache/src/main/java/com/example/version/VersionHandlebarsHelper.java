@@ -1,25 +1,46 @@
 package com.example.version;
 
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+
+import com.example.bundle.AssetBundles;
 import com.github.jknack.handlebars.Options;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import pl.allegro.tech.boot.autoconfigure.handlebars.HandlebarsHelper;
 
 @HandlebarsHelper
 public class VersionHandlebarsHelper {
 
-    private static final Logger log = LoggerFactory.getLogger(VersionHandlebarsHelper.class);
-
-    private final ResourceVersion version;
+    private final StaticUrlTable staticUrlTable;
 
     @Autowired
-    public VersionHandlebarsHelper(ResourceVersion version) {
-        this.version = version;
+    public VersionHandlebarsHelper(StaticUrlTable staticUrlTable) {
+        this.staticUrlTable = staticUrlTable;
     }
 
+    /**
+     * 기동 시점에 만들어 둔 "/resources/{content hash}/js/index.js" 를 꺼낸다.
+     * CacheBustingWebConfig 의 VersionResourceResolver 가 받아들이는 URL 과 같은 형태다.
+     * 만든 URL 은 PreloadLinkInterceptor 가 다음 응답의 Link 헤더로 쓰도록 기록한다.
+     */
     public String staticUrls(String path, Options options) {
-        log.debug("static url : {}", path);
-        return String.format("/resources/%s%s", version.getVersion(), path);
+        final String url = staticUrlTable.get(path);
+        if (url == null) {
+            return PREFIX_STATIC_RESOURCES + path;
+        }
+        PreloadLinks.record(url);
+        return url;
+    }
+
+    /**
+     * 템플릿은 번들의 논리 이름만 적는다. 예: {{bundleUrl 'demo.js'}}
+     * 번들 정의는 application.yml 의 cache.bundles.definitions 에 있다.
+     */
+    public String bundleUrl(String name, Options options) {
+        final String url = staticUrlTable.getBundle(name);
+        if (url == null) {
+            return PREFIX_STATIC_RESOURCES + AssetBundles.path(name);
+        }
+        PreloadLinks.record(url);
+        return url;
     }
 }
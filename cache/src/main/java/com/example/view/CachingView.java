@@ -0,0 +1,84 @@
+package com.example.view;
+
+import java.util.HashMap;
+import java.util.Map;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.support.RequestContextUtils;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * 실제 뷰를 감싸서 같은 뷰 이름, 모델, 로케일이면 렌더링하지 않고 캐시해 둔 바이트를 내보낸다.
+ * 캐시해 둔 페이지가 stale 이면 그대로 내보내고, 요청을 복사해 두었다가 백그라운드에서 다시 렌더링한다.
+ */
+public class CachingView implements View {
+
+    private final String viewName;
+    private final View delegate;
+    private final RenderedViewCache cache;
+
+    public CachingView(final String viewName, final View delegate, final RenderedViewCache cache) {
+        this.viewName = viewName;
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public String getContentType() {
+        return delegate.getContentType();
+    }
+
+    @Override
+    public void render(final Map<String, ?> model, final HttpServletRequest request,
+                       final HttpServletResponse response) throws Exception {
+        final var key = new RenderedViewKey(viewName, cacheableModel(model), RequestContextUtils.getLocale(request));
+        final RenderedPage cached = cache.get(key);
+        if (cached != null) {
+            if (cache.isStale(cached)) {
+                // 요청 복사는 다시 렌더링을 맡게 된 요청 하나만 한다.
+                cache.refresh(key, () -> {
+                    final var detachedRequest = new DetachedRequest(request);
+                    return () -> renderDetached(key.getModel(), detachedRequest);
+                });
+            }
+            cached.writeTo(request, response);
+            return;
+        }
+
+        final var responseWrapper = new ContentCachingResponseWrapper(response);
+        delegate.render(model, request, responseWrapper);
+        if (responseWrapper.getStatus() != HttpServletResponse.SC_OK) {
+            responseWrapper.copyBodyToResponse();
+            return;
+        }
+        final var page = new RenderedPage(responseWrapper.getContentAsByteArray(), responseWrapper.getContentType());
+        cache.put(key, page);
+        page.writeTo(request, response);
+    }
+
+    private RenderedPage renderDetached(final Map<String, Object> model, final HttpServletRequest request)
+            throws Exception {
+        final var response = new DetachedResponse();
+        delegate.render(model, request, response);
+        if (response.getStatus() != HttpServletResponse.SC_OK) {
+            return null;
+        }
+        return new RenderedPage(response.getContentAsByteArray(), response.getContentType());
+    }
+
+    // BindingResult 는 요청마다 새로 만들어지므로 키에서 뺀다.
+    private static Map<String, Object> cacheableModel(final Map<String, ?> model) {
+        if (model == null || model.isEmpty()) {
+            return Map.of();
+        }
+        final Map<String, Object> cacheable = new HashMap<>();
+        model.forEach((name, value) -> {
+            if (!name.startsWith(BindingResult.MODEL_KEY_PREFIX)) {
+                cacheable.put(name, value);
+            }
+        });
+        return cacheable;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.view;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.MediaType;
+import org.springframework.util.FastByteArrayOutputStream;
+
+/**
+ * 백그라운드 렌더링 결과를 받는 응답. 상태, content type, 본문만 남기고 헤더는 버린다.
+ */
+class DetachedResponse extends HttpServletResponseWrapper {
+
+    private static final HttpServletResponse EMPTY = (HttpServletResponse) Proxy.newProxyInstance(
+            DetachedResponse.class.getClassLoader(), new Class<?>[]{HttpServletResponse.class},
+            (proxy, method, args) -> DetachedRequest.emptyValue(method.getReturnType()));
+
+    private final FastByteArrayOutputStream content = new FastByteArrayOutputStream(1024);
+    private final ServletOutputStream outputStream = new ServletOutputStream() {
+
+        @Override
+        public void write(final int b) throws IOException {
+            content.write(b);
+        }
+
+        @Override
+        public void write(final byte[] b, final int off, final int len) throws IOException {
+            content.write(b, off, len);
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        /**
+         * 메모리에 쓰므로 언제나 쓸 수 있다. 리스너를 바로 부른다.
+         */
+        @Override
+        public void setWriteListener(final WriteListener writeListener) {
+            try {
+                writeListener.onWritePossible();
+            } catch (IOException e) {
+                writeListener.onError(e);
+            }
+        }
+    };
+
+    private int status = SC_OK;
+    private String contentType;
+    private Charset charset = StandardCharsets.ISO_8859_1;
+    private PrintWriter writer;
+
+    DetachedResponse() {
+        super(EMPTY);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(outputStream, charset));
+        }
+        return writer;
+    }
+
+    @Override
+    public void setContentType(final String type) {
+        this.contentType = type;
+        if (type != null) {
+            final Charset declared = MediaType.parseMediaType(type).getCharset();
+            if (declared != null) {
+                this.charset = declared;
+            }
+        }
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public void setCharacterEncoding(final String charset) {
+        this.charset = Charset.forName(charset);
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return charset.name();
+    }
+
+    @Override
+    public void setStatus(final int sc) {
+        this.status = sc;
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void sendError(final int sc) {
+        this.status = sc;
+    }
+
+    @Override
+    public void sendError(final int sc, final String msg) {
+        this.status = sc;
+    }
+
+    @Override
+    public void sendRedirect(final String location) {
+        this.status = SC_FOUND;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    byte[] getContentAsByteArray() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return content.toByteArray();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.view;
+
+import java.io.IOException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * 렌더링이 끝난 페이지의 바이트와 그 내용으로 만든 ETag, 렌더링한 시각.
+ */
+public class RenderedPage {
+
+    private final byte[] content;
+    private final String contentType;
+    private final String etag;
+    private final long renderedAt;
+
+    public RenderedPage(final byte[] content, final String contentType) {
+        this(content, contentType, "\"0" + DigestUtils.md5DigestAsHex(content) + "\"", System.currentTimeMillis());
+    }
+
+    RenderedPage(final byte[] content, final String contentType, final String etag, final long renderedAt) {
+        this.content = content;
+        this.contentType = contentType;
+        this.etag = etag;
+        this.renderedAt = renderedAt;
+    }
+
+    public void writeTo(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+        if (response.getHeader(HttpHeaders.ETAG) == null) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+            if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+                return;
+            }
+        }
+        if (contentType != null) {
+            response.setContentType(contentType);
+        }
+        response.setContentLength(content.length);
+        response.getOutputStream().write(content);
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * 렌더링한 시각 (epoch millis). L2 에서 가져온 페이지는 처음 렌더링한 인스턴스의 시각이다.
+     */
+    public long getRenderedAt() {
+        return renderedAt;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.view;
+
+import com.example.tiered.CacheCodec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * content type, ETag, 본문, 렌더링 시각 순서로 쓴다. ETag 도 함께 보관하므로 L2 에서 꺼낼 때 다시 해시하지 않는다.
+ * 렌더링 시각이 없는 이전 형식은 읽다가 EOF 로 실패하므로 TieredCache 가 miss 로 처리한다.
+ */
+class RenderedPageCodec implements CacheCodec<RenderedPage> {
+
+    @Override
+    public byte[] encode(final RenderedPage page) {
+        final var bytes = new ByteArrayOutputStream(page.getContent().length + 128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeUTF(page.getContentType() == null ? "" : page.getContentType());
+            out.writeUTF(page.getEtag());
+            out.writeInt(page.getContent().length);
+            out.write(page.getContent());
+            out.writeLong(page.getRenderedAt());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public RenderedPage decode(final byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            final String contentType = in.readUTF();
+            final String etag = in.readUTF();
+            final byte[] content = new byte[in.readInt()];
+            in.readFully(content);
+            return new RenderedPage(content, contentType.isEmpty() ? null : contentType, etag, in.readLong());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.view;
+
+import com.example.tiered.CacheBackend;
+import com.example.tiered.TieredCache;
+import com.example.version.ResourceVersionChangedEvent;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+
+/**
+ * 렌더링된 페이지를 W-TinyLFU 로 크기를 제한한 힙 캐시(L1)에 보관한다.
+ * CacheBackend(L2)가 있으면 모델이 없는 페이지는 L2 에도 써서 재시작 후나 다른 인스턴스에서도 다시 렌더링하지 않는다.
+ * hit, miss, eviction 횟수를 세어서 캐시 크기를 정하는 근거로 쓴다.
+ *
+ * L2 namespace 는 템플릿과 정적 리소스 버전이다. 정적 리소스 버전이 바뀌면 통째로 무효화한다.
+ *
+ * ttl 을 주면 렌더링한 지 ttl 이 지난 페이지는 stale 이다. staleWhileRevalidate 구간 안에서는 stale 페이지를 그대로 보내고
+ * refreshExecutor 에서 다시 렌더링해서 바꿔 넣는다. 그 구간도 지나면 만료되어 요청 스레드에서 다시 렌더링한다.
+ */
+public class RenderedViewCache {
+
+    private static final Logger log = LoggerFactory.getLogger(RenderedViewCache.class);
+
+    private final TieredCache<RenderedViewKey, RenderedPage> pages;
+    private final Supplier<String> version;
+    private final long ttlMillis;
+    private final long staleMillis;
+    private final Executor refreshExecutor;
+    private final Clock clock;
+
+    private final ConcurrentHashMap<RenderedViewKey, Boolean> refreshing = new ConcurrentHashMap<>();
+    // 다시 렌더링하는 사이에 무효화되었다면 이전 버전으로 렌더링한 결과를 넣지 않는다.
+    private final AtomicLong generation = new AtomicLong();
+
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder expired = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final LongAdder refreshRejections = new LongAdder();
+
+    public RenderedViewCache(final int maxEntries) {
+        this(new TieredCache<>(maxEntries), () -> "", Duration.ZERO, Duration.ZERO, Runnable::run, Clock.systemUTC());
+    }
+
+    /**
+     * @param version 렌더링 결과가 기대는 버전. L2 namespace 로 쓴다.
+     */
+    public RenderedViewCache(final int maxEntries, final CacheBackend shared, final Supplier<String> version) {
+        this(maxEntries, shared, version, Duration.ZERO, Duration.ZERO, Runnable::run);
+    }
+
+    /**
+     * @param shared          null 이면 L1 만 쓴다.
+     * @param ttl             0 이면 버전이 바뀔 때까지 만료되지 않는다.
+     * @param refreshExecutor stale 페이지를 다시 렌더링할 전용 executor. 꽉 차서 거절하면 다음 요청에서 다시 시도한다.
+     */
+    public RenderedViewCache(final int maxEntries, final CacheBackend shared, final Supplier<String> version,
+                             final Duration ttl, final Duration staleWhileRevalidate, final Executor refreshExecutor) {
+        this(shared == null ? new TieredCache<>(maxEntries)
+                        : new TieredCache<>(maxEntries, shared, new RenderedPageCodec(), RenderedViewCache::sharedKey,
+                        version.get()),
+                version, ttl, staleWhileRevalidate, refreshExecutor, Clock.systemUTC());
+    }
+
+    RenderedViewCache(final TieredCache<RenderedViewKey, RenderedPage> pages, final Supplier<String> version,
+                      final Duration ttl, final Duration staleWhileRevalidate, final Executor refreshExecutor,
+                      final Clock clock) {
+        this.pages = pages;
+        this.version = version;
+        this.ttlMillis = ttl.toMillis();
+        this.staleMillis = staleWhileRevalidate.toMillis();
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+    }
+
+    /**
+     * @return 보낼 수 있는 페이지. stale 이어도 돌려준다. 없거나 만료되었으면 null
+     */
+    public RenderedPage get(final RenderedViewKey key) {
+        if (ttlMillis <= 0) {
+            return pages.get(key);
+        }
+        // stale 구간까지 지난 페이지는 없는 것과 같다. hit 가 아니라 miss 로 센다.
+        final boolean[] found = new boolean[1];
+        final RenderedPage page = pages.get(key, candidate -> {
+            found[0] = true;
+            return age(candidate) < ttlMillis + staleMillis;
+        });
+        if (page == null && found[0]) {
+            expired.increment();
+        }
+        return page;
+    }
+
+    public void put(final RenderedViewKey key, final RenderedPage page) {
+        pages.put(key, page);
+    }
+
+    /**
+     * {@link #get} 으로 꺼낸 페이지가 ttl 을 넘겼는지
+     */
+    public boolean isStale(final RenderedPage page) {
+        if (ttlMillis <= 0 || age(page) < ttlMillis) {
+            return false;
+        }
+        staleHits.increment();
+        return true;
+    }
+
+    /**
+     * refreshExecutor 에서 renderer 로 다시 렌더링해서 바꿔 넣는다. 같은 키를 이미 다시 렌더링하고 있으면 아무것도 하지 않는다.
+     *
+     * @param rendererFactory 다시 렌더링을 맡게 되었을 때만 호출한 스레드에서 부른다. 요청을 복사하는 일은 여기서 한다.
+     *                        만든 renderer 는 다시 렌더링한 페이지를 돌려주고, 200 이 아니어서 보관할 수 없으면 null 을 돌려준다.
+     */
+    public void refresh(final RenderedViewKey key, final Supplier<Callable<RenderedPage>> rendererFactory) {
+        if (refreshing.putIfAbsent(key, Boolean.TRUE) != null) {
+            return;
+        }
+        final long startedGeneration = generation.get();
+        try {
+            final Callable<RenderedPage> renderer = rendererFactory.get();
+            refreshExecutor.execute(() -> {
+                try {
+                    final RenderedPage page = renderer.call();
+                    if (page == null) {
+                        refreshFailures.increment();
+                    } else if (generation.get() == startedGeneration) {
+                        pages.put(key, page);
+                        refreshes.increment();
+                    }
+                } catch (Exception e) {
+                    refreshFailures.increment();
+                    log.warn("failed to refresh rendered view {}", key.getViewName(), e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+            refreshRejections.increment();
+        } catch (RuntimeException e) {
+            refreshing.remove(key);
+            throw e;
+        }
+    }
+
+    public void clear() {
+        generation.incrementAndGet();
+        pages.clear();
+    }
+
+    @EventListener
+    public void onResourceVersionChanged(final ResourceVersionChangedEvent event) {
+        generation.incrementAndGet();
+        pages.invalidate(version.get());
+    }
+
+    public RenderedViewCacheStats stats() {
+        final var local = pages.getLocal();
+        return new RenderedViewCacheStats(pages.getHits(), pages.getSharedHits(), pages.getMisses(),
+                local.getEvictions(), local.getRejections(), local.size(), local.getMaxEntries(),
+                staleHits.sum(), expired.sum(), refreshes.sum(), refreshFailures.sum(), refreshRejections.sum());
+    }
+
+    private long age(final RenderedPage page) {
+        return clock.millis() - page.getRenderedAt();
+    }
+
+    // 모델 값은 문자열로 안정적으로 바꿀 수 있다는 보장이 없으므로 모델이 없는 페이지만 L2 에 둔다.
+    private static String sharedKey(final RenderedViewKey key) {
+        if (!key.getModel().isEmpty()) {
+            return null;
+        }
+        return key.getLocale() == null ? key.getViewName() : key.getViewName() + '|' + key.getLocale().toLanguageTag();
+    }
+}
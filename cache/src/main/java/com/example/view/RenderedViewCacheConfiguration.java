@@ -0,0 +1,73 @@
+package com.example.view;
+
+import com.example.tiered.CacheBackend;
+import com.example.tiered.FileCacheBackend;
+import com.example.version.TemplateVersionValidator;
+import com.github.jknack.handlebars.springmvc.HandlebarsViewResolver;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * GreetingController 의 페이지들은 모델이 없어서 매번 같은 결과가 렌더링된다.
+ * cache.view.enabled=true 일 때만 렌더링 결과를 메모리에 보관한다.
+ *
+ * cache.view.shared.directory 를 주면 그 디렉터리를 L2 로 쓴다. 다른 저장소를 쓰려면 CacheBackend 빈을 등록한다.
+ * 기동할 때 cache.view.shared.retention-seconds 동안 쓰이지 않은 이전 버전의 디렉터리를 지운다.
+ * cache.view.ttl-seconds 를 주면 그 뒤로 stale-while-revalidate-seconds 동안은 stale 페이지를 보내며 백그라운드에서 다시 렌더링한다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "cache.view", name = "enabled", havingValue = "true")
+public class RenderedViewCacheConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(CacheBackend.class)
+    @ConditionalOnProperty(prefix = "cache.view.shared", name = "directory")
+    public FileCacheBackend fileCacheBackend(@Value("${cache.view.shared.directory}") final String directory,
+                                             @Value("${cache.view.shared.retention-seconds:3600}") final long retentionSeconds) {
+        return new FileCacheBackend(Path.of(directory), Duration.ofSeconds(retentionSeconds));
+    }
+
+    @Bean
+    public RenderedViewCache renderedViewCache(
+            @Value("${cache.view.max-entries:256}") final int maxEntries,
+            @Value("${cache.view.ttl-seconds:0}") final long ttlSeconds,
+            @Value("${cache.view.stale-while-revalidate-seconds:60}") final long staleWhileRevalidateSeconds,
+            @Value("${cache.view.refresh.threads:2}") final int refreshThreads,
+            @Value("${cache.view.refresh.queue-capacity:64}") final int refreshQueueCapacity,
+            final ObjectProvider<CacheBackend> cacheBackend,
+            final TemplateVersionValidator templateVersionValidator) {
+        return new RenderedViewCache(maxEntries, cacheBackend.getIfAvailable(), templateVersionValidator::getVersion,
+                Duration.ofSeconds(ttlSeconds), Duration.ofSeconds(staleWhileRevalidateSeconds),
+                refreshExecutor(refreshThreads, refreshQueueCapacity));
+    }
+
+    @Bean
+    public RenderedViewCachingViewResolver renderedViewCachingViewResolver(
+            final HandlebarsViewResolver handlebarsViewResolver, final RenderedViewCache renderedViewCache) {
+        return new RenderedViewCachingViewResolver(handlebarsViewResolver, renderedViewCache);
+    }
+
+    /**
+     * 요청 스레드와 나눠 쓰지 않는 전용 풀. 큐가 차면 거절하고 stale 페이지를 계속 보낸다.
+     * Executor 빈으로 등록하면 Boot 의 applicationTaskExecutor 가 빠지므로 빈으로 노출하지 않는다.
+     * 쉬는 스레드는 정리되고 데몬 스레드라서 종료를 막지 않는다.
+     */
+    private static ThreadPoolExecutor refreshExecutor(final int threads, final int queueCapacity) {
+        final var threadFactory = new CustomizableThreadFactory("view-refresh-");
+        threadFactory.setDaemon(true);
+        final var executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.view;
+
+public class RenderedViewCacheStats {
+
+    private final long hits;
+    private final long sharedHits;
+    private final long misses;
+    private final long evictions;
+    private final long rejections;
+    private final int size;
+    private final int maxEntries;
+    private final long staleHits;
+    private final long expired;
+    private final long refreshes;
+    private final long refreshFailures;
+    private final long refreshRejections;
+
+    public RenderedViewCacheStats(final long hits, final long sharedHits, final long misses, final long evictions,
+                                  final long rejections, final int size, final int maxEntries, final long staleHits,
+                                  final long expired, final long refreshes, final long refreshFailures,
+                                  final long refreshRejections) {
+        this.hits = hits;
+        this.sharedHits = sharedHits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.rejections = rejections;
+        this.size = size;
+        this.maxEntries = maxEntries;
+        this.staleHits = staleHits;
+        this.expired = expired;
+        this.refreshes = refreshes;
+        this.refreshFailures = refreshFailures;
+        this.refreshRejections = refreshRejections;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * hits 중 L1 에 없어서 L2 에서 가져온 횟수
+     */
+    public long getSharedHits() {
+        return sharedHits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * evictions 중 새로 렌더링한 페이지가 빈도가 낮아서 L1 에 남지 못한 횟수
+     */
+    public long getRejections() {
+        return rejections;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    /**
+     * hits 중 ttl 이 지난 페이지를 보내고 백그라운드에서 다시 렌더링하게 한 횟수
+     */
+    public long getStaleHits() {
+        return staleHits;
+    }
+
+    /**
+     * misses 중 페이지는 있었지만 stale 구간까지 지나서 요청 스레드에서 다시 렌더링한 횟수
+     */
+    public long getExpired() {
+        return expired;
+    }
+
+    public long getRefreshes() {
+        return refreshes;
+    }
+
+    public long getRefreshFailures() {
+        return refreshFailures;
+    }
+
+    /**
+     * refresh executor 가 꽉 차서 다시 렌더링하지 못한 횟수. stale 페이지는 다음 요청에서 다시 시도한다.
+     */
+    public long getRefreshRejections() {
+        return refreshRejections;
+    }
+
+    public double getHitRate() {
+        final long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
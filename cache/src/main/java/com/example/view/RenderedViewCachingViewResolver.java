@@ -0,0 +1,35 @@
+package com.example.view;
+
+import java.util.Locale;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.View;
+import org.springframework.web.servlet.ViewResolver;
+
+/**
+ * Handlebars 뷰 리졸버가 찾은 뷰를 CachingView 로 감싼다.
+ * ContentNegotiatingViewResolver 가 후보를 순서대로 고르므로 Handlebars 보다 앞에 둔다.
+ */
+public class RenderedViewCachingViewResolver implements ViewResolver, Ordered {
+
+    private final ViewResolver delegate;
+    private final RenderedViewCache cache;
+
+    public RenderedViewCachingViewResolver(final ViewResolver delegate, final RenderedViewCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public View resolveViewName(final String viewName, final Locale locale) throws Exception {
+        final View view = delegate.resolveViewName(viewName, locale);
+        if (view == null) {
+            return null;
+        }
+        return new CachingView(viewName, view, cache);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+}
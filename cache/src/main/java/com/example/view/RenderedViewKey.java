@@ -0,0 +1,56 @@
+package com.example.view;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 뷰 이름, 모델, 로케일로 렌더링 결과를 구분한다.
+ * 조회는 모델의 해시로 하지만, 해시 충돌로 다른 페이지가 나가지 않도록 equals 는 모델 전체를 비교한다.
+ */
+public class RenderedViewKey {
+
+    private final String viewName;
+    private final Map<String, Object> model;
+    private final Locale locale;
+    private final int hashCode;
+
+    public RenderedViewKey(final String viewName, final Map<String, Object> model, final Locale locale) {
+        this.viewName = viewName;
+        this.model = model;
+        this.locale = locale;
+        this.hashCode = Objects.hash(viewName, model, locale);
+    }
+
+    public String getViewName() {
+        return viewName;
+    }
+
+    public Map<String, Object> getModel() {
+        return model;
+    }
+
+    public Locale getLocale() {
+        return locale;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof RenderedViewKey)) {
+            return false;
+        }
+        final RenderedViewKey that = (RenderedViewKey) o;
+        return hashCode == that.hashCode
+                && viewName.equals(that.viewName)
+                && model.equals(that.model)
+                && Objects.equals(locale, that.locale);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * 기동 직후 자주 요청되는 경로를 로컬 서버에 보내서 캐시를 채운다.
+ * 요청은 Tomcat 과 필터 체인을 모두 거치므로 렌더링된 페이지, 응답 캐시, preload 링크가 실제 요청과 똑같이 채워진다.
+ *
+ * ApplicationRunner 가 끝나야 ApplicationReadyEvent 와 ReadinessState.ACCEPTING_TRAFFIC 이 발행되므로
+ * 워밍업이 끝나기 전에는 준비되지 않은 것으로 보인다. timeout 이 지나면 남은 경로는 건너뛰고 기동을 마친다.
+ */
+public class CacheWarmer implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheWarmer.class);
+
+    private final ResourceLoader resourceLoader;
+    private final Environment environment;
+    private final WarmupProperties properties;
+    private final Map<String, IntSupplier> cacheSizes;
+
+    private volatile WarmupReport report;
+
+    /**
+     * @param cacheSizes 캐시 이름 -> 현재 항목 수. 워밍업 전후를 비교해서 보고한다.
+     */
+    public CacheWarmer(final ResourceLoader resourceLoader, final Environment environment,
+                       final WarmupProperties properties, final Map<String, IntSupplier> cacheSizes) {
+        this.resourceLoader = resourceLoader;
+        this.environment = environment;
+        this.properties = properties;
+        this.cacheSizes = cacheSizes;
+    }
+
+    @Override
+    public void run(final ApplicationArguments args) throws IOException, InterruptedException {
+        final List<String> paths = readPaths();
+        final Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (paths.isEmpty() || port == null) {
+            log.info("cache warm-up skipped: paths={}, port={}", paths.size(), port);
+            return;
+        }
+        report = warmUp("http://localhost:" + port + environment.getProperty("server.servlet.context-path", ""),
+                paths);
+        log.info("cache warm-up finished: {}", report);
+    }
+
+    /**
+     * @return 워밍업을 하지 않았으면 null
+     */
+    public WarmupReport getReport() {
+        return report;
+    }
+
+    WarmupReport warmUp(final String baseUrl, final List<String> paths) throws InterruptedException {
+        final Map<String, Integer> sizesBefore = sizes();
+        final var client = HttpClient.newBuilder()
+                .connectTimeout(properties.getTimeout())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        final var rateLimiter = new RateLimiter(properties.getRequestsPerSecond());
+        final var statuses = new ConcurrentHashMap<Integer, AtomicInteger>();
+        final var completed = new AtomicInteger();
+        final var failed = new AtomicInteger();
+        final var bytes = new AtomicLong();
+
+        final long start = System.nanoTime();
+        final ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, properties.getConcurrency()),
+                new CustomizableThreadFactory("cache-warmup-"));
+        for (final String path : paths) {
+            workers.execute(() -> {
+                try {
+                    rateLimiter.acquire();
+                    final HttpResponse<byte[]> response = client.send(request(baseUrl + path),
+                            HttpResponse.BodyHandlers.ofByteArray());
+                    statuses.computeIfAbsent(response.statusCode(), status -> new AtomicInteger()).incrementAndGet();
+                    bytes.addAndGet(response.body().length);
+                    if (!isSuccess(response.statusCode())) {
+                        failed.incrementAndGet();
+                    }
+                    completed.incrementAndGet();
+                } catch (IOException e) {
+                    log.debug("cache warm-up request failed: {}", path, e);
+                    failed.incrementAndGet();
+                    completed.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        workers.shutdown();
+        if (!workers.awaitTermination(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+            workers.shutdownNow();
+        }
+        final long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        final Map<Integer, Integer> statusCounts = new TreeMap<>();
+        statuses.forEach((status, count) -> statusCounts.put(status, count.get()));
+        final Map<String, Integer> populated = new LinkedHashMap<>();
+        sizes().forEach((name, size) -> populated.put(name, size - sizesBefore.get(name)));
+        return new WarmupReport(durationMillis, paths.size(), completed.get() - failed.get(), failed.get(),
+                paths.size() - completed.get(), bytes.get(), statusCounts, populated);
+    }
+
+    private List<String> readPaths() throws IOException {
+        final var resource = resourceLoader.getResource(properties.getPathsFile());
+        if (properties.getPathsFile().isEmpty() || !resource.exists()) {
+            log.warn("cache warm-up paths file not found: {}", properties.getPathsFile());
+            return List.of();
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            return HotPaths.parse(reader, properties.getMaxPaths());
+        }
+    }
+
+    private HttpRequest request(final String url) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .timeout(properties.getTimeout())
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .GET()
+                .build();
+    }
+
+    private Map<String, Integer> sizes() {
+        final Map<String, Integer> sizes = new LinkedHashMap<>();
+        cacheSizes.forEach((name, size) -> sizes.put(name, size.getAsInt()));
+        return sizes;
+    }
+
+    private static boolean isSuccess(final int status) {
+        return (status >= 200 && status < 300) || status == 304;
+    }
+
+    /**
+     * 요청 사이 간격을 일정하게 벌린다. 기동 직후 JIT 이 덜 된 상태에서 CPU 를 다 쓰지 않기 위해서다.
+     */
+    private static final class RateLimiter {
+
+        private final long intervalNanos;
+        private long next = System.nanoTime();
+
+        RateLimiter(final double requestsPerSecond) {
+            this.intervalNanos = requestsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond) : 0;
+        }
+
+        void acquire() throws InterruptedException {
+            if (intervalNanos == 0) {
+                return;
+            }
+            final long waitNanos;
+            synchronized (this) {
+                final long now = System.nanoTime();
+                final long slot = Math.max(now, next);
+                next = slot + intervalNanos;
+                waitNanos = slot - now;
+            }
+            if (waitNanos > 0) {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+        }
+    }
+}
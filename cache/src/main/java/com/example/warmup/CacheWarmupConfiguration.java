@@ -0,0 +1,34 @@
+package com.example.warmup;
+
+import com.example.response.ResponseCache;
+import com.example.view.RenderedViewCache;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.IntSupplier;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.ResourceLoader;
+
+/**
+ * cache.warmup.enabled=true 이면 기동 직후 paths-file 의 경로로 캐시를 채운다.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "cache.warmup", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(WarmupProperties.class)
+public class CacheWarmupConfiguration {
+
+    @Bean
+    public CacheWarmer cacheWarmer(final ResourceLoader resourceLoader, final Environment environment,
+                                   final WarmupProperties warmupProperties,
+                                   final ObjectProvider<RenderedViewCache> renderedViewCache,
+                                   final ObjectProvider<ResponseCache> responseCache) {
+        final Map<String, IntSupplier> cacheSizes = new LinkedHashMap<>();
+        renderedViewCache.ifAvailable(cache -> cacheSizes.put("views", () -> cache.stats().getSize()));
+        responseCache.ifAvailable(cache -> cacheSizes.put("responses", () -> cache.stats().getSize()));
+        return new CacheWarmer(resourceLoader, environment, warmupProperties, cacheSizes);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.warmup;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 워밍업할 경로를 읽는다. 한 줄에 경로 하나이거나, 접근 로그(common/combined) 형식이면 "GET /path HTTP/1.1" 에서 꺼낸다.
+ * 빈 줄, # 주석, GET 이 아닌 요청은 건너뛴다.
+ * 같은 경로가 여러 번 나오면 많이 나온 순서로, 횟수가 같으면 처음 나온 순서로 정렬한다.
+ */
+final class HotPaths {
+
+    private static final Pattern REQUEST_LINE = Pattern.compile("\"([A-Z]+) (\\S+) HTTP/[0-9.]+\"");
+
+    private HotPaths() {
+    }
+
+    static List<String> parse(final BufferedReader reader, final int maxPaths) throws IOException {
+        final Map<String, Integer> counts = new LinkedHashMap<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            final String path = path(line.trim());
+            if (path != null) {
+                counts.merge(path, 1, Integer::sum);
+            }
+        }
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .limit(maxPaths)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private static String path(final String line) {
+        if (line.isEmpty() || line.startsWith("#")) {
+            return null;
+        }
+        final Matcher matcher = REQUEST_LINE.matcher(line);
+        if (matcher.find()) {
+            return "GET".equals(matcher.group(1)) ? matcher.group(2) : null;
+        }
+        return line.startsWith("/") ? line : null;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.warmup;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "cache.warmup")
+public class WarmupProperties {
+
+    /**
+     * 워밍업할 경로 목록이나 접근 로그의 위치 (예: file:/var/log/greeting/access.log, classpath:hot-paths.txt)
+     */
+    private String pathsFile = "";
+
+    /**
+     * 접근 로그라면 요청 횟수가 많은 순서로 이만큼만 보낸다.
+     */
+    private int maxPaths = 200;
+
+    private int concurrency = 4;
+
+    /**
+     * 0 이하면 제한하지 않는다.
+     */
+    private double requestsPerSecond = 50;
+
+    /**
+     * 이 시간 안에 끝나지 않은 경로는 건너뛰고 기동을 마친다.
+     */
+    private Duration timeout = Duration.ofSeconds(60);
+
+    public String getPathsFile() {
+        return pathsFile;
+    }
+
+    public void setPathsFile(final String pathsFile) {
+        this.pathsFile = pathsFile;
+    }
+
+    public int getMaxPaths() {
+        return maxPaths;
+    }
+
+    public void setMaxPaths(final int maxPaths) {
+        this.maxPaths = maxPaths;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(final int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public double getRequestsPerSecond() {
+        return requestsPerSecond;
+    }
+
+    public void setRequestsPerSecond(final double requestsPerSecond) {
+        this.requestsPerSecond = requestsPerSecond;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(final Duration timeout) {
+        this.timeout = timeout;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.warmup;
+
+import java.util.Map;
+
+public class WarmupReport {
+
+    private final long durationMillis;
+    private final int paths;
+    private final int succeeded;
+    private final int failed;
+    private final int skipped;
+    private final long bytes;
+    private final Map<Integer, Integer> statuses;
+    private final Map<String, Integer> populated;
+
+    public WarmupReport(final long durationMillis, final int paths, final int succeeded, final int failed,
+                        final int skipped, final long bytes, final Map<Integer, Integer> statuses,
+                        final Map<String, Integer> populated) {
+        this.durationMillis = durationMillis;
+        this.paths = paths;
+        this.succeeded = succeeded;
+        this.failed = failed;
+        this.skipped = skipped;
+        this.bytes = bytes;
+        this.statuses = statuses;
+        this.populated = populated;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public int getPaths() {
+        return paths;
+    }
+
+    /**
+     * 2xx, 304 로 끝난 요청 수
+     */
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    /**
+     * 그 밖의 상태 코드나 I/O 오류로 끝난 요청 수
+     */
+    public int getFailed() {
+        return failed;
+    }
+
+    /**
+     * timeout 안에 보내지 못한 경로 수
+     */
+    public int getSkipped() {
+        return skipped;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public Map<Integer, Integer> getStatuses() {
+        return statuses;
+    }
+
+    /**
+     * 캐시별로 워밍업 동안 늘어난 항목 수
+     */
+    public Map<String, Integer> getPopulated() {
+        return populated;
+    }
+
+    @Override
+    public String toString() {
+        return "paths=" + paths + ", succeeded=" + succeeded + ", failed=" + failed + ", skipped=" + skipped
+                + ", bytes=" + bytes + ", populated=" + populated + ", took=" + durationMillis + "ms";
+    }
+}
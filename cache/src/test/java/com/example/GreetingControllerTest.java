@@ -1,18 +1,27 @@
 package com.example;
 
+import com.example.resource.StaticResource;
+import com.example.resource.StaticResourceIndex;
 import com.example.version.ResourceVersion;
+import com.example.version.StaticUrlTable;
 import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.servlet.resource.ResourceUrlProvider;
 
+import java.io.IOException;
 import java.time.Duration;
 
 import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 class GreetingControllerTest {
@@ -25,6 +34,15 @@ class GreetingControllerTest {
     @Autowired
     private WebTestClient webTestClient;
 
+    @Autowired
+    private StaticResourceIndex staticResourceIndex;
+
+    @Autowired
+    private StaticUrlTable staticUrlTable;
+
+    @Autowired
+    private ResourceUrlProvider resourceUrlProvider;
+
     @Test
     void testNoCachePrivate() {
         final var response = webTestClient
@@ -75,7 +93,7 @@ class GreetingControllerTest {
      */
     @Test
     void testCacheBustingOfStaticResources() {
-        final var uri = String.format("%s/%s/js/index.js", PREFIX_STATIC_RESOURCES, version.getVersion());
+        final var uri = String.format("%s/%s/js/index.js", PREFIX_STATIC_RESOURCES, version.getVersion("/js/index.js").orElseThrow());
 
         // "/resource-versioning/js/index.js" 경로의 정적 파일에 ETag를 사용한 캐싱이 적용되었는지 확인한다.
         final var response = webTestClient
@@ -99,4 +117,134 @@ class GreetingControllerTest {
                 .expectStatus()
                 .isNotModified();
     }
+
+    /**
+     * 버전은 기동 시각이 아니라 파일 내용으로 만든다. 내용이 같으면 재시작해도 URL 이 바뀌지 않는다.
+     */
+    @Test
+    void testContentHashVersion() throws IOException {
+        final var content = new ClassPathResource("static/js/index.js").getInputStream().readAllBytes();
+
+        assertThat(version.getVersion("/js/index.js")).contains(DigestUtils.md5DigestAsHex(content));
+
+        webTestClient.get()
+                .uri("/resource-versioning")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .value(body -> assertThat(body)
+                        .contains(PREFIX_STATIC_RESOURCES + "/" + DigestUtils.md5DigestAsHex(content) + "/js/index.js"));
+    }
+
+    /**
+     * 핸들러를 실행하기 전에 템플릿 버전으로 조건부 요청을 처리한다.
+     */
+    @Test
+    void testConditionalRequestBeforeRendering() {
+        final var response = webTestClient
+                .get()
+                .uri("/resource-versioning")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.LAST_MODIFIED)
+                .expectBody(String.class).returnResult();
+
+        final var etag = response.getResponseHeaders().getETag();
+        assertThat(etag).startsWith("W/");
+
+        webTestClient.get()
+                .uri("/resource-versioning")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().cacheControl(CacheControl.noCache().cachePrivate());
+    }
+
+    /**
+     * 앞선 렌더링에서 쓴 정적 리소스를 다음 응답부터 렌더링 전에 Link 헤더로 알린다.
+     */
+    @Test
+    void testPreloadLink() {
+        final var uri = String.format("%s/%s/js/index.js", PREFIX_STATIC_RESOURCES, version.getVersion("/js/index.js").orElseThrow());
+
+        webTestClient.get()
+                .uri("/resource-versioning")
+                .exchange()
+                .expectStatus().isOk();
+
+        webTestClient.get()
+                .uri("/resource-versioning")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.LINK, "<" + uri + ">; rel=preload; as=script");
+    }
+
+    /**
+     * 정적 파일 12개를 참조하는 페이지를 번들 두 개로 바꾸면 요청 수와 전송량이 줄어든다.
+     */
+    @Test
+    void testAssetBundles() {
+        final var bundle = version.getVersion("/bundles/demo.js").orElseThrow();
+
+        webTestClient.get()
+                .uri("/assets/bundled")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .value(body -> assertThat(body)
+                        .contains(PREFIX_STATIC_RESOURCES + "/" + bundle + "/bundles/demo.js")
+                        .doesNotContain("/js/demo/"));
+
+        final var demoJs = webTestClient.get()
+                .uri(PREFIX_STATIC_RESOURCES + "/" + bundle + "/bundles/demo.js")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic())
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        assertThat(demoJs).contains("dom.step1=function(value){").doesNotContain("번들링 비교용");
+    }
+
+    /**
+     * 미리 만들어 둔 URL 은 리소스 체인이 만드는 URL 과 같아야 한다.
+     */
+    @Test
+    void testStaticUrlTableMatchesResourceChain() {
+        assertThat(staticResourceIndex.getResources()).isNotEmpty();
+        for (final StaticResource resource : staticResourceIndex.getResources()) {
+            assertThat(staticUrlTable.get(resource.getPath()))
+                    .isEqualTo(resourceUrlProvider.getForLookupPath(PREFIX_STATIC_RESOURCES + resource.getPath()));
+        }
+        assertThat(staticUrlTable.getBundle("demo.css"))
+                .isEqualTo(PREFIX_STATIC_RESOURCES + "/" + version.getVersion("/bundles/demo.css").orElseThrow()
+                        + "/bundles/demo.css");
+    }
+
+    /**
+     * 작은 정적 파일은 ResourceHttpRequestHandler 가 Range 를 처리한다. If-Range 는 인덱스의 ETag 로 판단한다.
+     */
+    @Test
+    void testRangeRequest() {
+        final var uri = String.format("%s/%s/js/index.js", PREFIX_STATIC_RESOURCES, version.getVersion("/js/index.js").orElseThrow());
+        final var etag = webTestClient.get()
+                .uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class).getResponseHeaders().getETag();
+
+        webTestClient.get()
+                .uri(uri)
+                .header(HttpHeaders.RANGE, "bytes=0-9")
+                .header(HttpHeaders.IF_RANGE, etag)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PARTIAL_CONTENT)
+                .expectHeader().contentLength(10);
+
+        webTestClient.get()
+                .uri(uri)
+                .header(HttpHeaders.RANGE, "bytes=0-9")
+                .header(HttpHeaders.IF_RANGE, "\"stale\"")
+                .exchange()
+                .expectStatus().isOk();
+    }
 }
@@ -0,0 +1,30 @@
+package com.example.bundle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+class AssetBundlesTest {
+
+    /**
+     * 임시 디렉터리에 만든 번들은 컨텍스트가 닫힐 때 지워서 재시작마다 /tmp 에 쌓이지 않는다.
+     */
+    @Test
+    void temporaryDirectoryIsDeletedOnClose() {
+        final var bundleProperties = new BundleProperties();
+        bundleProperties.setDefinitions(Map.of("app.js", List.of("/js/index.js")));
+        final var assetBundles = new AssetBundles(new DefaultResourceLoader(), bundleProperties);
+
+        assetBundles.build();
+        final Path directory = Path.of(assetBundles.getLocation().orElseThrow().substring("file:".length()));
+        assertThat(directory.resolve("bundles/app.js")).exists();
+
+        assetBundles.close();
+        assertThat(Files.exists(directory)).isFalse();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.bundle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class MinifierTest {
+
+    @Test
+    void javascriptCommentsAndWhitespace() {
+        final String js = "/** doc */\n"
+                + "function add(a, b) {\n"
+                + "    // 더한다\n"
+                + "    return a + +b;\n"
+                + "}\n";
+
+        assertThat(JsMinifier.minify(js)).isEqualTo("function add(a,b){return a+ +b;}");
+    }
+
+    @Test
+    void javascriptLiteralsAreKept() {
+        final String js = "var url = 'http://example.com/*path*/'; // 주석\n"
+                + "var re = /\\/\\/[a-z/]+/g;\n"
+                + "var text = `line  //  ${url}`;\n"
+                + "var half = total / 2 / count;";
+
+        assertThat(JsMinifier.minify(js)).isEqualTo("var url='http://example.com/*path*/';"
+                + "var re=/\\/\\/[a-z/]+/g;"
+                + "var text=`line  //  ${url}`;"
+                + "var half=total/2/count;");
+    }
+
+    /**
+     * 세미콜론 없이 줄바꿈으로 끝나는 문장은 줄바꿈을 남겨 두어야 ASI 가 그대로 동작한다.
+     */
+    @Test
+    void javascriptNewlinesAreKeptForAsi() {
+        final String js = "var a = b\n(c || d).run()\nreturn\n";
+
+        assertThat(JsMinifier.minify(js)).isEqualTo("var a=b\n(c||d).run()\nreturn");
+    }
+
+    @Test
+    void css() {
+        final String css = "/* 버튼 */\n"
+                + ".nav > .item,\n"
+                + ".nav .item:hover {\n"
+                + "    margin: 0 calc(1px + 1em);\n"
+                + "    font-family: \"Noto  Sans\", sans-serif;\n"
+                + "}\n";
+
+        assertThat(CssMinifier.minify(css))
+                .isEqualTo(".nav>.item,.nav .item:hover{margin:0 calc(1px + 1em);font-family:\"Noto  Sans\",sans-serif}");
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.cachecontrol;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CachePolicyRegistryTest {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void resolveDirectives() throws NoSuchMethodException {
+        assertThat(CachePolicyRegistry.resolve(Policies.class.getDeclaredMethod("staleWhileRevalidate")))
+                .isEqualTo("max-age=60, public, stale-if-error=86400, stale-while-revalidate=30");
+        assertThat(CachePolicyRegistry.resolve(Policies.class.getDeclaredMethod("noStore")))
+                .isEqualTo("no-store");
+        assertThat(CachePolicyRegistry.resolve(Policies.class.getDeclaredMethod("inherited")))
+                .isEqualTo("max-age=10, private");
+        assertThat(CachePolicyRegistry.resolve(Object.class.getDeclaredMethod("toString")))
+                .isEqualTo(CachePolicyRegistry.DEFAULT_HEADER_VALUE);
+    }
+
+    @Test
+    void annotatedHandler() {
+        webTestClient.get()
+                .uri("/cache-control")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CACHE_CONTROL, "no-cache, private");
+    }
+
+    @CachePolicy(maxAge = 10, cachePrivate = true)
+    static class Policies {
+
+        @CachePolicy(maxAge = 60, staleWhileRevalidate = 30, staleIfError = 86400, cachePublic = true)
+        void staleWhileRevalidate() {
+        }
+
+        @CachePolicy(noStore = true, maxAge = 60)
+        void noStore() {
+        }
+
+        void inherited() {
+        }
+    }
+}
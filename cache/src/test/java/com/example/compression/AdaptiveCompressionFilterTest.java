@@ -0,0 +1,161 @@
+package com.example.compression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class AdaptiveCompressionFilterTest {
+
+    private static final String PAGE = "<html><body>" + "<p>hello adaptive compression</p>".repeat(200)
+            + "</body></html>";
+
+    private double cpuLoad;
+    private final CompressionPolicy policy = new CompressionPolicy(() -> cpuLoad,
+            Set.of("text/html", "application/json"), 215, 4096, 6, 0.7, 0.9);
+    private final AdaptiveCompressionMetrics metrics = new AdaptiveCompressionMetrics(policy);
+    private final AdaptiveCompressionFilter filter = new AdaptiveCompressionFilter(policy, metrics);
+
+    @Test
+    void compressesWithConfiguredLevelWhenIdle() throws ServletException, IOException {
+        cpuLoad = 0.1;
+        final var response = render(PAGE.substring(0, 2000), "\"0abc\"");
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("W/\"0abc\"");
+        assertThat(gunzip(response.getContentAsByteArray())).isEqualTo(PAGE.substring(0, 2000));
+        assertThat(metrics.stats().getCompressed()).containsEntry(6, 1L);
+    }
+
+    /**
+     * largeSize 를 넘는 응답은 그 시점에 BEST_SPEED 로 정하고 나머지를 흘려보내며 압축한다.
+     */
+    @Test
+    void largeResponseUsesBestSpeed() throws ServletException, IOException {
+        cpuLoad = 0.1;
+        final var response = render(PAGE, null);
+
+        assertThat(gunzip(response.getContentAsByteArray())).isEqualTo(PAGE);
+        assertThat(metrics.stats().getCompressed()).containsEntry(1, 1L);
+        assertThat(metrics.stats().getRatio()).isLessThan(0.1);
+    }
+
+    @Test
+    void skipsCompressionUnderPeakLoad() throws ServletException, IOException {
+        cpuLoad = 0.95;
+        final var response = render(PAGE, null);
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(response.getContentAsString()).isEqualTo(PAGE);
+        assertThat(metrics.stats().getSkipped()).containsEntry(CompressionDecision.Skip.LOAD, 1L);
+    }
+
+    @Test
+    void skipsSmallResponses() throws ServletException, IOException {
+        cpuLoad = 0;
+        final var response = render("<p>hi</p>", null);
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentLength()).isEqualTo(9);
+        assertThat(metrics.stats().getSkipped()).containsEntry(CompressionDecision.Skip.SIZE, 1L);
+    }
+
+    /**
+     * 논블로킹 쓰기는 압축하지 않고 컨테이너 스트림에 리스너를 그대로 건다.
+     */
+    @Test
+    void writeListenerFallsBackToIdentity() throws ServletException, IOException {
+        cpuLoad = 0;
+        final var request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        final var response = new WriteListenerCapturingResponse();
+        final var listener = new WriteListener() {
+            @Override
+            public void onWritePossible() {
+            }
+
+            @Override
+            public void onError(final Throwable t) {
+            }
+        };
+        filter.doFilter(request, response, (req, res) -> {
+            res.setContentType("text/html;charset=UTF-8");
+            res.getOutputStream().setWriteListener(listener);
+            res.getOutputStream().write(PAGE.getBytes(StandardCharsets.UTF_8));
+        });
+
+        assertThat(response.writeListener).isSameAs(listener);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo(PAGE);
+    }
+
+    private MockHttpServletResponse render(final String body, final String etag) throws ServletException, IOException {
+        final var request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br");
+        final var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void doGet(final HttpServletRequest req, final HttpServletResponse resp) throws IOException {
+                resp.setContentType("text/html;charset=UTF-8");
+                if (etag != null) {
+                    resp.setHeader(HttpHeaders.ETAG, etag);
+                }
+                resp.getWriter().write(body);
+            }
+        }));
+        return response;
+    }
+
+    private static class WriteListenerCapturingResponse extends MockHttpServletResponse {
+
+        private WriteListener writeListener;
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            final ServletOutputStream delegate = super.getOutputStream();
+            return new ServletOutputStream() {
+                @Override
+                public void write(final int b) throws IOException {
+                    delegate.write(b);
+                }
+
+                @Override
+                public void write(final byte[] b, final int off, final int len) throws IOException {
+                    delegate.write(b, off, len);
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(final WriteListener listener) {
+                    writeListener = listener;
+                }
+            };
+        }
+    }
+
+    private static String gunzip(final byte[] compressed) throws IOException {
+        try (var in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
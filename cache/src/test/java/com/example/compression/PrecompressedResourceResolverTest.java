@@ -0,0 +1,79 @@
+package com.example.compression;
+
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.resource.StaticResource;
+import com.example.resource.StaticResourceIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * 같은 URL 이라도 요청마다 Accept-Encoding 으로 다시 고른다. 한 클라이언트에게 고른 압축본을 다른 클라이언트에게 보내지 않는다.
+ *
+ * 주입받는 WebTestClient 는 응답을 풀면서 Content-Encoding 을 지우므로 압축을 끈 클라이언트를 따로 만든다.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class PrecompressedResourceResolverTest {
+
+    @Autowired
+    private StaticResourceIndex staticResourceIndex;
+
+    @LocalServerPort
+    private int port;
+
+    private WebTestClient webTestClient;
+    private String uri;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToServer(new ReactorClientHttpConnector(HttpClient.create()))
+                .baseUrl("http://localhost:" + port)
+                .build();
+        final StaticResource staticResource = staticResourceIndex.getResources().stream()
+                .filter(resource -> resource.getCodings().contains(ContentCoding.GZIP))
+                .findFirst()
+                .orElseThrow();
+        uri = PREFIX_STATIC_RESOURCES + "/" + staticResource.getContentHash() + staticResource.getPath();
+    }
+
+    @Test
+    void wildcardVariantIsNotServedWithoutAcceptEncoding() {
+        webTestClient.get()
+                .uri(uri)
+                .header(HttpHeaders.ACCEPT_ENCODING, "*")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.CONTENT_ENCODING);
+
+        webTestClient.get()
+                .uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.CONTENT_ENCODING);
+    }
+
+    @Test
+    void refusedCodingIsNotServed() {
+        webTestClient.get()
+                .uri(uri)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.CONTENT_ENCODING, "gzip");
+
+        webTestClient.get()
+                .uri(uri)
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(HttpHeaders.CONTENT_ENCODING);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.compression;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+class StaticResourceCompressorTest {
+
+    private final StaticResourceCompressor compressor = new StaticResourceCompressor();
+
+    @Test
+    void compressibleResourceHasGzipVariant() throws IOException {
+        final byte[] content = "console.log('hello world');\n".repeat(20).getBytes(StandardCharsets.UTF_8);
+
+        final var variants = compressor.compress(resource("app.js", content), "hash");
+
+        final EncodedVariant gzip = variants.get(ContentCoding.GZIP);
+        assertThat(gzip.getEtag()).isEqualTo("\"hash-gzip\"");
+        assertThat(gzip.getContentLength()).isLessThan(content.length);
+        try (var inputStream = new GZIPInputStream(new ByteArrayInputStream(gzip.getContent()))) {
+            assertThat(inputStream.readAllBytes()).isEqualTo(content);
+        }
+    }
+
+    @Test
+    void smallOrBinaryResourceIsNotCompressed() {
+        final byte[] small = "console.log('hello world');".getBytes(StandardCharsets.UTF_8);
+        final byte[] image = new byte[1024];
+
+        assertThat(compressor.compress(resource("index.js", small), "hash")).isEmpty();
+        assertThat(compressor.compress(resource("image.png", image), "hash")).isEmpty();
+    }
+
+    @Test
+    void negotiate() {
+        final Set<ContentCoding> both = Set.of(ContentCoding.BROTLI, ContentCoding.GZIP);
+        final Set<ContentCoding> gzipOnly = Set.of(ContentCoding.GZIP);
+
+        assertThat(ContentCoding.negotiate("gzip, deflate, br", both)).isEqualTo(ContentCoding.BROTLI);
+        assertThat(ContentCoding.negotiate("gzip, deflate, br", gzipOnly)).isEqualTo(ContentCoding.GZIP);
+        assertThat(ContentCoding.negotiate("br;q=0, gzip;q=0.5", both)).isEqualTo(ContentCoding.GZIP);
+        assertThat(ContentCoding.negotiate("*;q=0, gzip", both)).isEqualTo(ContentCoding.GZIP);
+        assertThat(ContentCoding.negotiate("gzip;q=0, *", both)).isEqualTo(ContentCoding.BROTLI);
+        assertThat(ContentCoding.negotiate("identity", both)).isNull();
+        assertThat(ContentCoding.negotiate(null, both)).isNull();
+    }
+
+    private static ByteArrayResource resource(final String filename, final byte[] content) {
+        return new ByteArrayResource(content) {
+            @Override
+            public String getFilename() {
+                return filename;
+            }
+        };
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.etag;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Supplier;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+class StreamingEtagFilterTest {
+
+    @Test
+    void smallResponseHasSameEtagAsShallowEtagHeaderFilter() throws Exception {
+        final byte[] body = "hello world".getBytes(StandardCharsets.UTF_8);
+
+        final var shallowResponse = new MockHttpServletResponse();
+        new ShallowEtagHeaderFilter().doFilter(get(), shallowResponse, write(body));
+
+        final var streamingResponse = new MockHttpServletResponse();
+        new StreamingEtagFilter().doFilter(get(), streamingResponse, write(body));
+
+        assertThat(streamingResponse.getHeader(HttpHeaders.ETAG)).isEqualTo(shallowResponse.getHeader(HttpHeaders.ETAG));
+        assertThat(streamingResponse.getContentAsByteArray()).isEqualTo(body);
+        assertThat(streamingResponse.getContentLength()).isEqualTo(body.length);
+    }
+
+    @Test
+    void ifNoneMatchReturnsNotModified() throws Exception {
+        final byte[] body = "hello world".getBytes(StandardCharsets.UTF_8);
+        final var first = new MockHttpServletResponse();
+        new StreamingEtagFilter().doFilter(get(), first, write(body));
+
+        final var request = get();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, first.getHeader(HttpHeaders.ETAG));
+        final var second = new MockHttpServletResponse();
+        new StreamingEtagFilter().doFilter(request, second, write(body));
+
+        assertThat(second.getStatus()).isEqualTo(304);
+        assertThat(second.getContentAsByteArray()).isEmpty();
+    }
+
+    @Test
+    void largeResponseIsStreamedWithEtagTrailer() throws Exception {
+        final byte[] body = new byte[StreamingEtagFilter.DEFAULT_BUFFER_THRESHOLD * 2];
+        Arrays.fill(body, (byte) 'a');
+
+        final var shallowResponse = new MockHttpServletResponse();
+        new ShallowEtagHeaderFilter().doFilter(get(), shallowResponse, write(body));
+
+        final var request = get();
+        request.addHeader(HttpHeaders.TE, "trailers");
+        final var response = new TrailerCapturingResponse();
+        new StreamingEtagFilter().doFilter(request, response, write(body));
+
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+        assertThat(response.getHeader(HttpHeaders.TRAILER)).isEqualTo(HttpHeaders.ETAG);
+        assertThat(response.trailers.get().get(HttpHeaders.ETAG))
+                .isEqualTo(shallowResponse.getHeader(HttpHeaders.ETAG));
+        assertThat(response.getContentAsByteArray()).isEqualTo(body);
+    }
+
+    @Test
+    void largeResponseIsNotHashedWithoutTrailers() throws Exception {
+        final byte[] body = new byte[StreamingEtagFilter.DEFAULT_BUFFER_THRESHOLD * 2];
+        final var response = new MockHttpServletResponse();
+        final var wrapper = new DigestingResponseWrapper(response, StreamingEtagFilter.DEFAULT_BUFFER_THRESHOLD, false);
+
+        wrapper.getOutputStream().write(body);
+        wrapper.getOutputStream().write(body);
+        wrapper.complete(get());
+
+        assertThat(wrapper.getHashedBytes()).isZero();
+        assertThat(response.getHeader(HttpHeaders.TRAILER)).isNull();
+        assertThat(response.getContentAsByteArray()).hasSize(body.length * 2);
+    }
+
+    @Test
+    void writeListenerIsRegisteredOnContainerStream() throws Exception {
+        final var response = new WriteListenerCapturingResponse();
+        final var wrapper = new DigestingResponseWrapper(response, StreamingEtagFilter.DEFAULT_BUFFER_THRESHOLD, false);
+        final var outputStream = wrapper.getOutputStream();
+        outputStream.write(1);
+
+        final WriteListener listener = new WriteListener() {
+            @Override
+            public void onWritePossible() {
+            }
+
+            @Override
+            public void onError(final Throwable t) {
+            }
+        };
+        outputStream.setWriteListener(listener);
+        outputStream.write(2);
+
+        assertThat(response.writeListener).isSameAs(listener);
+        assertThat(response.getContentAsByteArray()).containsExactly(1, 2);
+    }
+
+    @Test
+    void precomputedEtagIsKept() throws Exception {
+        final var response = new MockHttpServletResponse();
+        new StreamingEtagFilter().doFilter(get(), response, (req, res) -> {
+            ((HttpServletResponse) res).setHeader(HttpHeaders.ETAG, "\"precomputed\"");
+            res.getOutputStream().write(1);
+        });
+
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("\"precomputed\"");
+    }
+
+    private static MockHttpServletRequest get() {
+        return new MockHttpServletRequest("GET", "/etag");
+    }
+
+    private static FilterChain write(final byte[] body) {
+        return (request, response) -> response.getOutputStream().write(body);
+    }
+
+    private static class WriteListenerCapturingResponse extends MockHttpServletResponse {
+
+        private WriteListener writeListener;
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            final ServletOutputStream delegate = super.getOutputStream();
+            return new ServletOutputStream() {
+                @Override
+                public void write(final int b) throws IOException {
+                    delegate.write(b);
+                }
+
+                @Override
+                public void write(final byte[] b, final int off, final int len) throws IOException {
+                    delegate.write(b, off, len);
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(final WriteListener listener) {
+                    writeListener = listener;
+                }
+            };
+        }
+    }
+
+    private static class TrailerCapturingResponse extends MockHttpServletResponse {
+
+        private Supplier<Map<String, String>> trailers;
+
+        @Override
+        public void setTrailerFields(final Supplier<Map<String, String>> supplier) {
+            this.trailers = supplier;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.metrics;
+
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.version.ResourceVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CacheStatsControllerTest {
+
+    @Autowired
+    private ResourceVersion version;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void notModifiedIsCountedPerRoute() {
+        final var uri = String.format("%s/%s/js/index.js", PREFIX_STATIC_RESOURCES,
+                version.getVersion("/js/index.js").orElseThrow());
+        final var etag = webTestClient.get()
+                .uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(String.class)
+                .getResponseHeaders().getETag();
+        webTestClient.get()
+                .uri(uri)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        webTestClient.get()
+                .uri("/cache/stats/routes")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$['/resources/**'].ok").value(ok -> assertThat((Integer) ok).isPositive())
+                .jsonPath("$['/resources/**'].notModified").value(notModified -> assertThat((Integer) notModified).isPositive())
+                .jsonPath("$['/resources/**'].bytesSaved").value(bytesSaved -> assertThat((Integer) bytesSaved).isPositive());
+    }
+
+    @Test
+    void hashingAndCompression() {
+        webTestClient.get().uri("/etag").exchange().expectStatus().isOk();
+
+        webTestClient.get()
+                .uri("/cache/stats/hashing")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.responses").value(responses -> assertThat((Integer) responses).isPositive());
+
+        webTestClient.get()
+                .uri("/cache/stats/compression")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.compressionMillis").exists();
+    }
+}
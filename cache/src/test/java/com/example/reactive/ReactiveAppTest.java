@@ -0,0 +1,87 @@
+package com.example.reactive;
+
+import static com.example.version.CacheBustingWebConfig.PREFIX_STATIC_RESOURCES;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.version.ResourceVersion;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(classes = ReactiveApp.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "spring.main.web-application-type=reactive")
+class ReactiveAppTest {
+
+    @Autowired
+    private ResourceVersion version;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Test
+    void pageIsNotRenderedWhenNotModified() {
+        final var etag = webTestClient.get()
+                .uri("/resource-versioning")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().cacheControl(CacheControl.noCache().cachePrivate())
+                .expectBody(String.class)
+                .value(body -> assertThat(body).contains(PREFIX_STATIC_RESOURCES + "/"
+                        + version.getVersion("/js/index.js").orElseThrow() + "/js/index.js"))
+                .returnResult()
+                .getResponseHeaders().getETag();
+
+        webTestClient.get()
+                .uri("/resource-versioning")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().cacheControl(CacheControl.noCache().cachePrivate());
+    }
+
+    @Test
+    void etagFromRenderedBody() {
+        final var etag = webTestClient.get()
+                .uri("/etag")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .returnResult(String.class)
+                .getResponseHeaders().getETag();
+
+        webTestClient.get()
+                .uri("/etag")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void versionedStaticResource() {
+        final var uri = String.format("%s/%s/js/index.js", PREFIX_STATIC_RESOURCES,
+                version.getVersion("/js/index.js").orElseThrow());
+
+        final var etag = webTestClient.get()
+                .uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic())
+                .returnResult(String.class)
+                .getResponseHeaders().getETag();
+
+        webTestClient.get()
+                .uri(uri)
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .exchange()
+                .expectStatus().isNotModified();
+
+        webTestClient.get()
+                .uri(PREFIX_STATIC_RESOURCES + "/0123456789abcdef0123456789abcdef/js/index.js")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,277 @@
+package com.example.resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.version.ResourceVersionChangedEvent;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ZeroCopyResourceFilterTest {
+
+    private static final int FILE_SIZE = 64 * 1024;
+
+    @TempDir
+    Path staticDirectory;
+
+    @TempDir
+    Path extractDirectory;
+
+    private byte[] content;
+    private String versionedUri;
+    private StaticResourceIndex staticResourceIndex;
+    private ExtractedStaticResources extractedStaticResources;
+    private ZeroCopyResourceFilter filter;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        content = new byte[FILE_SIZE];
+        new Random(0).nextBytes(content);
+        Files.write(staticDirectory.resolve("bundle.js"), content);
+
+        staticResourceIndex = new StaticResourceIndex(new DefaultResourceLoader(), "file:" + staticDirectory + "/");
+        staticResourceIndex.init();
+        extractedStaticResources = new ExtractedStaticResources(extractDirectory);
+        extractedStaticResources.extract(staticResourceIndex);
+        filter = new ZeroCopyResourceFilter(staticResourceIndex, extractedStaticResources, FILE_SIZE);
+        versionedUri = versionedUri("/bundle.js");
+    }
+
+    @Test
+    void temporaryExtractDirectoryIsDeletedOnClose() throws IOException {
+        final Path temporary = Files.createDirectory(extractDirectory.resolve("temporary"));
+        final var temporaryResources = new ExtractedStaticResources(temporary, true);
+        temporaryResources.extract(staticResourceIndex);
+        assertThat(temporaryResources.resolve(staticResourceIndex.find("/bundle.js").orElseThrow(), null)).exists();
+
+        temporaryResources.close();
+
+        assertThat(Files.exists(temporary)).isFalse();
+    }
+
+    @Test
+    void transferToWhenSendfileIsNotSupported() throws ServletException, IOException {
+        final var response = new MockHttpServletResponse();
+        final var filterChain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", versionedUri), response, filterChain);
+
+        assertThat(filterChain.getRequest()).isNull();
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+        assertThat(response.getContentLengthLong()).isEqualTo(FILE_SIZE);
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).contains("max-age=31536000");
+    }
+
+    @Test
+    void sendfileWhenSupported() throws ServletException, IOException {
+        final var request = new MockHttpServletRequest("GET", versionedUri);
+        request.setAttribute(ZeroCopyResourceFilter.SENDFILE_SUPPORTED_ATTRIBUTE, Boolean.TRUE);
+        final var response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(request.getAttribute(ZeroCopyResourceFilter.SENDFILE_FILENAME_ATTRIBUTE))
+                .isEqualTo(extractedStaticResources.resolve(staticResourceIndex.find("/bundle.js").orElseThrow(), null)
+                        .toAbsolutePath().toString());
+        assertThat(request.getAttribute(ZeroCopyResourceFilter.SENDFILE_END_ATTRIBUTE)).isEqualTo((long) FILE_SIZE);
+    }
+
+    /**
+     * 다시 인덱싱한 뒤 꺼내기 전에는 기존 핸들러로 보내고, 버전이 바뀌었다는 이벤트로 다시 꺼낸 뒤에는 새 파일을 보낸다.
+     */
+    @Test
+    void refreshedFilesAreExtractedAgain() throws ServletException, IOException {
+        final byte[] changed = content.clone();
+        changed[0]++;
+        Files.write(staticDirectory.resolve("bundle.js"), changed);
+        Files.write(staticDirectory.resolve("added.js"), content);
+        staticResourceIndex.init();
+        final String changedUri = versionedUri("/bundle.js");
+        final String addedUri = versionedUri("/added.js");
+
+        final var filterChain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", addedUri), new MockHttpServletResponse(), filterChain);
+        assertThat(filterChain.getRequest()).isNotNull();
+
+        extractedStaticResources.onResourceVersionChanged(new ResourceVersionChangedEvent(this, "a", "b"));
+
+        assertThat(Files.readAllBytes(sendfile(changedUri))).isEqualTo(changed);
+        assertThat(Files.readAllBytes(sendfile(addedUri))).isEqualTo(content);
+        final var staleChain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", versionedUri), new MockHttpServletResponse(), staleChain);
+        assertThat(staleChain.getRequest()).isNotNull();
+    }
+
+    /**
+     * 구간은 파일 채널에서 고정 크기 버퍼 단위로 흘려보낸다. 구간 전체를 한 번에 메모리에 올리지 않는다.
+     */
+    @Test
+    void singleRangeIsStreamed() throws ServletException, IOException {
+        final var request = new MockHttpServletRequest("GET", versionedUri);
+        request.addHeader(HttpHeaders.RANGE, "bytes=1000-40999");
+        final var response = new ChunkRecordingResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_PARTIAL_CONTENT);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 1000-40999/" + FILE_SIZE);
+        assertThat(response.getContentLengthLong()).isEqualTo(40_000);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 1000, 41_000));
+        assertThat(response.largestWrite).isLessThanOrEqualTo(8192);
+    }
+
+    @Test
+    void singleRangeWithSendfile() throws ServletException, IOException {
+        final var request = new MockHttpServletRequest("GET", versionedUri);
+        request.addHeader(HttpHeaders.RANGE, "bytes=-100");
+        request.setAttribute(ZeroCopyResourceFilter.SENDFILE_SUPPORTED_ATTRIBUTE, Boolean.TRUE);
+        final var response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_PARTIAL_CONTENT);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+        assertThat(request.getAttribute(ZeroCopyResourceFilter.SENDFILE_START_ATTRIBUTE)).isEqualTo(FILE_SIZE - 100L);
+        assertThat(request.getAttribute(ZeroCopyResourceFilter.SENDFILE_END_ATTRIBUTE)).isEqualTo((long) FILE_SIZE);
+    }
+
+    @Test
+    void multipleRanges() throws ServletException, IOException {
+        final var request = new MockHttpServletRequest("GET", versionedUri);
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-99, 200-299, -50");
+        final var response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_PARTIAL_CONTENT);
+        assertThat(response.getContentType()).startsWith("multipart/byteranges; boundary=");
+        final byte[] body = response.getContentAsByteArray();
+        assertThat(response.getContentLengthLong()).isEqualTo(body.length);
+        final String text = new String(body, StandardCharsets.ISO_8859_1);
+        assertThat(text).contains("Content-Range: bytes 0-99/" + FILE_SIZE, "Content-Range: bytes 200-299/" + FILE_SIZE,
+                "Content-Range: bytes " + (FILE_SIZE - 50) + "-" + (FILE_SIZE - 1) + "/" + FILE_SIZE);
+        assertThat(text).contains(new String(Arrays.copyOfRange(content, 200, 300), StandardCharsets.ISO_8859_1));
+        assertThat(text).endsWith("--\r\n");
+    }
+
+    @Test
+    void overlappingRangesAreCoalesced() throws ServletException, IOException {
+        final var request = new MockHttpServletRequest("GET", versionedUri);
+        request.addHeader(HttpHeaders.RANGE, "bytes=50-149, 0-99");
+        final var response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes 0-149/" + FILE_SIZE);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 0, 150));
+    }
+
+    @Test
+    void ifRangeMismatchSendsFullContent() throws ServletException, IOException {
+        final var request = new MockHttpServletRequest("GET", versionedUri);
+        request.addHeader(HttpHeaders.RANGE, "bytes=0-99");
+        request.addHeader(HttpHeaders.IF_RANGE, "\"stale\"");
+        final var response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_OK);
+        assertThat(response.getContentAsByteArray()).isEqualTo(content);
+    }
+
+    @Test
+    void ifRangeMatchSendsPartialContent() throws ServletException, IOException {
+        final var first = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("HEAD", versionedUri), first, new MockFilterChain());
+        final var request = new MockHttpServletRequest("GET", versionedUri);
+        request.addHeader(HttpHeaders.RANGE, "bytes=100-");
+        request.addHeader(HttpHeaders.IF_RANGE, first.getHeader(HttpHeaders.ETAG));
+        final var response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(first.getHeader(HttpHeaders.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_PARTIAL_CONTENT);
+        assertThat(response.getContentAsByteArray()).isEqualTo(Arrays.copyOfRange(content, 100, FILE_SIZE));
+    }
+
+    @Test
+    void unsatisfiableRange() throws ServletException, IOException {
+        final var request = new MockHttpServletRequest("GET", versionedUri);
+        request.addHeader(HttpHeaders.RANGE, "bytes=" + FILE_SIZE + "-");
+        final var response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(response.getHeader(HttpHeaders.CONTENT_RANGE)).isEqualTo("bytes */" + FILE_SIZE);
+        assertThat(response.getContentAsByteArray()).isEmpty();
+    }
+
+    private String versionedUri(final String path) {
+        return "/resources/" + staticResourceIndex.find(path).orElseThrow().getContentHash() + path;
+    }
+
+    private Path sendfile(final String uri) throws ServletException, IOException {
+        final var request = new MockHttpServletRequest("GET", uri);
+        request.setAttribute(ZeroCopyResourceFilter.SENDFILE_SUPPORTED_ATTRIBUTE, Boolean.TRUE);
+        final var filterChain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), filterChain);
+        assertThat(filterChain.getRequest()).isNull();
+        return Path.of((String) request.getAttribute(ZeroCopyResourceFilter.SENDFILE_FILENAME_ATTRIBUTE));
+    }
+
+    /**
+     * 응답 스트림에 한 번에 쓰인 가장 큰 크기를 기록한다.
+     */
+    private static class ChunkRecordingResponse extends MockHttpServletResponse {
+
+        private int largestWrite;
+        private ServletOutputStream outputStream;
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (outputStream == null) {
+                final ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(final int b) throws IOException {
+                        write(new byte[]{(byte) b}, 0, 1);
+                    }
+
+                    @Override
+                    public void write(final byte[] b, final int off, final int len) throws IOException {
+                        largestWrite = Math.max(largestWrite, len);
+                        delegate.write(b, off, len);
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return true;
+                    }
+
+                    @Override
+                    public void setWriteListener(final WriteListener writeListener) {
+                    }
+                };
+            }
+            return outputStream;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.response;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.resource.ZeroCopyResourceFilter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class ResponseCacheFilterTest {
+
+    private static final int CONCURRENT_REQUESTS = 32;
+
+    private final ResponseCache responseCache = new ResponseCache(16);
+    private final ResponseCacheFilter filter = new ResponseCacheFilter(responseCache, 1024 * 1024, 10_000);
+    private final ExecutorService executorService = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+    private final AtomicInteger renders = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    /**
+     * 캐시했던 페이지가 비워진 뒤 동시에 요청이 몰려도 렌더링은 한 번만 한다.
+     */
+    @Test
+    void concurrentMissesAreCoalesced() throws Exception {
+        final FilterChain page = slowPage("public, max-age=60");
+        filter.doFilter(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse(), page);
+        responseCache.clear();
+
+        final List<Future<MockHttpServletResponse>> responses = sendConcurrently(page, new CountDownLatch(1));
+
+        for (final Future<MockHttpServletResponse> response : responses) {
+            assertThat(response.get().getStatus()).isEqualTo(200);
+            assertThat(response.get().getContentAsString()).isEqualTo("hello");
+        }
+        assertThat(renders).hasValue(2);
+        assertThat(responseCache.stats().getCoalesced() + responseCache.stats().getHits())
+                .isEqualTo(CONCURRENT_REQUESTS - 1);
+    }
+
+    /**
+     * 캐시할 수 없는 페이지는 서로 기다리지 않고 각자 렌더링하며, 모두 miss 로 센다.
+     */
+    @Test
+    void privateResponseIsNotShared() throws Exception {
+        final List<Future<MockHttpServletResponse>> responses = sendConcurrently(
+                slowPage("no-cache, private"), new CountDownLatch(1));
+
+        for (final Future<MockHttpServletResponse> response : responses) {
+            assertThat(response.get().getContentAsString()).isEqualTo("hello");
+        }
+        assertThat(renders).hasValue(CONCURRENT_REQUESTS);
+        assertThat(responseCache.stats().getSize()).isZero();
+        assertThat(responseCache.stats().getMisses()).isEqualTo(CONCURRENT_REQUESTS);
+        assertThat(responseCache.stats().getCoalesced()).isZero();
+        assertThat(responseCache.stats().getHitRate()).isZero();
+    }
+
+    /**
+     * maxBodySize 를 넘는 본문은 끝까지 모으지 않고 흘려보내며 캐시하지 않는다.
+     */
+    @Test
+    void largeBodyIsStreamedWithoutCaching() throws Exception {
+        final var smallFilter = new ResponseCacheFilter(responseCache, 4, 10_000);
+        final var response = new MockHttpServletResponse();
+
+        smallFilter.doFilter(new MockHttpServletRequest("GET", "/"), response, slowPage("public, max-age=60"));
+
+        assertThat(response.getContentAsString()).isEqualTo("hello");
+        assertThat(responseCache.stats().getSize()).isZero();
+    }
+
+    /**
+     * sendfile 로 보낸 응답은 본문이 래퍼를 거치지 않으므로 빈 본문을 캐시하면 안 된다.
+     */
+    @Test
+    void sendfileResponseIsNotCached() throws Exception {
+        final FilterChain sendfile = (request, response) -> {
+            request.setAttribute(ZeroCopyResourceFilter.SENDFILE_FILENAME_ATTRIBUTE, "/tmp/app.js");
+            ((HttpServletResponse) response).setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=60");
+            response.setContentLengthLong(1024);
+        };
+        final var response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/download"), response, sendfile);
+
+        assertThat(response.getContentLength()).isEqualTo(1024);
+        assertThat(responseCache.stats().getSize()).isZero();
+    }
+
+    @Test
+    void staticResourcesAreNotCached() throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/resources/0abc/js/index.js"),
+                new MockHttpServletResponse(), slowPage("public, max-age=60"));
+
+        assertThat(responseCache.stats().getSize()).isZero();
+        assertThat(responseCache.stats().getMisses()).isZero();
+    }
+
+    @Test
+    void cachedResponseAnswersConditionalRequest() throws Exception {
+        final FilterChain page = slowPage("public, max-age=60");
+        filter.doFilter(new MockHttpServletRequest("GET", "/"), new MockHttpServletResponse(), page);
+
+        final var request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"v1\"");
+        final var response = new MockHttpServletResponse();
+        filter.doFilter(request, response, page);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader(HttpHeaders.AGE)).isNotNull();
+        assertThat(renders).hasValue(1);
+    }
+
+    @Test
+    void ttl() {
+        assertThat(ResponseCacheFilter.ttlMillis(List.of("max-age=60, public"))).isEqualTo(60_000);
+        assertThat(ResponseCacheFilter.ttlMillis(List.of("public, max-age=60, s-maxage=10"))).isEqualTo(10_000);
+        assertThat(ResponseCacheFilter.ttlMillis(List.of("max-age=60"))).isZero();
+        assertThat(ResponseCacheFilter.ttlMillis(List.of("public, max-age=60, no-cache"))).isZero();
+    }
+
+    private List<Future<MockHttpServletResponse>> sendConcurrently(final FilterChain page,
+                                                                   final CountDownLatch start) {
+        final List<Future<MockHttpServletResponse>> responses = new ArrayList<>();
+        for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+            responses.add(executorService.submit(() -> {
+                start.await();
+                final var response = new MockHttpServletResponse();
+                filter.doFilter(new MockHttpServletRequest("GET", "/"), response, page);
+                return response;
+            }));
+        }
+        start.countDown();
+        return responses;
+    }
+
+    private FilterChain slowPage(final String cacheControl) {
+        return (request, response) -> {
+            renders.incrementAndGet();
+            try {
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            final var httpServletResponse = (HttpServletResponse) response;
+            httpServletResponse.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            httpServletResponse.setHeader(HttpHeaders.ETAG, "\"v1\"");
+            httpServletResponse.setContentType("text/html");
+            response.getOutputStream().write("hello".getBytes(StandardCharsets.UTF_8));
+        };
+    }
+}
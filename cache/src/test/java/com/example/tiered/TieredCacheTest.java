@@ -0,0 +1,117 @@
+package com.example.tiered;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class TieredCacheTest {
+
+    private static final CacheCodec<String> UTF_8 = new CacheCodec<>() {
+        @Override
+        public byte[] encode(final String value) {
+            return value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public String decode(final byte[] bytes) {
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    @TempDir
+    Path directory;
+
+    /**
+     * 한 번씩만 요청되는 키가 대량으로 지나가도 자주 쓰는 키는 밀려나지 않는다. LRU 였다면 전부 밀려난다.
+     */
+    @Test
+    void frequentKeysSurviveScan() {
+        final var cache = new TinyLfuCache<Integer, String>(100);
+        for (int round = 0; round < 5; round++) {
+            for (int key = 0; key < 50; key++) {
+                if (cache.get(key) == null) {
+                    cache.put(key, "hot");
+                }
+            }
+        }
+        for (int key = 1_000; key < 2_000; key++) {
+            if (cache.get(key) == null) {
+                cache.put(key, "scan");
+            }
+        }
+
+        int hits = 0;
+        for (int key = 0; key < 50; key++) {
+            if (cache.get(key) != null) {
+                hits++;
+            }
+        }
+        assertThat(hits).isGreaterThanOrEqualTo(45);
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+        assertThat(cache.getRejections()).isPositive();
+    }
+
+    @Test
+    void sharedEntriesSurviveRestart() {
+        final var backend = new FileCacheBackend(directory);
+        final var first = new TieredCache<String, String>(16, backend, UTF_8, key -> key, "v1");
+        first.put("/index", "rendered");
+
+        final var restarted = new TieredCache<String, String>(16, backend, UTF_8, key -> key, "v1");
+
+        assertThat(restarted.get("/index")).isEqualTo("rendered");
+        assertThat(restarted.get("/index")).isEqualTo("rendered");
+        assertThat(restarted.getSharedHits()).isEqualTo(1);
+        assertThat(restarted.getHits()).isEqualTo(2);
+    }
+
+    @Test
+    void versionChangeInvalidatesBothTiers() {
+        final var backend = new FileCacheBackend(directory);
+        final var cache = new TieredCache<String, String>(16, backend, UTF_8, key -> key, "v1");
+        cache.put("/index", "rendered");
+
+        cache.invalidate("v2");
+
+        assertThat(cache.get("/index")).isNull();
+        assertThat(backend.get("v1", "/index")).isNull();
+        assertThat(new TieredCache<String, String>(16, backend, UTF_8, key -> key, "v1").get("/index")).isNull();
+    }
+
+    @Test
+    void keysWithoutSharedKeyStayLocal() {
+        final var backend = new FileCacheBackend(directory);
+        final var cache = new TieredCache<String, String>(16, backend, UTF_8, key -> null, "v1");
+        cache.put("/index", "rendered");
+
+        assertThat(cache.get("/index")).isEqualTo("rendered");
+        assertThat(directory.resolve("v1")).doesNotExist();
+    }
+
+    /**
+     * 이전 배포가 남긴 namespace 는 기동할 때 지우되, 롤링 배포 중인 이전 버전 인스턴스가 최근에 쓴 것은 남긴다.
+     */
+    @Test
+    void staleNamespacesAreClearedOnStartup() throws IOException {
+        final var backend = new FileCacheBackend(directory, Duration.ofHours(1));
+        backend.put("v1", "/index", "old".getBytes(StandardCharsets.UTF_8));
+        backend.put("v2", "/index", "previous".getBytes(StandardCharsets.UTF_8));
+        backend.put("v3", "/index", "current".getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(directory.resolve("v1"), FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+        Files.setLastModifiedTime(directory.resolve("v3"), FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+
+        final var cache = new TieredCache<String, String>(16, backend, UTF_8, key -> key, "v3");
+
+        assertThat(directory.resolve("v1")).doesNotExist();
+        assertThat(backend.get("v2", "/index")).isNotNull();
+        assertThat(cache.get("/index")).isEqualTo("current");
+    }
+}
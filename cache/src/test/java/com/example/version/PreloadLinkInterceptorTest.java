@@ -0,0 +1,53 @@
+package com.example.version;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+class PreloadLinkInterceptorTest {
+
+    private final PreloadLinkInterceptor interceptor = new PreloadLinkInterceptor(false);
+    private final HandlerMethod handler = handlerMethod();
+
+    /**
+     * 정적 리소스 버전이 바뀐 뒤에는 이전 hash 의 URL 을 preload 하지 않는다.
+     */
+    @Test
+    void learnedLinksAreForgottenWhenVersionChanges() {
+        render("/resources/v1/js/index.js");
+        assertThat(preHandle().getHeader(HttpHeaders.LINK)).contains("/resources/v1/js/index.js");
+
+        interceptor.onResourceVersionChanged(new ResourceVersionChangedEvent(this, "v1", "v2"));
+
+        assertThat(preHandle().getHeader(HttpHeaders.LINK)).isNull();
+        render("/resources/v2/js/index.js");
+        assertThat(preHandle().getHeader(HttpHeaders.LINK)).contains("/resources/v2/js/index.js")
+                .doesNotContain("v1");
+    }
+
+    private void render(final String url) {
+        final var request = new MockHttpServletRequest("GET", "/");
+        request.setAttribute(PreloadLinks.EMITTED_URLS_ATTRIBUTE, new LinkedHashSet<>(List.of(url)));
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), handler, null);
+    }
+
+    private MockHttpServletResponse preHandle() {
+        final var response = new MockHttpServletResponse();
+        interceptor.preHandle(new MockHttpServletRequest("GET", "/"), response, handler);
+        return response;
+    }
+
+    private HandlerMethod handlerMethod() {
+        try {
+            return new HandlerMethod(this, getClass().getDeclaredMethod("handlerMethod"));
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
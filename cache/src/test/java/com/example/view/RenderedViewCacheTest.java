@@ -0,0 +1,291 @@
+package com.example.view;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.example.resource.StaticResourceIndex;
+import com.example.tiered.FileCacheBackend;
+import com.example.tiered.TieredCache;
+import com.example.version.ResourceVersion;
+import com.example.version.ResourceVersionChangedEvent;
+import com.github.jknack.handlebars.springmvc.HandlebarsViewResolver;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.context.WebApplicationContext;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "cache.view.enabled=true")
+class RenderedViewCacheTest {
+
+    @Autowired
+    private RenderedViewCache renderedViewCache;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private HandlebarsViewResolver handlebarsViewResolver;
+
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Test
+    void secondRenderIsServedFromCache() {
+        renderedViewCache.clear();
+        final var before = renderedViewCache.stats();
+
+        final var first = webTestClient.get()
+                .uri("/resource-versioning")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .expectBody(String.class).returnResult();
+        final var second = webTestClient.get()
+                .uri("/resource-versioning")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult();
+
+        final var after = renderedViewCache.stats();
+        assertThat(second.getResponseBody()).isEqualTo(first.getResponseBody());
+        assertThat(after.getMisses() - before.getMisses()).isEqualTo(1);
+        assertThat(after.getHits() - before.getHits()).isEqualTo(1);
+
+        webTestClient.get()
+                .uri("/resource-versioning")
+                .header(HttpHeaders.IF_NONE_MATCH, first.getResponseHeaders().getETag())
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void leastRecentlyUsedPageIsEvicted() {
+        final var cache = new RenderedViewCache(1);
+        final var index = new RenderedViewKey("index", Map.of(), null);
+        final var versioning = new RenderedViewKey("resource-versioning", Map.of(), null);
+
+        cache.put(index, new RenderedPage(new byte[]{1}, "text/html"));
+        cache.put(versioning, new RenderedPage(new byte[]{2}, "text/html"));
+
+        assertThat(cache.get(index)).isNull();
+        assertThat(cache.get(versioning)).isNotNull();
+        assertThat(cache.stats().getEvictions()).isEqualTo(1);
+    }
+
+    /**
+     * L2 에 남은 페이지와 ETag 를 재시작한 인스턴스가 그대로 쓰고, 정적 리소스 버전이 바뀌면 버린다.
+     */
+    @Test
+    void pagesSurviveRestartUntilVersionChanges(@TempDir final Path directory) {
+        final var version = new String[]{"v1"};
+        final var key = new RenderedViewKey("index", Map.of(), null);
+        final var page = new RenderedPage(new byte[]{1, 2, 3}, "text/html");
+        new RenderedViewCache(16, new FileCacheBackend(directory), () -> version[0]).put(key, page);
+
+        final var restarted = new RenderedViewCache(16, new FileCacheBackend(directory), () -> version[0]);
+        final RenderedPage shared = restarted.get(key);
+
+        assertThat(shared.getContent()).isEqualTo(page.getContent());
+        assertThat(shared.getEtag()).isEqualTo(page.getEtag());
+        assertThat(restarted.stats().getSharedHits()).isEqualTo(1);
+
+        version[0] = "v2";
+        restarted.onResourceVersionChanged(new ResourceVersionChangedEvent(this, "a", "b"));
+
+        assertThat(restarted.get(key)).isNull();
+        assertThat(new RenderedViewCache(16, new FileCacheBackend(directory), () -> "v1").get(key)).isNull();
+    }
+
+    /**
+     * 정적 파일이 바뀐 뒤 ResourceVersion.refresh() 가 발행한 이벤트로 L1 과 이전 버전의 L2 를 모두 비운다.
+     */
+    @Test
+    void refreshInvalidatesBothTiers(@TempDir final Path directory) throws IOException {
+        final Path staticDirectory = Files.createDirectory(directory.resolve("static"));
+        final Path sharedDirectory = Files.createDirectory(directory.resolve("shared"));
+        Files.writeString(staticDirectory.resolve("index.js"), "console.log(1);");
+        final var staticResourceIndex = new StaticResourceIndex(new DefaultResourceLoader(),
+                "file:" + staticDirectory + "/");
+        staticResourceIndex.init();
+        final RenderedViewCache[] cache = new RenderedViewCache[1];
+        final var resourceVersion = new ResourceVersion(staticResourceIndex,
+                event -> cache[0].onResourceVersionChanged((ResourceVersionChangedEvent) event));
+        resourceVersion.init();
+        final String previous = resourceVersion.getVersion();
+        cache[0] = new RenderedViewCache(16, new FileCacheBackend(sharedDirectory), resourceVersion::getVersion);
+        final var key = new RenderedViewKey("index", Map.of(), null);
+        cache[0].put(key, new RenderedPage(new byte[]{1, 2, 3}, "text/html"));
+
+        Files.writeString(staticDirectory.resolve("index.js"), "console.log(2);");
+
+        assertThat(resourceVersion.refresh()).isTrue();
+        assertThat(cache[0].stats().getSize()).isZero();
+        assertThat(cache[0].get(key)).isNull();
+        assertThat(new RenderedViewCache(16, new FileCacheBackend(sharedDirectory), () -> previous).get(key)).isNull();
+        assertThat(resourceVersion.refresh()).isFalse();
+    }
+
+    @Test
+    void refreshEndpoint() {
+        webTestClient.post()
+                .uri("/cache/resources/refresh")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.changed").isEqualTo(false);
+    }
+
+    /**
+     * ttl 이 지난 페이지는 그대로 보내고, 요청이 끝난 뒤 복사해 둔 요청으로 다시 렌더링해서 바꿔 넣는다.
+     */
+    @Test
+    void stalePageIsServedWhileRefreshedInBackground() throws Exception {
+        final var clock = new MutableClock();
+        final List<Runnable> refreshTasks = new ArrayList<>();
+        final var cache = new RenderedViewCache(new TieredCache<>(16), () -> "", Duration.ofSeconds(60),
+                Duration.ofSeconds(30), refreshTasks::add, clock);
+        final var view = new CachingView("index", handlebarsViewResolver.resolveViewName("index", Locale.KOREA), cache);
+        cache.put(new RenderedViewKey("index", Map.of(), Locale.KOREA), new RenderedPage(
+                "stale".getBytes(StandardCharsets.UTF_8), "text/html", "\"0stale\"", clock.millis() - 70_000));
+
+        assertThat(render(view).getContentAsString()).isEqualTo("stale");
+        assertThat(render(view).getContentAsString()).isEqualTo("stale");
+        assertThat(refreshTasks).hasSize(1);
+
+        refreshTasks.get(0).run();
+
+        assertThat(render(view).getContentAsString()).contains("</html>");
+        final var stats = cache.stats();
+        assertThat(stats.getStaleHits()).isEqualTo(2);
+        assertThat(stats.getRefreshes()).isEqualTo(1);
+        assertThat(stats.getMisses()).isZero();
+    }
+
+    @Test
+    void pageBeyondStaleWindowIsExpired() {
+        final var clock = new MutableClock();
+        final var cache = new RenderedViewCache(new TieredCache<>(16), () -> "", Duration.ofSeconds(60),
+                Duration.ofSeconds(30), Runnable::run, clock);
+        final var key = new RenderedViewKey("index", Map.of(), null);
+        cache.put(key, new RenderedPage(new byte[]{1}, "text/html", "\"01\"", clock.millis()));
+
+        clock.advance(Duration.ofSeconds(89));
+        assertThat(cache.get(key)).isNotNull();
+
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(cache.get(key)).isNull();
+        final var stats = cache.stats();
+        assertThat(stats.getExpired()).isEqualTo(1);
+        assertThat(stats.getHits()).isEqualTo(1);
+        assertThat(stats.getMisses()).isEqualTo(1);
+        assertThat(stats.getHitRate()).isEqualTo(0.5);
+    }
+
+    /**
+     * 이미 다시 렌더링하고 있는 페이지면 stale hit 마다 요청을 복사하지 않는다.
+     */
+    @Test
+    void requestIsCopiedOnlyForTheRefreshThatRuns() {
+        final var cache = new RenderedViewCache(new TieredCache<>(16), () -> "", Duration.ofSeconds(60),
+                Duration.ofSeconds(30), task -> {
+                }, new MutableClock());
+        final var key = new RenderedViewKey("index", Map.of(), null);
+        final var copies = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            cache.refresh(key, () -> {
+                copies.incrementAndGet();
+                return () -> null;
+            });
+        }
+
+        assertThat(copies).hasValue(1);
+    }
+
+    /**
+     * 백그라운드 렌더링 중 논블로킹으로 쓰는 뷰도 본문을 남긴다.
+     */
+    @Test
+    void detachedResponseAcceptsWriteListener() throws IOException {
+        final var response = new DetachedResponse();
+        final ServletOutputStream outputStream = response.getOutputStream();
+        final var errors = new ArrayList<Throwable>();
+
+        outputStream.setWriteListener(new WriteListener() {
+            @Override
+            public void onWritePossible() throws IOException {
+                outputStream.write(new byte[]{1, 2, 3});
+                throw new IOException("closed");
+            }
+
+            @Override
+            public void onError(final Throwable t) {
+                errors.add(t);
+            }
+        });
+
+        assertThat(response.getContentAsByteArray()).containsExactly(1, 2, 3);
+        assertThat(errors).singleElement().extracting(Throwable::getMessage).isEqualTo("closed");
+    }
+
+    @Test
+    void statsEndpoint() {
+        webTestClient.get()
+                .uri("/cache/stats/views")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.maxEntries").isEqualTo(256);
+    }
+
+    private MockHttpServletResponse render(final CachingView view) throws Exception {
+        final var request = new MockHttpServletRequest(webApplicationContext.getServletContext(), "GET", "/");
+        request.addPreferredLocale(Locale.KOREA);
+        final var response = new MockHttpServletResponse();
+        view.render(Map.of(), request, response);
+        return response;
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2022-08-01T00:00:00Z");
+
+        void advance(final Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.warmup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "cache.warmup.enabled=true",
+        "cache.warmup.paths-file=classpath:hot-paths.log",
+        "cache.view.enabled=true"
+})
+class CacheWarmerTest {
+
+    @Autowired
+    private CacheWarmer cacheWarmer;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    /**
+     * 접근 로그의 GET 경로를 요청 횟수 순서로 보내고, 그동안 채워진 페이지 캐시 항목 수를 보고한다.
+     */
+    @Test
+    void warmsUpBeforeReady() {
+        final WarmupReport report = cacheWarmer.getReport();
+
+        assertThat(report.getPaths()).isEqualTo(4);
+        assertThat(report.getSucceeded()).isEqualTo(3);
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(report.getStatuses()).containsEntry(200, 3).containsEntry(404, 1);
+        assertThat(report.getPopulated()).containsEntry("views", 3);
+
+        webTestClient.get()
+                .uri("/cache/stats/warmup")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.succeeded").isEqualTo(3);
+    }
+
+    @Test
+    void hotPathsAreOrderedByRequestCount() throws IOException {
+        final var log = String.join("\n",
+                "# 주석",
+                "/assets",
+                "10.0.0.1 - - [01/Aug/2022:10:00:00 +0900] \"GET /etag?lang=ko HTTP/1.1\" 200 215",
+                "10.0.0.1 - - [01/Aug/2022:10:00:01 +0900] \"GET /etag?lang=ko HTTP/2.0\" 200 215",
+                "10.0.0.1 - - [01/Aug/2022:10:00:02 +0900] \"HEAD / HTTP/1.1\" 200 0",
+                "",
+                "/");
+
+        assertThat(HotPaths.parse(new BufferedReader(new StringReader(log)), 10))
+                .containsExactly("/etag?lang=ko", "/assets", "/");
+        assertThat(HotPaths.parse(new BufferedReader(new StringReader(log)), 1))
+                .containsExactly("/etag?lang=ko");
+    }
+}
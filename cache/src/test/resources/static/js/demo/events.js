@@ -0,0 +1,116 @@
+/**
+ * demo/events.js
+ *
+ * 번들링 비교용 예제 모듈. 주석과 들여쓰기가 그대로 남아 있는 개발용 소스다.
+ */
+(function (global) {
+    'use strict';
+
+    // events 모듈이 공개하는 함수들을 모아 둔다.
+    var events = global.demo = global.demo || {};
+
+    /**
+     * events 의 1번째 기능. 입력 값을 정리해서 돌려준다.
+     * @param {string} value 원본 문자열
+     * @returns {string} 정리된 문자열
+     */
+    events.step1 = function (value) {
+        var trimmed = String(value || '').replace(/\s+/g, ' ').trim();  // 공백 정리
+        if (trimmed.length > 8) {
+            return trimmed.substring(0, 8) + '...';
+        }
+        return trimmed + ' / events-1';
+    };
+
+    /**
+     * events 의 2번째 기능. 입력 값을 정리해서 돌려준다.
+     * @param {string} value 원본 문자열
+     * @returns {string} 정리된 문자열
+     */
+    events.step2 = function (value) {
+        var trimmed = String(value || '').replace(/\s+/g, ' ').trim();  // 공백 정리
+        if (trimmed.length > 16) {
+            return trimmed.substring(0, 16) + '...';
+        }
+        return trimmed + ' / events-2';
+    };
+
+    /**
+     * events 의 3번째 기능. 입력 값을 정리해서 돌려준다.
+     * @param {string} value 원본 문자열
+     * @returns {string} 정리된 문자열
+     */
+    events.step3 = function (value) {
+        var trimmed = String(value || '').replace(/\s+/g, ' ').trim();  // 공백 정리
+        if (trimmed.length > 24) {
+            return trimmed.substring(0, 24) + '...';
+        }
+        return trimmed + ' / events-3';
+    };
+
+    /**
+     * events 의 4번째 기능. 입력 값을 정리해서 돌려준다.
+     * @param {string} value 원본 문자열
+     * @returns {string} 정리된 문자열
+     */
+    events.step4 = function (value) {
+        var trimmed = String(value || '').replace(/\s+/g, ' ').trim();  // 공백 정리
+        if (trimmed.length > 32) {
+            return trimmed.substring(0, 32) + '...';
+        }
+        return trimmed + ' / events-4';
+    };
+
+    /**
+     * events 의 5번째 기능. 입력 값을 정리해서 돌려준다.
+     * @param {string} value 원본 문자열
+     * @returns {string} 정리된 문자열
+     */
+    events.step5 = function (value) {
+        var trimmed = String(value || '').replace(/\s+/g, ' ').trim();  // 공백 정리
+        if (trimmed.length > 40) {
+            return trimmed.substring(0, 40) + '...';
+        }
+        return trimmed + ' / events-5';
+    };
+
+    /**
+     * events 의 6번째 기능. 입력 값을 정리해서 돌려준다.
+     * @param {string} value 원본 문자열
+     * @returns {string} 정리된 문자열
+     */
+    events.step6 = function (value) {
+        var trimmed = String(value || '').replace(/\s+/g, ' ').trim();  // 공백 정리
+        if (trimmed.length > 48) {
+            return trimmed.substring(0, 48) + '...';
+        }
+        return trimmed + ' / events-6';
+    };
+
+    /**
+     * events 의 7번째 기능. 입력 값을 정리해서 돌려준다.
+     * @param {string} value 원본 문자열
+     * @returns {string} 정리된 문자열
+     */
+    events.step7 = function (value) {
+        var trimmed = String(value || '').replace(/\s+/g, ' ').trim();  // 공백 정리
+        if (trimmed.length > 56) {
+            return trimmed.substring(0, 56) + '...';
+        }
+        return trimmed + ' / events-7';
+    };
+
+    /**
+     * events 의 8번째 기능. 입력 값을 정리해서 돌려준다.
+     * @param {string} value 원본 문자열
+     * @returns {string} 정리된 문자열
+     */
+    events.step8 = function (value) {
+        var trimmed = String(value || '').replace(/\s+/g, ' ').trim();  // 공백 정리
+        if (trimmed.length > 64) {
+            return trimmed.substring(0, 64) + '...';
+        }
+        return trimmed + ' / events-8';
+    };
+
+})(window);
@@ -0,0 +1,116 @@
+/**
+ * demo/format.js
+ *
+ * 번들링 비교용 예제 모듈. 주석과 들여쓰기가 그대로 남아 있는 개발용 소스다.
+ */
+(function (global) {
+    'use strict';
+
+    // format 모듈이 공개하는 함수들을 모아 둔다.
+    var format = global.demo = global.demo || {};
+
+    /**
+     * format 의 1번째 기능. 입력 값을 정리해서 돌려준다.
+     * @param {string} value 원본 문자열
+     * @returns {string} 정리된 문자열
+     */
+    format.step1 = function (value) {
+        var trimmed = String(value || '').replace(/\s+/g, ' ').trim();  // 공백 정리
+        if (trimmed.length > 8) {
+            return trimmed.substring(0, 8) + '...';
+        }
+        return trimmed + ' / format-1';
+    };
+
+    /**
+     * format 의 2번째 기능. 입력 값을 정리해서 돌려준다.
+     * @param {string} value 원본 문자열
+     * @returns {string} 정리된 문자열
+     */
+    format.step2 = function (value) {
+        var trimmed = String(value || '').replace(/\s+/g, ' ').trim();  // 공백 정리
+        if (trimmed.length > 16) {
+            return trimmed.substring(0, 16) + '...';
+        }
+        return trimmed + ' / format-2';
+    };
+
+    /**
+     * format 의 3번째 기능. 입력 값을 정리해서 돌려준다.
+     * @param {string} value 원본 문자열
+     * @returns {string} 정리된 문자열
+     */
+    format.step3 = function (value) {
+        var trimmed = String(value || '').replace(/\s+/g, ' ').trim();  // 공백 정리
+        if (trimmed.length > 24) {
+            return trimmed.substring(0, 24) + '...';
+        }
+        return trimmed + ' / format-3';
+    };
+
+    /**
+     * format 의 4번째 기능. 입력 값을 정리해서 돌려준다.
+     * @param {string} value 원본 문자열
+     * @returns {string} 정리된 문자열
+     */
+    format.step4 = function (value) {
+        var trimmed = String(value || '').replace(/\s+/g, ' ').trim();  // 공백 정리
+        if (trimmed.length > 32) {
+            return trimmed.substring(0, 32) + '...';
+        }
+        return trimmed + ' / format-4';
+    };
+
+    /**
+     * format 의 5번째 기능. 입력 값을 정리해서 돌려준다.
+     * @param {string} value 원본 문자열
+     * @returns {string} 정리된 문자열
+     */
+    format.step5 = function (value) {
+        var trimmed = String(value || '').replace(/\s+/g, ' ').trim();  // 공백 정리
+        if (trimmed.length > 40) {
+            return trimmed.substring(0, 40) + '...';
+        }
+        return trimmed + ' / format-5';
+    };
+
+    /**
+     * format 의 6번째 기능. 입력 값을 정리해서 돌려준다.
+     * @param {string} value 원본 문자열
+     * @returns {string} 정리된 문자열
+     */
+    format.step6 = function (value) {
+        var trimmed = String(value || '').replace(/\s+/g, ' ').trim();  // 공백 정리
+        if (trimmed.length > 48) {
+            return trimmed.substring(0, 48) + '...';
+        }
+        return trimmed + ' / format-6';
+    };
+
+    /**
+     * format 의 7번째 기능. 입력 값을 정리해서 돌려준다.
+     * @param {string} value 원본 문자열
+     * @returns {string} 정리된 문자열
+     */
+    format.step7 = function (value) {
+        var trimmed = String(value || '').replace(/\s+/g, ' ').trim();  // 공백 정리
+        if (trimmed.length > 56) {
+            return trimmed.substring(0, 56) + '...';
+        }
+        return trimmed + ' / format-7';
+    };
+
+    /**
+     * format 의 8번째 기능. 입력 값을 정리해서 돌려준다.
+     * @param {string} value 원본 문자열
+     * @returns {string} 정리된 문자열
+     */
+    format.step8 = function (value) {
+        var trimmed = String(value || '').replace(/\s+/g, ' ').trim();  // 공백 정리
+        if (trimmed.length > 64) {
+            return trimmed.substring(0, 64) + '...';
+        }
+        return trimmed + ' / format-8';
+    };
+
+})(window);
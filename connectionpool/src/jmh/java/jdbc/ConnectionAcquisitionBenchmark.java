@@ -0,0 +1,123 @@
+package jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import jdbc.pool.LockFreeDataSource;
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * getConnection() 과 close() 한 번에 드는 비용을 풀마다, 동시에 빌리는 스레드 수마다 잰다.
+ * Throughput 으로 초당 처리량을, SampleTime 으로 p50/p90/p99 지연을 본다.
+ *
+ * - raw: 풀 없이 JdbcDataSource 가 매번 새 세션을 연다.
+ * - h2: H2 의 JdbcConnectionPool
+ * - hikari, lock-free: DataSourceConfig 가 빈으로 만드는 것과 같은 설정의 풀
+ *
+ * 모두 같은 인메모리 H2 에 붙는다. 스레드 수가 maximumPoolSize 를 넘으면 풀에서 기다리는 시간이 함께 잡힌다.
+ *
+ * ./gradlew :connectionpool:jmh -PjmhIncludes=ConnectionAcquisitionBenchmark
+ * ./gradlew :connectionpool:jmh -PjmhIncludes='ConnectionAcquisitionBenchmark.Threads16' (스레드 수 하나만)
+ */
+public class ConnectionAcquisitionBenchmark {
+
+    private static final String H2_URL = "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1";
+
+    @State(Scope.Benchmark)
+    @BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    @Fork(1)
+    public abstract static class Acquisition {
+
+        @Param({"raw", "h2", "hikari", "lock-free"})
+        private String pool;
+
+        @Param({"" + DataSourceConfig.MAXIMUM_POOL_SIZE})
+        private int maximumPoolSize;
+
+        private DataSource dataSource;
+
+        @Setup
+        public void setUp() {
+            dataSource = createDataSource();
+        }
+
+        @TearDown
+        public void tearDown() throws IOException {
+            if (dataSource instanceof JdbcConnectionPool) {
+                ((JdbcConnectionPool) dataSource).dispose();
+            } else if (dataSource instanceof Closeable) {
+                ((Closeable) dataSource).close();
+            }
+        }
+
+        @Benchmark
+        public void acquireAndRelease(final Blackhole blackhole) throws SQLException {
+            try (Connection connection = dataSource.getConnection()) {
+                blackhole.consume(connection);
+            }
+        }
+
+        private DataSource createDataSource() {
+            final var h2 = new JdbcDataSource();
+            h2.setURL(H2_URL);
+            switch (pool) {
+                case "raw":
+                    return h2;
+                case "h2":
+                    final JdbcConnectionPool connectionPool = JdbcConnectionPool.create(h2);
+                    connectionPool.setMaxConnections(maximumPoolSize);
+                    return connectionPool;
+                case "hikari":
+                    final var hikariConfig = DataSourceConfig.hikariConfig(H2_URL);
+                    hikariConfig.setMaximumPoolSize(maximumPoolSize);
+                    return new HikariDataSource(hikariConfig);
+                case "lock-free":
+                    final var poolConfig = DataSourceConfig.poolConfig(H2_URL);
+                    poolConfig.setMaximumPoolSize(maximumPoolSize);
+                    return new LockFreeDataSource(poolConfig);
+                default:
+                    throw new IllegalArgumentException("Unknown pool: " + pool);
+            }
+        }
+    }
+
+    // @Threads 는 @Param 으로 바꿀 수 없으므로 스레드 수마다 하위 클래스를 둔다.
+
+    @Threads(1)
+    public static class Threads1 extends Acquisition {
+    }
+
+    @Threads(4)
+    public static class Threads4 extends Acquisition {
+    }
+
+    @Threads(16)
+    public static class Threads16 extends Acquisition {
+    }
+
+    @Threads(64)
+    public static class Threads64 extends Acquisition {
+    }
+}
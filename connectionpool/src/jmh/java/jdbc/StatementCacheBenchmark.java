@@ -0,0 +1,77 @@
+package jdbc;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import jdbc.pool.LockFreeDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 커넥션을 빌려서 PreparedStatement 를 prepare, 실행하고 돌려주는 요청 하나의 비용을
+ * lock-free 풀의 Statement 캐시를 끄고 켜서 비교한다.
+ * H2 는 세션마다 파싱한 쿼리를 캐시(QUERY_CACHE_SIZE)하므로 차이가 작다. 서버에서 prepare 하는 데이터베이스에서 차이가 커진다.
+ *
+ * ./gradlew :connectionpool:jmh -PjmhIncludes=StatementCacheBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class StatementCacheBenchmark {
+
+    private static final String H2_URL = "jdbc:h2:mem:statement-cache-benchmark;DB_CLOSE_DELAY=-1";
+    private static final int ROWS = 1_000;
+    private static final String SELECT = "SELECT name FROM member WHERE id = ?";
+
+    @Param({"false", "true"})
+    private String cachePrepStmts;
+
+    private LockFreeDataSource dataSource;
+
+    @Setup
+    public void setUp() throws SQLException {
+        final var poolConfig = DataSourceConfig.poolConfig(H2_URL);
+        poolConfig.addDataSourceProperty("cachePrepStmts", cachePrepStmts);
+        dataSource = new LockFreeDataSource(poolConfig);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS member (id INT PRIMARY KEY, name VARCHAR(20))");
+            statement.execute("MERGE INTO member SELECT x, 'member-' || x FROM SYSTEM_RANGE(1, " + ROWS + ")");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public String findById() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(SELECT)) {
+            statement.setInt(1, ThreadLocalRandom.current().nextInt(1, ROWS + 1));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getString(1);
+            }
+        }
+    }
+}
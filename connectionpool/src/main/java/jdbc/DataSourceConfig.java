@@ -2,6 +2,9 @@ package jdbc;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import jdbc.pool.LockFreeDataSource;
+import jdbc.pool.PoolConfig;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -11,16 +14,45 @@ import javax.sql.DataSource;
 public class DataSourceConfig {
 
     public static final int MAXIMUM_POOL_SIZE = 5;
+    // lock-free 풀은 크기를 정해 두지 않고 이 범위에서 AdaptivePoolSizer 가 조절한다.
+    private static final int ADAPTIVE_MINIMUM_POOL_SIZE = 2;
+    private static final int ADAPTIVE_MAXIMUM_POOL_SIZE = 20;
     private static final String H2_URL = "jdbc:h2:./test;DB_CLOSE_DELAY=-1";
     private static final String USER = "sa";
     private static final String PASSWORD = "";
 
 
+    /**
+     * datasource.pool 로 어떤 커넥션 풀을 쓸지 고른다. 따로 정하지 않으면 HikariCP 를 쓴다.
+     */
     @Bean
+    @ConditionalOnProperty(name = "datasource.pool", havingValue = "hikari", matchIfMissing = true)
     public DataSource hikariDataSource() {
+        return new HikariDataSource(hikariConfig(H2_URL));
+    }
+
+    /**
+     * jdbc.pool 패키지에 직접 구현한 커넥션 풀. HikariCP 와 같은 설정으로 만들되, 크기는 대기 시간과 쿼리 지연을 보고 정한다.
+     * 누수 감지는 벤치마크가 HikariCP 와 같은 조건에서 재도록 poolConfig() 가 아니라 여기서만 켠다.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "datasource.pool", havingValue = "lock-free")
+    public DataSource lockFreeDataSource() {
+        final var poolConfig = poolConfig(H2_URL);
+        poolConfig.setLeakDetectionThreshold(2_000);
+        poolConfig.setAdaptiveSizing(true);
+        poolConfig.setMinimumPoolSize(ADAPTIVE_MINIMUM_POOL_SIZE);
+        poolConfig.setMaximumPoolSize(ADAPTIVE_MAXIMUM_POOL_SIZE);
+        return new LockFreeDataSource(poolConfig);
+    }
+
+    /**
+     * 빈과 같은 설정으로 다른 데이터베이스에 붙는 풀을 만들 때 쓴다. (ConnectionAcquisitionBenchmark)
+     */
+    static HikariConfig hikariConfig(final String jdbcUrl) {
         final var hikariConfig = new HikariConfig();
         hikariConfig.setPoolName("gugu");
-        hikariConfig.setJdbcUrl(H2_URL);
+        hikariConfig.setJdbcUrl(jdbcUrl);
 //        hikariConfig.setUsername(USER);
 //        hikariConfig.setPassword(PASSWORD);
         hikariConfig.setMaximumPoolSize(MAXIMUM_POOL_SIZE);
@@ -28,7 +60,21 @@ public class DataSourceConfig {
         hikariConfig.addDataSourceProperty("cachePrepStmts", "true");
         hikariConfig.addDataSourceProperty("prepStmtCacheSize", "250");
         hikariConfig.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        return hikariConfig;
+    }
 
-        return new HikariDataSource(hikariConfig);
+    /**
+     * cachePrepStmts 계열 속성은 드라이버에 넘기지 않고 풀이 직접 읽어서 커넥션마다 PreparedStatement 를 캐시한다.
+     */
+    static PoolConfig poolConfig(final String jdbcUrl) {
+        final var poolConfig = new PoolConfig();
+        poolConfig.setPoolName("gugu");
+        poolConfig.setJdbcUrl(jdbcUrl);
+        poolConfig.setMaximumPoolSize(MAXIMUM_POOL_SIZE);
+        poolConfig.setConnectionTestQuery("VALUES 1");
+        poolConfig.addDataSourceProperty("cachePrepStmts", "true");
+        poolConfig.addDataSourceProperty("prepStmtCacheSize", "250");
+        poolConfig.addDataSourceProperty("prepStmtCacheSqlLimit", "2048");
+        return poolConfig;
     }
 }
@@ -0,0 +1,58 @@
+package jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jdbc.pool.LockFreeDataSource;
+import jdbc.pool.PoolMetricsSnapshot;
+import jdbc.pool.PoolStats;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.sql.DataSource;
+
+/**
+ * 커넥션 풀이 포화되었는지 볼 수 있도록 풀 상태와 대기 시간, 누수 보고를 조회한다.
+ */
+@RestController
+@RequestMapping("/pool")
+public class PoolStatsController {
+
+    private final DataSource dataSource;
+
+    public PoolStatsController(final DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * 전체, 사용 중, 놀고 있는 커넥션 수와 기다리는 스레드 수. HikariCP 도 같은 모양으로 보여준다.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<PoolStats> stats() {
+        if (dataSource instanceof LockFreeDataSource) {
+            return ResponseEntity.ok(((LockFreeDataSource) dataSource).getStats());
+        }
+        if (dataSource instanceof HikariDataSource) {
+            final var hikariDataSource = (HikariDataSource) dataSource;
+            final var pool = hikariDataSource.getHikariPoolMXBean();
+            if (pool == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(new PoolStats(pool.getTotalConnections(), pool.getActiveConnections(),
+                    pool.getIdleConnections(), pool.getThreadsAwaitingConnection(),
+                    hikariDataSource.getMaximumPoolSize()));
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    /**
+     * 대기 시간과 사용 시간 히스토그램(us), 타임아웃 횟수와 최근 누수 보고. LockFreeDataSource 일 때만 있다.
+     */
+    @GetMapping("/metrics")
+    public ResponseEntity<PoolMetricsSnapshot> metrics() {
+        if (dataSource instanceof LockFreeDataSource) {
+            return ResponseEntity.ok(((LockFreeDataSource) dataSource).getMetrics());
+        }
+        return ResponseEntity.notFound().build();
+    }
+}
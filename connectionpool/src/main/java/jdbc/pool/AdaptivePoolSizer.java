@@ -0,0 +1,143 @@
+package jdbc.pool;
+
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * 지난 구간에 잰 대기 시간과 사용 시간으로 풀 크기를 minimumPoolSize ~ maximumPoolSize 사이에서 조절한다.
+ *
+ * Netflix concurrency-limits 의 Gradient 방식을 따른다.
+ * - 사용 시간(쿼리 지연)이 기준 지연보다 LATENCY_TOLERANCE 배 넘게 늘어나면 DB 가 밀리는 것이다.
+ *   늘어난 비율(gradient)만큼 풀을 줄인다. 커넥션을 더 주면 DB 안에서 기다리는 시간만 늘어난다.
+ * - 대기 시간이 사용 시간에 비해 크면 커넥션이 모자란 것이다. 지연이 멀쩡하면 sqrt(크기)만큼, 아니면 하나씩 늘린다.
+ * - 둘 다 아니면 Little's law 로 실제로 쓰고 있는 커넥션 수(처리량 x 사용 시간)를 구하고 여유분만 남긴다.
+ *
+ * 늘릴 때는 바로 늘리고, 줄일 때는 SHRINK_PATIENCE 번 연속으로 줄이자는 판단이 나와야 줄인다.
+ * 지연 측정이 흔들려도 크기가 오르내리지 않게 하기 위해서다. 아무도 쓰지 않는 구간도 줄이자는 판단으로 센다.
+ */
+public class AdaptivePoolSizer implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptivePoolSizer.class);
+
+    private static final double LATENCY_TOLERANCE = 1.2;
+    private static final double MIN_GRADIENT = 0.5;
+    // 대기 시간이 사용 시간의 10% 를 넘으면 커넥션을 기다리느라 요청이 밀리고 있는 것으로 본다.
+    private static final double QUEUEING_THRESHOLD = 0.1;
+    private static final double HEADROOM = 1.5;
+    // 기준 지연은 최솟값을 따라가되, DB 가 영영 느려졌을 때를 위해 구간마다 1% 씩 현재 지연 쪽으로 올라간다.
+    private static final double BASELINE_DRIFT = 0.01;
+    private static final int SHRINK_PATIENCE = 3;
+
+    private final LockFreeDataSource pool;
+    private final int minimumPoolSize;
+    private final int maximumPoolSize;
+
+    private long lastNanos;
+    private PoolMetricsSnapshot last;
+    private double baselineLatency = Double.NaN;
+    private int shrinkVotes;
+
+    public AdaptivePoolSizer(final LockFreeDataSource pool, final int minimumPoolSize, final int maximumPoolSize) {
+        this.pool = pool;
+        this.minimumPoolSize = minimumPoolSize;
+        this.maximumPoolSize = maximumPoolSize;
+        this.lastNanos = System.nanoTime();
+        this.last = pool.getMetrics();
+    }
+
+    @Override
+    public void run() {
+        try {
+            adjust();
+        } catch (RuntimeException e) {
+            log.warn("{} - failed to adjust pool size", pool.getPoolName(), e);
+        }
+    }
+
+    /**
+     * 지난 호출 이후 구간을 보고 크기를 한 번 조절한다.
+     *
+     * @return 조절한 뒤의 풀 크기
+     */
+    public synchronized int adjust() {
+        final long now = System.nanoTime();
+        final PoolMetricsSnapshot current = pool.getMetrics();
+        final PoolMetricsSnapshot previous = last;
+        final double elapsedMicros = TimeUnit.NANOSECONDS.toMicros(now - lastNanos);
+        last = current;
+        lastNanos = now;
+
+        final int size = pool.getMaximumPoolSize();
+        final long completed = current.getUsageTime().getCount() - previous.getUsageTime().getCount();
+        final long acquired = current.getWaitTime().getCount() - previous.getWaitTime().getCount();
+        if (elapsedMicros <= 0) {
+            return size;
+        }
+        if (completed == 0 && acquired == 0 && pool.getStats().getActiveConnections() == 0) {
+            // 아무도 커넥션을 쓰지 않았다. 잴 지연은 없지만 쓰고 있는 커넥션도 없으므로 최소 크기까지 줄인다.
+            return resize(size, minimumPoolSize);
+        }
+        if (completed == 0) {
+            return size;
+        }
+
+        final double latency = windowMean(previous.getUsageTime(), current.getUsageTime());
+        if (latency <= 0) {
+            // 사용 시간은 마이크로초 단위로 잘리므로 1us 도 안 되게 쓰고 돌려준 구간은 0 이 된다.
+            // 기준 지연과 gradient 를 망가뜨리지 않도록 이 구간은 건너뛴다.
+            return size;
+        }
+        final double waitTime = acquired == 0 ? 0 : windowMean(previous.getWaitTime(), current.getWaitTime());
+        final boolean timedOut = current.getTimeouts() > previous.getTimeouts();
+        // Little's law: 동시에 빌려 가 있던 커넥션 수 = 처리량 x 들고 있던 시간
+        final double inUse = completed / elapsedMicros * latency;
+
+        baselineLatency = Double.isNaN(baselineLatency) || latency < baselineLatency
+                ? latency
+                : baselineLatency + (latency - baselineLatency) * BASELINE_DRIFT;
+        final double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, LATENCY_TOLERANCE * baselineLatency / latency));
+        final boolean queueing = timedOut || waitTime > latency * QUEUEING_THRESHOLD;
+
+        final double target;
+        if (queueing) {
+            target = size * gradient + (gradient < 1.0 ? 1 : Math.sqrt(size));
+        } else if (gradient < 1.0) {
+            target = size * gradient;
+        } else {
+            target = Math.min(size, inUse * HEADROOM + 1);
+        }
+        final int next = Math.max(minimumPoolSize, Math.min(maximumPoolSize, (int) Math.round(target)));
+
+        log.debug("{} - size={} next={} latency={}us baseline={}us wait={}us inUse={} gradient={}",
+                pool.getPoolName(), size, next, Math.round(latency), Math.round(baselineLatency), Math.round(waitTime),
+                inUse, gradient);
+
+        return resize(size, next);
+    }
+
+    /**
+     * 늘릴 때는 바로 늘리고, 줄일 때는 SHRINK_PATIENCE 번 연속으로 나와야 줄인다.
+     */
+    private int resize(final int size, final int next) {
+        if (next > size) {
+            shrinkVotes = 0;
+            pool.setMaximumPoolSize(next);
+            return next;
+        }
+        if (next < size && ++shrinkVotes >= SHRINK_PATIENCE) {
+            shrinkVotes = 0;
+            pool.setMaximumPoolSize(next);
+            return next;
+        }
+        if (next == size) {
+            shrinkVotes = 0;
+        }
+        return size;
+    }
+
+    private static double windowMean(final LatencySnapshot previous, final LatencySnapshot current) {
+        final long count = current.getCount() - previous.getCount();
+        return (current.getMean() * current.getCount() - previous.getMean() * previous.getCount()) / count;
+    }
+}
@@ -0,0 +1,116 @@
+package jdbc.pool;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Set;
+
+/**
+ * StatementCache 에서 꺼낸 PreparedStatement 를 감싼다. close() 하면 닫지 않고 캐시에 돌려준다.
+ *
+ * PreparedStatement 는 메서드가 백 개가 넘고 가로챌 것은 몇 개뿐이라 동적 프록시로 만든다.
+ * 파라미터가 아닌 설정(maxRows, queryTimeout 등)을 바꾼 Statement 는 다음 사용자가 그 설정을 물려받지 않도록 캐시에 돌려주지 않고 닫는다.
+ */
+final class CachedStatement implements InvocationHandler {
+
+    private static final Set<String> STATE_CHANGING_METHODS = Set.of(
+            "setMaxRows", "setLargeMaxRows", "setMaxFieldSize", "setQueryTimeout", "setFetchSize",
+            "setFetchDirection", "setEscapeProcessing", "setCursorName", "setPoolable", "closeOnCompletion");
+
+    private final Connection connection;
+    private final StatementCache cache;
+    private final StatementCache.Key key;
+    private final PreparedStatement delegate;
+
+    private boolean closed;
+    private boolean dirty;
+
+    private CachedStatement(final Connection connection, final StatementCache cache, final StatementCache.Key key,
+                            final PreparedStatement delegate) {
+        this.connection = connection;
+        this.cache = cache;
+        this.key = key;
+        this.delegate = delegate;
+    }
+
+    /**
+     * @param connection getConnection() 이 돌려줄 커넥션. 물리 커넥션이 새 나가지 않게 ProxyConnection 을 넘긴다.
+     */
+    static PreparedStatement wrap(final Connection connection, final StatementCache cache, final StatementCache.Key key,
+                                  final PreparedStatement delegate) {
+        return (PreparedStatement) Proxy.newProxyInstance(CachedStatement.class.getClassLoader(),
+                new Class<?>[]{PreparedStatement.class}, new CachedStatement(connection, cache, key, delegate));
+    }
+
+    @Override
+    public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+        switch (method.getName()) {
+            case "close":
+                close();
+                return null;
+            case "isClosed":
+                return closed;
+            case "getConnection":
+                checkOpen();
+                return connection;
+            case "unwrap":
+                checkOpen();
+                return ((Class<?>) args[0]).isInstance(delegate) ? delegate : delegate.unwrap((Class<?>) args[0]);
+            case "isWrapperFor":
+                checkOpen();
+                return ((Class<?>) args[0]).isInstance(delegate) || delegate.isWrapperFor((Class<?>) args[0]);
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "CachedStatement wrapping " + delegate;
+            default:
+                break;
+        }
+        checkOpen();
+        if (STATE_CHANGING_METHODS.contains(method.getName())) {
+            dirty = true;
+        }
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void checkOpen() throws SQLException {
+        if (closed) {
+            throw new SQLException("Statement is closed");
+        }
+    }
+
+    private void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (dirty) {
+            delegate.close();
+            return;
+        }
+        try {
+            final ResultSet resultSet = delegate.getResultSet();
+            if (resultSet != null) {
+                resultSet.close();
+            }
+            delegate.clearParameters();
+            delegate.clearBatch();
+            delegate.clearWarnings();
+        } catch (SQLException e) {
+            delegate.close();
+            throw e;
+        }
+        cache.offer(key, delegate);
+    }
+}
@@ -0,0 +1,147 @@
+package jdbc.pool;
+
+import static jdbc.pool.PoolEntry.STATE_IN_USE;
+import static jdbc.pool.PoolEntry.STATE_NOT_IN_USE;
+import static jdbc.pool.PoolEntry.STATE_REMOVED;
+import static jdbc.pool.PoolEntry.STATE_RESERVED;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntConsumer;
+
+/**
+ * 락 없이 커넥션을 빌려주고 돌려받는 자료구조. HikariCP 의 ConcurrentBag 과 같은 순서로 찾는다.
+ *
+ * 1. 이 스레드가 마지막으로 돌려준 커넥션. 같은 스레드가 다시 빌리는 경우가 대부분이라 경합 없이 끝난다.
+ * 2. 공유 목록을 훑으며 CAS 로 놀고 있는 커넥션을 차지한다.
+ * 3. 없으면 풀에 커넥션을 더 만들어 달라고 하고, 다른 스레드가 돌려주는 커넥션을 hand-off 큐에서 기다린다.
+ */
+class ConcurrentBag {
+
+    private final List<PoolEntry> sharedList = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<WeakReference<PoolEntry>> lastUsed = new ThreadLocal<>();
+    private final SynchronousQueue<PoolEntry> handoffQueue = new SynchronousQueue<>(true);
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final IntConsumer addItemListener;
+
+    /**
+     * @param addItemListener 기다리는 스레드 수를 받아 커넥션을 더 만들지 정한다.
+     */
+    ConcurrentBag(final IntConsumer addItemListener) {
+        this.addItemListener = addItemListener;
+    }
+
+    /**
+     * @return 시간 안에 빌리지 못하면 null
+     */
+    PoolEntry borrow(final long timeout, final TimeUnit unit) throws InterruptedException {
+        final WeakReference<PoolEntry> reference = lastUsed.get();
+        if (reference != null) {
+            final PoolEntry entry = reference.get();
+            if (entry != null && entry.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE)) {
+                return entry;
+            }
+        }
+
+        final int waiting = waiters.incrementAndGet();
+        try {
+            for (final PoolEntry entry : sharedList) {
+                if (entry.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE)) {
+                    // 다른 스레드가 가져갈 커넥션을 빼앗았을 수 있으니 그만큼 더 만들어 달라고 한다.
+                    if (waiting > 1) {
+                        addItemListener.accept(waiting - 1);
+                    }
+                    return entry;
+                }
+            }
+
+            addItemListener.accept(waiting);
+
+            long remaining = unit.toNanos(timeout);
+            do {
+                final long start = System.nanoTime();
+                final PoolEntry entry = handoffQueue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (entry == null || entry.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE)) {
+                    return entry;
+                }
+                remaining -= System.nanoTime() - start;
+            } while (remaining > 0);
+            return null;
+        } finally {
+            waiters.decrementAndGet();
+        }
+    }
+
+    /**
+     * 커넥션을 돌려준다. 기다리는 스레드가 있으면 그쪽에 바로 넘기고, 없으면 이 스레드의 마지막 커넥션으로 기억한다.
+     */
+    void requite(final PoolEntry entry) {
+        entry.setState(STATE_NOT_IN_USE);
+
+        for (int i = 0; waiters.get() > 0; i++) {
+            if (entry.getState() != STATE_NOT_IN_USE || handoffQueue.offer(entry)) {
+                return;
+            }
+            if ((i & 0xff) == 0xff) {
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(10));
+            } else {
+                Thread.yield();
+            }
+        }
+
+        lastUsed.set(new WeakReference<>(entry));
+    }
+
+    void add(final PoolEntry entry) {
+        sharedList.add(entry);
+
+        // 새 커넥션을 기다리는 스레드가 있다면 공유 목록을 다시 훑기 전에 직접 넘겨준다.
+        while (waiters.get() > 0 && entry.getState() == STATE_NOT_IN_USE && !handoffQueue.offer(entry)) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * 빌려 간 커넥션이나 reserve 한 커넥션만 뺄 수 있다. 놀고 있는 커넥션은 다른 스레드가 가져갈 수 있기 때문이다.
+     */
+    boolean remove(final PoolEntry entry) {
+        if (!entry.compareAndSet(STATE_IN_USE, STATE_REMOVED) && !entry.compareAndSet(STATE_RESERVED, STATE_REMOVED)) {
+            return false;
+        }
+        return sharedList.remove(entry);
+    }
+
+    /**
+     * 놀고 있는 커넥션을 아무도 빌려 가지 못하게 잡아 둔다.
+     */
+    boolean reserve(final PoolEntry entry) {
+        return entry.compareAndSet(STATE_NOT_IN_USE, STATE_RESERVED);
+    }
+
+    List<PoolEntry> values() {
+        return List.copyOf(sharedList);
+    }
+
+    int size() {
+        return sharedList.size();
+    }
+
+    int getCount(final int state) {
+        int count = 0;
+        for (final PoolEntry entry : sharedList) {
+            if (entry.getState() == state) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    int getWaitingThreadCount() {
+        return waiters.get();
+    }
+}
@@ -0,0 +1,56 @@
+package jdbc.pool;
+
+import java.util.List;
+
+/**
+ * leakDetectionThreshold 보다 오래 반납되지 않은 커넥션 하나
+ */
+public class LeakReport {
+
+    private final String connection;
+    private final String thread;
+    private final long borrowedAt;
+    private final long heldMillis;
+    private final List<String> stackTrace;
+
+    public LeakReport(final String connection, final String thread, final long borrowedAt, final long heldMillis,
+                      final List<String> stackTrace) {
+        this.connection = connection;
+        this.thread = thread;
+        this.borrowedAt = borrowedAt;
+        this.heldMillis = heldMillis;
+        this.stackTrace = stackTrace;
+    }
+
+    public String getConnection() {
+        return connection;
+    }
+
+    /**
+     * 커넥션을 빌려 간 스레드 이름
+     */
+    public String getThread() {
+        return thread;
+    }
+
+    /**
+     * 빌려 간 시각 (epoch millis)
+     */
+    public long getBorrowedAt() {
+        return borrowedAt;
+    }
+
+    /**
+     * 누수로 판단한 시점까지 들고 있던 시간
+     */
+    public long getHeldMillis() {
+        return heldMillis;
+    }
+
+    /**
+     * 빌려 간 곳의 스택. 스택을 남기지 않은 대여였다면 비어 있다. (PoolConfig.leakDetectionStackSampling)
+     */
+    public List<String> getStackTrace() {
+        return stackTrace;
+    }
+}
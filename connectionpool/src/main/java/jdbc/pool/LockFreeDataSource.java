@@ -0,0 +1,426 @@
+package jdbc.pool;
+
+import static jdbc.pool.PoolEntry.STATE_IN_USE;
+import static jdbc.pool.PoolEntry.STATE_NOT_IN_USE;
+
+import java.io.Closeable;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * ConcurrentBag 으로 커넥션을 빌려주는 커넥션 풀.
+ *
+ * getConnection() 은 락을 잡지 않는다. 물리 커넥션은 풀마다 하나 있는 스레드가 만들고,
+ * 빌려 간 쪽은 ProxyConnection 을 받아 close() 하면 커넥션이 풀로 돌아온다.
+ */
+public class LockFreeDataSource implements DataSource, Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(LockFreeDataSource.class);
+
+    // 이 시간 안에 쓰였던 커넥션은 살아 있는지 다시 확인하지 않는다.
+    private static final long ALIVE_BYPASS_WINDOW = TimeUnit.MILLISECONDS.toNanos(500);
+    private static final long MIN_LEAK_SCAN_INTERVAL = 100;
+
+    private final String poolName;
+    private final ConnectionFactory connectionFactory;
+    private final long connectionTimeout;
+    private final int validationTimeoutSeconds;
+    private final String connectionTestQuery;
+    private final int minimumIdle;
+    private final long leakDetectionThreshold;
+    private final int leakDetectionStackSampling;
+    private final int statementCacheSize;
+    private final int statementCacheSqlLimit;
+    private final ConcurrentBag bag;
+    private final PoolMetrics metrics = new PoolMetrics();
+    private final ThreadPoolExecutor connectionAdder;
+    private final ScheduledThreadPoolExecutor housekeeper;
+    // 만들고 있는 커넥션까지 센다. maximumPoolSize 를 넘지 않게 하는 데 쓴다.
+    private final AtomicInteger totalConnections = new AtomicInteger();
+
+    private volatile int maximumPoolSize;
+    private volatile boolean closed;
+    private volatile SQLException lastConnectionFailure;
+
+    public LockFreeDataSource(final PoolConfig config) {
+        config.validate();
+        this.poolName = config.getPoolName();
+        this.connectionFactory = connectionFactory(config);
+        this.connectionTimeout = config.getConnectionTimeout();
+        this.validationTimeoutSeconds = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(config.getValidationTimeout()));
+        this.connectionTestQuery = config.getConnectionTestQuery();
+        this.minimumIdle = config.getMinimumIdle();
+        this.maximumPoolSize = config.isAdaptiveSizing() ? config.getMinimumPoolSize() : config.getMaximumPoolSize();
+        this.leakDetectionThreshold = TimeUnit.MILLISECONDS.toNanos(config.getLeakDetectionThreshold());
+        this.leakDetectionStackSampling = config.getLeakDetectionStackSampling();
+        this.statementCacheSize = config.getStatementCacheSize();
+        this.statementCacheSqlLimit = config.getStatementCacheSqlLimit();
+        this.bag = new ConcurrentBag(this::addBagItem);
+        this.connectionAdder = new ThreadPoolExecutor(1, 1, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                daemonThreadFactory(poolName + " connection adder"));
+        connectionAdder.allowCoreThreadTimeOut(true);
+        this.housekeeper = new ScheduledThreadPoolExecutor(1, daemonThreadFactory(poolName + " housekeeper"));
+        housekeeper.setRemoveOnCancelPolicy(true);
+        if (leakDetectionThreshold > 0) {
+            final long interval = Math.max(MIN_LEAK_SCAN_INTERVAL, config.getLeakDetectionThreshold() / 2);
+            housekeeper.scheduleWithFixedDelay(this::detectLeaks, interval, interval, TimeUnit.MILLISECONDS);
+        }
+        if (config.isAdaptiveSizing()) {
+            final var sizer = new AdaptivePoolSizer(this, config.getMinimumPoolSize(), config.getMaximumPoolSize());
+            housekeeper.scheduleWithFixedDelay(sizer, config.getSizingInterval(), config.getSizingInterval(),
+                    TimeUnit.MILLISECONDS);
+        }
+        fillPool();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException(poolName + " - pool has been closed");
+        }
+        final long start = System.nanoTime();
+        final long deadline = start + TimeUnit.MILLISECONDS.toNanos(connectionTimeout);
+        try {
+            long remaining = deadline - start;
+            do {
+                final PoolEntry entry = bag.borrow(remaining, TimeUnit.NANOSECONDS);
+                if (entry == null) {
+                    break;
+                }
+                final long now = System.nanoTime();
+                if (now - entry.getLastAccessed() > ALIVE_BYPASS_WINDOW && !isAlive(entry)) {
+                    evict(entry);
+                } else {
+                    metrics.recordWait(now - start);
+                    entry.markBorrowed(now, captureBorrowStack());
+                    return new ProxyConnection(this, entry);
+                }
+                remaining = deadline - System.nanoTime();
+            } while (remaining > 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException(poolName + " - interrupted during connection acquisition", e);
+        }
+        metrics.recordTimeout();
+        throw new SQLTransientConnectionException(poolName + " - Connection is not available, request timed out after "
+                + connectionTimeout + "ms.", lastConnectionFailure);
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    /**
+     * 풀 크기를 바꾼다. 줄이면 놀고 있는 커넥션부터 닫고, 빌려 간 커넥션은 돌아오는 대로 닫는다.
+     */
+    public void setMaximumPoolSize(final int maximumPoolSize) {
+        if (maximumPoolSize < 1) {
+            throw new IllegalArgumentException("maximumPoolSize must be at least 1: " + maximumPoolSize);
+        }
+        final int previous = this.maximumPoolSize;
+        this.maximumPoolSize = maximumPoolSize;
+        if (maximumPoolSize > previous) {
+            fillPool();
+            return;
+        }
+        int excess = totalConnections.get() - maximumPoolSize;
+        for (final PoolEntry entry : bag.values()) {
+            if (excess <= 0) {
+                break;
+            }
+            if (bag.reserve(entry)) {
+                evict(entry);
+                excess--;
+            }
+        }
+    }
+
+    public PoolStats getStats() {
+        return new PoolStats(bag.size(), bag.getCount(STATE_IN_USE), bag.getCount(STATE_NOT_IN_USE),
+                bag.getWaitingThreadCount(), maximumPoolSize);
+    }
+
+    /**
+     * 대기 시간, 사용 시간 히스토그램과 타임아웃, 누수 보고, Statement 캐시 적중률
+     */
+    public PoolMetricsSnapshot getMetrics() {
+        return metrics.snapshot();
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * 놀고 있는 커넥션은 바로 닫고, 빌려 간 커넥션은 돌아오는 대로 닫는다.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        connectionAdder.shutdownNow();
+        housekeeper.shutdownNow();
+        for (final PoolEntry entry : bag.values()) {
+            if (bag.reserve(entry)) {
+                evict(entry);
+            }
+        }
+    }
+
+    /**
+     * ProxyConnection 이 close() 될 때 호출한다.
+     */
+    void recycle(final PoolEntry entry) {
+        final long now = System.nanoTime();
+        final long usedNanos = now - entry.getBorrowedAt();
+        metrics.recordUsage(usedNanos);
+        if (entry.isLeakReported()) {
+            log.info("{} - previously reported leaked connection {} on thread {} was returned after {}ms", poolName,
+                    entry.getConnection(), entry.getBorrowThread(), TimeUnit.NANOSECONDS.toMillis(usedNanos));
+        }
+        entry.markReturned();
+        if (closed || totalConnections.get() > maximumPoolSize) {
+            evict(entry);
+            return;
+        }
+        entry.touch(now);
+        bag.requite(entry);
+    }
+
+    /**
+     * 풀에서 빼고 물리 커넥션을 닫는다. 모자란 만큼은 다시 채운다. 풀을 줄이는 중이면 recycle() 도 여기로 온다.
+     */
+    void evict(final PoolEntry entry) {
+        if (bag.remove(entry)) {
+            totalConnections.decrementAndGet();
+            entry.closeQuietly();
+            if (!closed) {
+                fillPool();
+            }
+        }
+    }
+
+    /**
+     * 누수 검사를 켰을 때만, 그리고 leakDetectionStackSampling 번에 한 번꼴로 스택을 남긴다.
+     */
+    private Throwable captureBorrowStack() {
+        if (leakDetectionThreshold == 0) {
+            return null;
+        }
+        if (leakDetectionStackSampling > 1 && ThreadLocalRandom.current().nextInt(leakDetectionStackSampling) != 0) {
+            return null;
+        }
+        return new Exception("Apparent connection leak detected");
+    }
+
+    /**
+     * housekeeper 스레드가 주기적으로 빌려 간 커넥션을 훑는다. 대여마다 타이머를 거는 것보다 싸다.
+     */
+    private void detectLeaks() {
+        final long now = System.nanoTime();
+        for (final PoolEntry entry : bag.values()) {
+            if (entry.getState() != STATE_IN_USE || entry.isLeakReported()) {
+                continue;
+            }
+            final long borrowedAt = entry.getBorrowedAt();
+            final long heldNanos = now - borrowedAt;
+            if (borrowedAt == PoolEntry.NOT_BORROWED || heldNanos <= leakDetectionThreshold) {
+                continue;
+            }
+            entry.markLeakReported();
+            final Throwable stack = entry.getBorrowStack();
+            final long heldMillis = TimeUnit.NANOSECONDS.toMillis(heldNanos);
+            metrics.recordLeak(new LeakReport(entry.getConnection().toString(), entry.getBorrowThread(),
+                    entry.getBorrowedAtMillis(), heldMillis, stackTrace(stack)));
+            if (stack == null) {
+                log.warn("{} - connection leak detection triggered for {} on thread {}, held for {}ms "
+                        + "(stack trace not sampled)", poolName, entry.getConnection(), entry.getBorrowThread(), heldMillis);
+            } else {
+                log.warn("{} - connection leak detection triggered for {} on thread {}, held for {}ms, "
+                        + "stack trace follows", poolName, entry.getConnection(), entry.getBorrowThread(), heldMillis, stack);
+            }
+        }
+    }
+
+    private static List<String> stackTrace(final Throwable stack) {
+        if (stack == null) {
+            return List.of();
+        }
+        return Arrays.stream(stack.getStackTrace())
+                .map(StackTraceElement::toString)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    private boolean isAlive(final PoolEntry entry) {
+        final Connection connection = entry.getConnection();
+        try {
+            if (connectionTestQuery == null) {
+                return connection.isValid(validationTimeoutSeconds);
+            }
+            try (var statement = connection.createStatement()) {
+                statement.setQueryTimeout(validationTimeoutSeconds);
+                statement.execute(connectionTestQuery);
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+            }
+            return true;
+        } catch (SQLException e) {
+            log.warn("{} - failed to validate connection {}", poolName, connection, e);
+            return false;
+        }
+    }
+
+    /**
+     * ConcurrentBag 이 커넥션을 찾지 못했을 때 호출한다. 만들고 있는 커넥션이 기다리는 스레드보다 적으면 하나 더 만든다.
+     */
+    private void addBagItem(final int waiting) {
+        if (waiting - connectionAdder.getQueue().size() >= 0) {
+            submitAddConnection();
+        }
+    }
+
+    private void fillPool() {
+        final int shortfall = Math.min(minimumIdle - bag.getCount(STATE_NOT_IN_USE), maximumPoolSize - totalConnections.get())
+                - connectionAdder.getQueue().size();
+        for (int i = 0; i < shortfall; i++) {
+            submitAddConnection();
+        }
+    }
+
+    private void submitAddConnection() {
+        if (!closed) {
+            connectionAdder.execute(this::addConnection);
+        }
+    }
+
+    private void addConnection() {
+        int total;
+        do {
+            total = totalConnections.get();
+            if (closed || total >= maximumPoolSize) {
+                return;
+            }
+        } while (!totalConnections.compareAndSet(total, total + 1));
+
+        try {
+            final StatementCache statementCache = statementCacheSize > 0
+                    ? new StatementCache(statementCacheSize, statementCacheSqlLimit, metrics)
+                    : null;
+            final var entry = new PoolEntry(connectionFactory.newConnection(), statementCache);
+            bag.add(entry);
+            lastConnectionFailure = null;
+            // shutdownNow() 는 이미 커넥션을 만들고 있는 작업을 기다리지 않는다.
+            // close() 가 bag 을 훑은 뒤에 넣었다면 여기서 닫는다.
+            if (closed && bag.reserve(entry)) {
+                evict(entry);
+            }
+        } catch (SQLException e) {
+            totalConnections.decrementAndGet();
+            lastConnectionFailure = e;
+            log.debug("{} - cannot acquire connection from data source", poolName, e);
+        }
+    }
+
+    private static ThreadFactory daemonThreadFactory(final String name) {
+        return runnable -> {
+            final var thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static ConnectionFactory connectionFactory(final PoolConfig config) {
+        final DataSource dataSource = config.getDataSource();
+        final String username = config.getUsername();
+        final String password = config.getPassword();
+        if (dataSource != null) {
+            return username == null ? dataSource::getConnection : () -> dataSource.getConnection(username, password);
+        }
+        final var properties = new Properties();
+        properties.putAll(config.getDataSourceProperties());
+        if (username != null) {
+            properties.setProperty("user", username);
+        }
+        if (password != null) {
+            properties.setProperty("password", password);
+        }
+        final String jdbcUrl = config.getJdbcUrl();
+        return () -> DriverManager.getConnection(jdbcUrl, properties);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(final PrintWriter out) {
+    }
+
+    @Override
+    public void setLoginTimeout(final int seconds) {
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return 0;
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(final Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Wrapped DataSource is not an instance of " + iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(final Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    @Override
+    public String toString() {
+        return "LockFreeDataSource (" + poolName + ")";
+    }
+
+    @FunctionalInterface
+    private interface ConnectionFactory {
+        Connection newConnection() throws SQLException;
+    }
+}
@@ -0,0 +1,244 @@
+package jdbc.pool;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+
+/**
+ * LockFreeDataSource 설정. HikariConfig 와 같은 이름을 쓰므로 두 풀을 나란히 놓고 비교하기 쉽다.
+ */
+public class PoolConfig {
+
+    private static final long MIN_CONNECTION_TIMEOUT = 250;
+    // MySQL Connector/J 와 같은 이름, 같은 기본값을 쓴다. 드라이버가 지원하지 않아도 풀이 직접 캐시한다.
+    private static final String CACHE_PREP_STMTS = "cachePrepStmts";
+    private static final String PREP_STMT_CACHE_SIZE = "prepStmtCacheSize";
+    private static final String PREP_STMT_CACHE_SQL_LIMIT = "prepStmtCacheSqlLimit";
+    private static final String DEFAULT_PREP_STMT_CACHE_SIZE = "25";
+    private static final String DEFAULT_PREP_STMT_CACHE_SQL_LIMIT = "256";
+
+    private String poolName = "lock-free-pool";
+    private String jdbcUrl;
+    private String username;
+    private String password;
+    private DataSource dataSource;
+    private final Properties dataSourceProperties = new Properties();
+    private int maximumPoolSize = 10;
+    private int minimumIdle = -1;
+    private long connectionTimeout = TimeUnit.SECONDS.toMillis(30);
+    private long validationTimeout = TimeUnit.SECONDS.toMillis(5);
+    private String connectionTestQuery;
+    private long leakDetectionThreshold;
+    private int leakDetectionStackSampling = 16;
+    private boolean adaptiveSizing;
+    private int minimumPoolSize = 1;
+    private long sizingInterval = TimeUnit.SECONDS.toMillis(1);
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public void setPoolName(final String poolName) {
+        this.poolName = poolName;
+    }
+
+    public String getJdbcUrl() {
+        return jdbcUrl;
+    }
+
+    public void setJdbcUrl(final String jdbcUrl) {
+        this.jdbcUrl = jdbcUrl;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(final String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(final String password) {
+        this.password = password;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * 물리 커넥션을 만들 DataSource. 지정하면 jdbcUrl 대신 이것을 쓴다.
+     */
+    public void setDataSource(final DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    public Properties getDataSourceProperties() {
+        return dataSourceProperties;
+    }
+
+    /**
+     * jdbcUrl 로 커넥션을 만들 때 드라이버에 넘길 속성
+     */
+    public void addDataSourceProperty(final String name, final String value) {
+        dataSourceProperties.setProperty(name, value);
+    }
+
+    /**
+     * cachePrepStmts 가 true 일 때 커넥션마다 캐시할 PreparedStatement 수 (prepStmtCacheSize). 끄면 0 이다.
+     */
+    public int getStatementCacheSize() {
+        if (!Boolean.parseBoolean(dataSourceProperties.getProperty(CACHE_PREP_STMTS))) {
+            return 0;
+        }
+        return Integer.parseInt(dataSourceProperties.getProperty(PREP_STMT_CACHE_SIZE, DEFAULT_PREP_STMT_CACHE_SIZE));
+    }
+
+    /**
+     * 이보다 긴 SQL 은 캐시하지 않는다 (prepStmtCacheSqlLimit)
+     */
+    public int getStatementCacheSqlLimit() {
+        return Integer.parseInt(dataSourceProperties.getProperty(PREP_STMT_CACHE_SQL_LIMIT,
+                DEFAULT_PREP_STMT_CACHE_SQL_LIMIT));
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    /**
+     * adaptiveSizing 을 켜면 풀 크기의 상한이 된다.
+     */
+    public void setMaximumPoolSize(final int maximumPoolSize) {
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    /**
+     * 따로 정하지 않으면 maximumPoolSize 와 같다. 즉 풀을 최대 크기로 채워 둔다.
+     */
+    public int getMinimumIdle() {
+        return minimumIdle < 0 ? maximumPoolSize : minimumIdle;
+    }
+
+    public void setMinimumIdle(final int minimumIdle) {
+        this.minimumIdle = minimumIdle;
+    }
+
+    public long getConnectionTimeout() {
+        return connectionTimeout;
+    }
+
+    /**
+     * getConnection() 이 커넥션을 기다리는 최대 시간(ms)
+     */
+    public void setConnectionTimeout(final long connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    public long getValidationTimeout() {
+        return validationTimeout;
+    }
+
+    public void setValidationTimeout(final long validationTimeout) {
+        this.validationTimeout = validationTimeout;
+    }
+
+    public String getConnectionTestQuery() {
+        return connectionTestQuery;
+    }
+
+    /**
+     * 지정하지 않으면 Connection.isValid() 로 커넥션이 살아 있는지 확인한다.
+     */
+    public void setConnectionTestQuery(final String connectionTestQuery) {
+        this.connectionTestQuery = connectionTestQuery;
+    }
+
+    public long getLeakDetectionThreshold() {
+        return leakDetectionThreshold;
+    }
+
+    /**
+     * 이 시간(ms)보다 오래 반납하지 않은 커넥션을 누수로 보고한다. 0 이면 끈다.
+     */
+    public void setLeakDetectionThreshold(final long leakDetectionThreshold) {
+        this.leakDetectionThreshold = leakDetectionThreshold;
+    }
+
+    public int getLeakDetectionStackSampling() {
+        return leakDetectionStackSampling;
+    }
+
+    /**
+     * 대여 N 번에 한 번꼴로 빌려 간 곳의 스택을 남긴다. 1 이면 매번 남긴다.
+     * 스택을 남기는 비용이 커넥션을 빌리는 비용보다 크므로, 켜 둔 채로 운영하려면 샘플링한다.
+     */
+    public void setLeakDetectionStackSampling(final int leakDetectionStackSampling) {
+        this.leakDetectionStackSampling = leakDetectionStackSampling;
+    }
+
+    public boolean isAdaptiveSizing() {
+        return adaptiveSizing;
+    }
+
+    /**
+     * 켜면 minimumPoolSize 에서 시작해서 AdaptivePoolSizer 가 sizingInterval 마다
+     * minimumPoolSize ~ maximumPoolSize 사이에서 풀 크기를 조절한다.
+     */
+    public void setAdaptiveSizing(final boolean adaptiveSizing) {
+        this.adaptiveSizing = adaptiveSizing;
+    }
+
+    public int getMinimumPoolSize() {
+        return minimumPoolSize;
+    }
+
+    public void setMinimumPoolSize(final int minimumPoolSize) {
+        this.minimumPoolSize = minimumPoolSize;
+    }
+
+    public long getSizingInterval() {
+        return sizingInterval;
+    }
+
+    public void setSizingInterval(final long sizingInterval) {
+        this.sizingInterval = sizingInterval;
+    }
+
+    void validate() {
+        if (jdbcUrl == null && dataSource == null) {
+            throw new IllegalArgumentException("jdbcUrl or dataSource is required");
+        }
+        if (maximumPoolSize < 1) {
+            throw new IllegalArgumentException("maximumPoolSize must be at least 1: " + maximumPoolSize);
+        }
+        if (getMinimumIdle() > maximumPoolSize) {
+            throw new IllegalArgumentException("minimumIdle must not exceed maximumPoolSize: "
+                    + minimumIdle + " > " + maximumPoolSize);
+        }
+        if (connectionTimeout < MIN_CONNECTION_TIMEOUT) {
+            throw new IllegalArgumentException("connectionTimeout must be at least " + MIN_CONNECTION_TIMEOUT + "ms");
+        }
+        if (adaptiveSizing && (minimumPoolSize < 1 || minimumPoolSize > maximumPoolSize)) {
+            throw new IllegalArgumentException("minimumPoolSize must be between 1 and maximumPoolSize: "
+                    + minimumPoolSize + ", " + maximumPoolSize);
+        }
+        if (adaptiveSizing && sizingInterval <= 0) {
+            throw new IllegalArgumentException("sizingInterval must be positive: " + sizingInterval);
+        }
+        if (getStatementCacheSize() < 0 || getStatementCacheSqlLimit() < 0) {
+            throw new IllegalArgumentException("prepStmtCacheSize and prepStmtCacheSqlLimit must not be negative");
+        }
+        if (leakDetectionThreshold < 0) {
+            throw new IllegalArgumentException("leakDetectionThreshold must not be negative: " + leakDetectionThreshold);
+        }
+        if (leakDetectionStackSampling < 1) {
+            throw new IllegalArgumentException("leakDetectionStackSampling must be at least 1: "
+                    + leakDetectionStackSampling);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package jdbc.pool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * 풀에 들어 있는 물리 커넥션 하나. 누가 쓰고 있는지는 state 하나를 CAS 로 바꿔서 정한다.
+ */
+final class PoolEntry {
+
+    static final int STATE_NOT_IN_USE = 0;
+    static final int STATE_IN_USE = 1;
+    static final int STATE_REMOVED = -1;
+    static final int STATE_RESERVED = -2;
+    // CAS 로 차지한 뒤 markBorrowed() 전까지는 이 값이다. 누수 검사가 지난 대여 시각을 읽지 않게 한다.
+    static final long NOT_BORROWED = Long.MIN_VALUE;
+
+    private static final AtomicIntegerFieldUpdater<PoolEntry> STATE =
+            AtomicIntegerFieldUpdater.newUpdater(PoolEntry.class, "state");
+
+    private final Connection connection;
+    private final boolean autoCommit;
+    private final boolean readOnly;
+    private final int transactionIsolation;
+    private final String catalog;
+    private final int networkTimeout;
+    private final StatementCache statementCache;
+
+    private volatile int state;
+    private volatile long lastAccessed;
+
+    // 누수 검사 스레드가 읽는다. borrowedAt 을 마지막에 쓰므로 borrowedAt 을 먼저 읽으면 나머지도 보인다.
+    private String borrowThread;
+    private long borrowedAtMillis;
+    private Throwable borrowStack;
+    private volatile boolean leakReported;
+    private volatile long borrowedAt = NOT_BORROWED;
+
+    /**
+     * @param statementCache PreparedStatement 를 캐시하지 않으면 null
+     */
+    PoolEntry(final Connection connection, final StatementCache statementCache) throws SQLException {
+        this.connection = connection;
+        this.statementCache = statementCache;
+        // 빌려 간 쪽이 바꾼 설정을 반납할 때 되돌리기 위해 처음 값을 기억해 둔다.
+        this.autoCommit = connection.getAutoCommit();
+        this.readOnly = connection.isReadOnly();
+        this.transactionIsolation = connection.getTransactionIsolation();
+        this.catalog = connection.getCatalog();
+        this.networkTimeout = networkTimeout(connection);
+        this.lastAccessed = System.nanoTime();
+    }
+
+    boolean compareAndSet(final int expect, final int update) {
+        return STATE.compareAndSet(this, expect, update);
+    }
+
+    int getState() {
+        return state;
+    }
+
+    void setState(final int state) {
+        this.state = state;
+    }
+
+    Connection getConnection() {
+        return connection;
+    }
+
+    boolean getAutoCommit() {
+        return autoCommit;
+    }
+
+    boolean isReadOnly() {
+        return readOnly;
+    }
+
+    int getTransactionIsolation() {
+        return transactionIsolation;
+    }
+
+    String getCatalog() {
+        return catalog;
+    }
+
+    /**
+     * @return 드라이버가 지원하지 않으면 -1
+     */
+    int getNetworkTimeout() {
+        return networkTimeout;
+    }
+
+    StatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    long getLastAccessed() {
+        return lastAccessed;
+    }
+
+    void touch(final long now) {
+        lastAccessed = now;
+    }
+
+    /**
+     * @param borrowStack 스택을 남기지 않는 대여면 null
+     */
+    void markBorrowed(final long now, final Throwable borrowStack) {
+        this.borrowThread = Thread.currentThread().getName();
+        this.borrowedAtMillis = System.currentTimeMillis();
+        this.borrowStack = borrowStack;
+        this.leakReported = false;
+        this.borrowedAt = now;
+    }
+
+    void markReturned() {
+        borrowedAt = NOT_BORROWED;
+    }
+
+    long getBorrowedAt() {
+        return borrowedAt;
+    }
+
+    long getBorrowedAtMillis() {
+        return borrowedAtMillis;
+    }
+
+    String getBorrowThread() {
+        return borrowThread;
+    }
+
+    Throwable getBorrowStack() {
+        return borrowStack;
+    }
+
+    boolean isLeakReported() {
+        return leakReported;
+    }
+
+    void markLeakReported() {
+        leakReported = true;
+    }
+
+    void closeQuietly() {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    private static int networkTimeout(final Connection connection) throws SQLException {
+        try {
+            return connection.getNetworkTimeout();
+        } catch (SQLFeatureNotSupportedException | AbstractMethodError e) {
+            return -1;
+        }
+    }
+}
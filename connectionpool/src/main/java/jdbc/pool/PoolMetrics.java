@@ -0,0 +1,68 @@
+package jdbc.pool;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 커넥션을 기다린 시간과 들고 있던 시간, 타임아웃과 누수, Statement 캐시 적중을 센다.
+ */
+class PoolMetrics {
+
+    private static final int MAX_RECENT_LEAKS = 32;
+
+    private final LatencyHistogram waitTime = new LatencyHistogram();
+    private final LatencyHistogram usageTime = new LatencyHistogram();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder leaks = new LongAdder();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    private final LongAdder statementCacheEvictions = new LongAdder();
+    // 누수는 드물고 housekeeper 스레드만 기록하므로 락으로 충분하다.
+    private final Deque<LeakReport> recentLeaks = new ArrayDeque<>();
+
+    void recordWait(final long nanos) {
+        waitTime.recordNanos(nanos);
+    }
+
+    void recordUsage(final long nanos) {
+        usageTime.recordNanos(nanos);
+    }
+
+    void recordTimeout() {
+        timeouts.increment();
+    }
+
+    void recordStatementCache(final boolean hit) {
+        if (hit) {
+            statementCacheHits.increment();
+        } else {
+            statementCacheMisses.increment();
+        }
+    }
+
+    void recordStatementEviction() {
+        statementCacheEvictions.increment();
+    }
+
+    void recordLeak(final LeakReport report) {
+        leaks.increment();
+        synchronized (recentLeaks) {
+            if (recentLeaks.size() == MAX_RECENT_LEAKS) {
+                recentLeaks.removeLast();
+            }
+            recentLeaks.addFirst(report);
+        }
+    }
+
+    PoolMetricsSnapshot snapshot() {
+        final List<LeakReport> leakReports;
+        synchronized (recentLeaks) {
+            leakReports = List.copyOf(recentLeaks);
+        }
+        return new PoolMetricsSnapshot(waitTime.snapshot(), usageTime.snapshot(), timeouts.sum(), leaks.sum(),
+                leakReports, new StatementCacheStats(statementCacheHits.sum(), statementCacheMisses.sum(),
+                statementCacheEvictions.sum()));
+    }
+}
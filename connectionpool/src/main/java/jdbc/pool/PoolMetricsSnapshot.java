@@ -0,0 +1,60 @@
+package jdbc.pool;
+
+import java.util.List;
+
+public class PoolMetricsSnapshot {
+
+    private final LatencySnapshot waitTime;
+    private final LatencySnapshot usageTime;
+    private final long timeouts;
+    private final long leaks;
+    private final List<LeakReport> recentLeaks;
+    private final StatementCacheStats statementCache;
+
+    public PoolMetricsSnapshot(final LatencySnapshot waitTime, final LatencySnapshot usageTime, final long timeouts,
+                               final long leaks, final List<LeakReport> recentLeaks,
+                               final StatementCacheStats statementCache) {
+        this.waitTime = waitTime;
+        this.usageTime = usageTime;
+        this.timeouts = timeouts;
+        this.leaks = leaks;
+        this.recentLeaks = recentLeaks;
+        this.statementCache = statementCache;
+    }
+
+    /**
+     * getConnection() 을 호출해서 커넥션을 받기까지 걸린 시간
+     */
+    public LatencySnapshot getWaitTime() {
+        return waitTime;
+    }
+
+    /**
+     * 커넥션을 빌려서 close() 하기까지 들고 있던 시간
+     */
+    public LatencySnapshot getUsageTime() {
+        return usageTime;
+    }
+
+    /**
+     * connectionTimeout 안에 커넥션을 받지 못한 횟수
+     */
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    public long getLeaks() {
+        return leaks;
+    }
+
+    /**
+     * 가장 최근 것부터
+     */
+    public List<LeakReport> getRecentLeaks() {
+        return recentLeaks;
+    }
+
+    public StatementCacheStats getStatementCache() {
+        return statementCache;
+    }
+}
@@ -0,0 +1,59 @@
+package jdbc.pool;
+
+/**
+ * 풀의 한 순간 상태. 각 값을 따로 세므로 total 이 active + idle 과 잠깐 어긋날 수 있다.
+ */
+public class PoolStats {
+
+    private final int totalConnections;
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int threadsAwaitingConnection;
+    private final int maximumPoolSize;
+
+    public PoolStats(final int totalConnections, final int activeConnections, final int idleConnections,
+                     final int threadsAwaitingConnection, final int maximumPoolSize) {
+        this.totalConnections = totalConnections;
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.threadsAwaitingConnection = threadsAwaitingConnection;
+        this.maximumPoolSize = maximumPoolSize;
+    }
+
+    public int getTotalConnections() {
+        return totalConnections;
+    }
+
+    /**
+     * 빌려 가서 아직 close() 하지 않은 커넥션 수
+     */
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    /**
+     * getConnection() 에서 커넥션을 기다리고 있는 스레드 수
+     */
+    public int getThreadsAwaitingConnection() {
+        return threadsAwaitingConnection;
+    }
+
+    public int getMaximumPoolSize() {
+        return maximumPoolSize;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStats{" +
+                "total=" + totalConnections +
+                ", active=" + activeConnections +
+                ", idle=" + idleConnections +
+                ", waiting=" + threadsAwaitingConnection +
+                ", max=" + maximumPoolSize +
+                '}';
+    }
+}
@@ -0,0 +1,477 @@
+package jdbc.pool;
+
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.CallableStatement;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.NClob;
+import java.sql.PreparedStatement;
+import java.sql.SQLClientInfoException;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.SQLXML;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.sql.Struct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+
+/**
+ * getConnection() 마다 새로 만들어 빌려주는 커넥션. close() 하면 물리 커넥션을 닫지 않고 풀에 돌려준다.
+ *
+ * 돌려주기 전에 끝내지 않은 트랜잭션은 롤백하고, 열어 둔 Statement 를 닫고, 바꾼 설정을 처음 값으로 되돌린다.
+ * 다음에 빌려 가는 쪽이 앞사람의 흔적을 보지 않게 하기 위해서다.
+ * 캐시한 PreparedStatement 는 닫는 대신 물리 커넥션의 StatementCache 로 돌아가서 다음 대여 때 다시 쓰인다.
+ */
+class ProxyConnection implements Connection {
+
+    // 이만큼 쌓이면 이미 닫힌 Statement 를 목록에서 치운다.
+    private static final int STATEMENT_PRUNE_THRESHOLD = 16;
+
+    private final LockFreeDataSource pool;
+    private final PoolEntry entry;
+    private final Connection delegate;
+    private final List<Statement> openStatements = new ArrayList<>();
+
+    private boolean closed;
+    private boolean autoCommit;
+    private boolean readOnly;
+    private int transactionIsolation;
+    private String catalog;
+    private int networkTimeout;
+    private boolean schemaDirty;
+    private String originalSchema;
+
+    ProxyConnection(final LockFreeDataSource pool, final PoolEntry entry) {
+        this.pool = pool;
+        this.entry = entry;
+        this.delegate = entry.getConnection();
+        this.autoCommit = entry.getAutoCommit();
+        this.readOnly = entry.isReadOnly();
+        this.transactionIsolation = entry.getTransactionIsolation();
+        this.catalog = entry.getCatalog();
+        this.networkTimeout = entry.getNetworkTimeout();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            reset();
+        } catch (SQLException e) {
+            // 되돌리지 못한 커넥션은 다시 빌려주지 않는다.
+            pool.evict(entry);
+            throw e;
+        }
+        pool.recycle(entry);
+    }
+
+    @Override
+    public boolean isClosed() {
+        return closed;
+    }
+
+    private void reset() throws SQLException {
+        for (final Statement statement : openStatements) {
+            statement.close();
+        }
+        openStatements.clear();
+
+        if (!autoCommit) {
+            delegate.rollback();
+        }
+        if (autoCommit != entry.getAutoCommit()) {
+            delegate.setAutoCommit(entry.getAutoCommit());
+        }
+        if (readOnly != entry.isReadOnly()) {
+            delegate.setReadOnly(entry.isReadOnly());
+        }
+        if (transactionIsolation != entry.getTransactionIsolation()) {
+            delegate.setTransactionIsolation(entry.getTransactionIsolation());
+        }
+        if (!Objects.equals(catalog, entry.getCatalog())) {
+            delegate.setCatalog(entry.getCatalog());
+            clearStatementCache();
+        }
+        if (schemaDirty) {
+            delegate.setSchema(originalSchema);
+            clearStatementCache();
+        }
+        if (networkTimeout != entry.getNetworkTimeout()) {
+            // 빌려 간 쪽의 executor 는 이미 종료되었을 수 있으므로 호출한 스레드에서 바로 바꾼다.
+            delegate.setNetworkTimeout(Runnable::run, entry.getNetworkTimeout());
+        }
+        delegate.clearWarnings();
+    }
+
+    private Connection delegate() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection is closed");
+        }
+        return delegate;
+    }
+
+    private <T extends Statement> T track(final T statement) throws SQLException {
+        if (openStatements.size() >= STATEMENT_PRUNE_THRESHOLD) {
+            openStatements.removeIf(ProxyConnection::isStatementClosed);
+        }
+        openStatements.add(statement);
+        return statement;
+    }
+
+    /**
+     * 캐시를 켰으면 캐시에서 꺼내거나 새로 만들어 CachedStatement 로 감싼다.
+     * 컬럼 이름이나 번호를 받는 prepareStatement 는 드물어서 캐시하지 않는다.
+     */
+    private PreparedStatement prepare(final StatementCache.Key key, final StatementFactory factory) throws SQLException {
+        final Connection connection = delegate();
+        final StatementCache cache = entry.getStatementCache();
+        if (cache == null || !cache.isCacheable(key)) {
+            return track(factory.prepare(connection));
+        }
+        PreparedStatement statement = cache.take(key);
+        if (statement == null) {
+            statement = factory.prepare(connection);
+        }
+        return track(CachedStatement.wrap(this, cache, key, statement));
+    }
+
+    /**
+     * 스키마나 카탈로그가 바뀌면 같은 SQL 이라도 다른 테이블을 가리키므로 캐시를 비운다.
+     */
+    private void clearStatementCache() {
+        final StatementCache cache = entry.getStatementCache();
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private static boolean isStatementClosed(final Statement statement) {
+        try {
+            return statement.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    @Override
+    public Statement createStatement() throws SQLException {
+        return track(delegate().createStatement());
+    }
+
+    @Override
+    public Statement createStatement(final int resultSetType, final int resultSetConcurrency) throws SQLException {
+        return track(delegate().createStatement(resultSetType, resultSetConcurrency));
+    }
+
+    @Override
+    public Statement createStatement(final int resultSetType, final int resultSetConcurrency,
+                                     final int resultSetHoldability) throws SQLException {
+        return track(delegate().createStatement(resultSetType, resultSetConcurrency, resultSetHoldability));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql) throws SQLException {
+        return prepare(new StatementCache.Key(sql, -1, -1, -1, -1), connection -> connection.prepareStatement(sql));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql, final int resultSetType,
+                                              final int resultSetConcurrency) throws SQLException {
+        return prepare(new StatementCache.Key(sql, resultSetType, resultSetConcurrency, -1, -1),
+                connection -> connection.prepareStatement(sql, resultSetType, resultSetConcurrency));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql, final int resultSetType, final int resultSetConcurrency,
+                                              final int resultSetHoldability) throws SQLException {
+        return prepare(new StatementCache.Key(sql, resultSetType, resultSetConcurrency, resultSetHoldability, -1),
+                connection -> connection.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql, final int autoGeneratedKeys) throws SQLException {
+        return prepare(new StatementCache.Key(sql, -1, -1, -1, autoGeneratedKeys),
+                connection -> connection.prepareStatement(sql, autoGeneratedKeys));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql, final int[] columnIndexes) throws SQLException {
+        return track(delegate().prepareStatement(sql, columnIndexes));
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(final String sql, final String[] columnNames) throws SQLException {
+        return track(delegate().prepareStatement(sql, columnNames));
+    }
+
+    @Override
+    public CallableStatement prepareCall(final String sql) throws SQLException {
+        return track(delegate().prepareCall(sql));
+    }
+
+    @Override
+    public CallableStatement prepareCall(final String sql, final int resultSetType,
+                                         final int resultSetConcurrency) throws SQLException {
+        return track(delegate().prepareCall(sql, resultSetType, resultSetConcurrency));
+    }
+
+    @Override
+    public CallableStatement prepareCall(final String sql, final int resultSetType, final int resultSetConcurrency,
+                                         final int resultSetHoldability) throws SQLException {
+        return track(delegate().prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability));
+    }
+
+    @Override
+    public String nativeSQL(final String sql) throws SQLException {
+        return delegate().nativeSQL(sql);
+    }
+
+    @Override
+    public void setAutoCommit(final boolean autoCommit) throws SQLException {
+        delegate().setAutoCommit(autoCommit);
+        this.autoCommit = autoCommit;
+    }
+
+    @Override
+    public boolean getAutoCommit() throws SQLException {
+        return delegate().getAutoCommit();
+    }
+
+    @Override
+    public void commit() throws SQLException {
+        delegate().commit();
+    }
+
+    @Override
+    public void rollback() throws SQLException {
+        delegate().rollback();
+    }
+
+    @Override
+    public void rollback(final Savepoint savepoint) throws SQLException {
+        delegate().rollback(savepoint);
+    }
+
+    @Override
+    public DatabaseMetaData getMetaData() throws SQLException {
+        return delegate().getMetaData();
+    }
+
+    @Override
+    public void setReadOnly(final boolean readOnly) throws SQLException {
+        delegate().setReadOnly(readOnly);
+        this.readOnly = readOnly;
+    }
+
+    @Override
+    public boolean isReadOnly() throws SQLException {
+        return delegate().isReadOnly();
+    }
+
+    @Override
+    public void setCatalog(final String catalog) throws SQLException {
+        delegate().setCatalog(catalog);
+        this.catalog = catalog;
+        clearStatementCache();
+    }
+
+    @Override
+    public String getCatalog() throws SQLException {
+        return delegate().getCatalog();
+    }
+
+    @Override
+    public void setTransactionIsolation(final int level) throws SQLException {
+        delegate().setTransactionIsolation(level);
+        this.transactionIsolation = level;
+    }
+
+    @Override
+    public int getTransactionIsolation() throws SQLException {
+        return delegate().getTransactionIsolation();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return delegate().getWarnings();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        delegate().clearWarnings();
+    }
+
+    @Override
+    public Map<String, Class<?>> getTypeMap() throws SQLException {
+        return delegate().getTypeMap();
+    }
+
+    @Override
+    public void setTypeMap(final Map<String, Class<?>> map) throws SQLException {
+        delegate().setTypeMap(map);
+    }
+
+    @Override
+    public void setHoldability(final int holdability) throws SQLException {
+        delegate().setHoldability(holdability);
+    }
+
+    @Override
+    public int getHoldability() throws SQLException {
+        return delegate().getHoldability();
+    }
+
+    @Override
+    public Savepoint setSavepoint() throws SQLException {
+        return delegate().setSavepoint();
+    }
+
+    @Override
+    public Savepoint setSavepoint(final String name) throws SQLException {
+        return delegate().setSavepoint(name);
+    }
+
+    @Override
+    public void releaseSavepoint(final Savepoint savepoint) throws SQLException {
+        delegate().releaseSavepoint(savepoint);
+    }
+
+    @Override
+    public Clob createClob() throws SQLException {
+        return delegate().createClob();
+    }
+
+    @Override
+    public Blob createBlob() throws SQLException {
+        return delegate().createBlob();
+    }
+
+    @Override
+    public NClob createNClob() throws SQLException {
+        return delegate().createNClob();
+    }
+
+    @Override
+    public SQLXML createSQLXML() throws SQLException {
+        return delegate().createSQLXML();
+    }
+
+    /**
+     * 닫힌 커넥션이면 예외 대신 false 를 돌려준다 (Connection.isValid 규약).
+     */
+    @Override
+    public boolean isValid(final int timeout) throws SQLException {
+        return !closed && delegate.isValid(timeout);
+    }
+
+    @Override
+    public void setClientInfo(final String name, final String value) throws SQLClientInfoException {
+        if (closed) {
+            throw new SQLClientInfoException("Connection is closed", Map.of());
+        }
+        delegate.setClientInfo(name, value);
+    }
+
+    @Override
+    public void setClientInfo(final Properties properties) throws SQLClientInfoException {
+        if (closed) {
+            throw new SQLClientInfoException("Connection is closed", Map.of());
+        }
+        delegate.setClientInfo(properties);
+    }
+
+    @Override
+    public String getClientInfo(final String name) throws SQLException {
+        return delegate().getClientInfo(name);
+    }
+
+    @Override
+    public Properties getClientInfo() throws SQLException {
+        return delegate().getClientInfo();
+    }
+
+    @Override
+    public Array createArrayOf(final String typeName, final Object[] elements) throws SQLException {
+        return delegate().createArrayOf(typeName, elements);
+    }
+
+    @Override
+    public Struct createStruct(final String typeName, final Object[] attributes) throws SQLException {
+        return delegate().createStruct(typeName, attributes);
+    }
+
+    @Override
+    public void setSchema(final String schema) throws SQLException {
+        final Connection connection = delegate();
+        if (!schemaDirty) {
+            originalSchema = connection.getSchema();
+            schemaDirty = true;
+        }
+        connection.setSchema(schema);
+        clearStatementCache();
+    }
+
+    @Override
+    public String getSchema() throws SQLException {
+        return delegate().getSchema();
+    }
+
+    /**
+     * 물리 커넥션을 끊는다. 다시 쓸 수 없으므로 풀에서도 뺀다.
+     */
+    @Override
+    public void abort(final Executor executor) throws SQLException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        delegate.abort(executor);
+        pool.evict(entry);
+    }
+
+    @Override
+    public void setNetworkTimeout(final Executor executor, final int milliseconds) throws SQLException {
+        delegate().setNetworkTimeout(executor, milliseconds);
+        this.networkTimeout = milliseconds;
+    }
+
+    @Override
+    public int getNetworkTimeout() throws SQLException {
+        return delegate().getNetworkTimeout();
+    }
+
+    @Override
+    public <T> T unwrap(final Class<T> iface) throws SQLException {
+        final Connection connection = delegate();
+        if (iface.isInstance(connection)) {
+            return iface.cast(connection);
+        }
+        return connection.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+        final Connection connection = delegate();
+        return iface.isInstance(connection) || connection.isWrapperFor(iface);
+    }
+
+    @Override
+    public String toString() {
+        return "ProxyConnection wrapping " + delegate;
+    }
+
+    @FunctionalInterface
+    private interface StatementFactory {
+        PreparedStatement prepare(Connection connection) throws SQLException;
+    }
+}
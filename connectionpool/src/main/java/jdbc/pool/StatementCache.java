@@ -0,0 +1,113 @@
+package jdbc.pool;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 물리 커넥션 하나에 딸린 PreparedStatement 캐시. 같은 SQL 을 다시 prepare 하면 파싱과 실행 계획을 건너뛴다.
+ *
+ * 빌려 간 Statement 는 캐시에서 빼 두었다가 close() 할 때 돌려받는다. 그래서 캐시에는 놀고 있는 Statement 만 있고,
+ * 같은 SQL 을 동시에 두 번 prepare 해도 하나를 나눠 쓰지 않는다.
+ * 커넥션을 빌린 스레드만 쓰므로 동기화하지 않는다.
+ */
+class StatementCache {
+
+    private final int maxSize;
+    private final int sqlLimit;
+    private final PoolMetrics metrics;
+    // 삽입 순서 = 마지막으로 돌려받은 순서. 맨 앞이 가장 오래 쓰지 않은 Statement 다.
+    private final Map<Key, PreparedStatement> idle = new LinkedHashMap<>();
+
+    StatementCache(final int maxSize, final int sqlLimit, final PoolMetrics metrics) {
+        this.maxSize = maxSize;
+        this.sqlLimit = sqlLimit;
+        this.metrics = metrics;
+    }
+
+    boolean isCacheable(final Key key) {
+        return key.sql.length() <= sqlLimit;
+    }
+
+    /**
+     * @return 캐시에 없으면 null
+     */
+    PreparedStatement take(final Key key) {
+        final PreparedStatement statement = idle.remove(key);
+        metrics.recordStatementCache(statement != null);
+        return statement;
+    }
+
+    void offer(final Key key, final PreparedStatement statement) {
+        if (idle.putIfAbsent(key, statement) != null) {
+            // 같은 SQL 을 동시에 두 번 prepare 했던 경우. 하나만 남긴다.
+            closeQuietly(statement);
+            return;
+        }
+        if (idle.size() > maxSize) {
+            final Iterator<PreparedStatement> eldest = idle.values().iterator();
+            closeQuietly(eldest.next());
+            eldest.remove();
+            metrics.recordStatementEviction();
+        }
+    }
+
+    void clear() {
+        idle.values().forEach(StatementCache::closeQuietly);
+        idle.clear();
+    }
+
+    int size() {
+        return idle.size();
+    }
+
+    private static void closeQuietly(final PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+        }
+    }
+
+    /**
+     * SQL 과 ResultSet 옵션이 모두 같아야 같은 Statement 다. 지정하지 않은 옵션은 -1 이다.
+     */
+    static final class Key {
+
+        private final String sql;
+        private final int resultSetType;
+        private final int resultSetConcurrency;
+        private final int resultSetHoldability;
+        private final int autoGeneratedKeys;
+
+        Key(final String sql, final int resultSetType, final int resultSetConcurrency, final int resultSetHoldability,
+            final int autoGeneratedKeys) {
+            this.sql = sql;
+            this.resultSetType = resultSetType;
+            this.resultSetConcurrency = resultSetConcurrency;
+            this.resultSetHoldability = resultSetHoldability;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return resultSetType == key.resultSetType && resultSetConcurrency == key.resultSetConcurrency
+                    && resultSetHoldability == key.resultSetHoldability && autoGeneratedKeys == key.autoGeneratedKeys
+                    && sql.equals(key.sql);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sql, resultSetType, resultSetConcurrency, resultSetHoldability, autoGeneratedKeys);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package jdbc.pool;
+
+public class StatementCacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    public StatementCacheStats(final long hits, final long misses, final long evictions) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    /**
+     * 캐시에 있던 Statement 를 다시 쓴 횟수
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * prepStmtCacheSize 를 넘어서 가장 오래 쓰지 않은 Statement 를 닫은 횟수
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public double getHitRate() {
+        final long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,113 @@
+package jdbc.pool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptivePoolSizerTest {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptivePoolSizerTest.class);
+
+    private static final String H2_URL = "jdbc:h2:mem:adaptive;DB_CLOSE_DELAY=-1";
+    private static final long TICK_MILLIS = 200;
+
+    private LockFreeDataSource dataSource;
+    private volatile int clients;
+    private ExecutorService executor;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        clients = 0;
+        if (executor != null) {
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+        dataSource.close();
+    }
+
+    /**
+     * 32 개 스레드가 쉬지 않고 쿼리를 보내면 DB 가 감당하는 만큼(CAPACITY)보다 조금 큰 크기에서 멈춘다.
+     * 그 이상 늘리면 처리량은 그대로이고 쿼리 지연만 늘어나기 때문이다.
+     * 부하가 2 개 스레드로 줄면 Little's law 로 구한 만큼까지 줄어든다.
+     */
+    @Test
+    void convergesNearDatabaseCapacityAndShrinksWhenLoadDrops() throws SQLException, InterruptedException {
+        final var config = new PoolConfig();
+        config.setJdbcUrl(H2_URL);
+        config.setMaximumPoolSize(2);
+        dataSource = new LockFreeDataSource(config);
+        try (final var connection = dataSource.getConnection(); final var statement = connection.createStatement()) {
+            statement.execute("CREATE ALIAS IF NOT EXISTS WORK FOR 'jdbc.pool.SlowDatabase.work'");
+        }
+        final var sizer = new AdaptivePoolSizer(dataSource, 2, 32);
+
+        startClients(32);
+        final List<Integer> heavy = tick(sizer, 25);
+
+        assertThat(heavy.get(0)).isGreaterThan(2);
+        assertThat(heavy.subList(heavy.size() - 8, heavy.size()))
+                .allSatisfy(size -> assertThat(size).isBetween(SlowDatabase.CAPACITY, SlowDatabase.CAPACITY * 2));
+
+        clients = 2;
+        final List<Integer> light = tick(sizer, 20);
+
+        assertThat(light.get(light.size() - 1)).isLessThanOrEqualTo(4);
+        assertThat(dataSource.getStats().getTotalConnections()).isLessThanOrEqualTo(4);
+    }
+
+    /**
+     * 트래픽이 완전히 끊기면 잴 지연이 없어도 SHRINK_PATIENCE 구간 뒤에 최소 크기로 줄어든다.
+     */
+    @Test
+    void idlePoolShrinksToMinimum() throws SQLException, InterruptedException {
+        final var config = new PoolConfig();
+        config.setJdbcUrl(H2_URL);
+        config.setMaximumPoolSize(8);
+        dataSource = new LockFreeDataSource(config);
+        dataSource.getConnection().close();
+        final var sizer = new AdaptivePoolSizer(dataSource, 2, 32);
+
+        final List<Integer> idle = tick(sizer, 3);
+
+        assertThat(idle).containsExactly(8, 8, 2);
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(2);
+    }
+
+    private void startClients(final int count) {
+        clients = count;
+        executor = Executors.newFixedThreadPool(count);
+        for (int i = 0; i < count; i++) {
+            final int client = i;
+            executor.execute(() -> {
+                while (client < clients) {
+                    try (final var connection = dataSource.getConnection();
+                         final var statement = connection.createStatement()) {
+                        statement.execute("CALL WORK()");
+                    } catch (SQLException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+            });
+        }
+    }
+
+    private List<Integer> tick(final AdaptivePoolSizer sizer, final int ticks) throws InterruptedException {
+        final List<Integer> sizes = new ArrayList<>();
+        for (int i = 0; i < ticks; i++) {
+            Thread.sleep(TICK_MILLIS);
+            sizes.add(sizer.adjust());
+        }
+        log.info("pool size per {}ms: {}", TICK_MILLIS, sizes);
+        return sizes;
+    }
+}
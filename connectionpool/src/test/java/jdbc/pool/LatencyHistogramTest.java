@@ -0,0 +1,36 @@
+package jdbc.pool;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsKeepRelativeErrorWithinOneSixteenth() {
+        for (long value = 0; value < 10_000_000; value = value * 2 + 7) {
+            final long highest = LatencyHistogram.highestEquivalentValue(LatencyHistogram.bucketIndex(value));
+            assertThat(highest).isGreaterThanOrEqualTo(value);
+            assertThat(highest - value).isLessThanOrEqualTo(value / 16);
+        }
+    }
+
+    @Test
+    void percentiles() {
+        final var histogram = new LatencyHistogram();
+        for (int millis = 1; millis <= 1000; millis++) {
+            histogram.recordNanos(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+
+        final LatencySnapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.getCount()).isEqualTo(1000);
+        assertThat(snapshot.getMax()).isEqualTo(1_000_000);
+        assertThat(snapshot.getMean()).isCloseTo(500_500, within(1.0));
+        assertThat((double) snapshot.getP50()).isCloseTo(500_000, within(500_000 / 16.0));
+        assertThat((double) snapshot.getP99()).isCloseTo(990_000, within(990_000 / 16.0));
+        assertThat(snapshot.getP999()).isLessThanOrEqualTo(snapshot.getMax());
+    }
+}
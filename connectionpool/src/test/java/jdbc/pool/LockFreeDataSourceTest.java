@@ -0,0 +1,283 @@
+package jdbc.pool;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LockFreeDataSourceTest {
+
+    private static final String H2_URL = "jdbc:h2:mem:pool;DB_CLOSE_DELAY=-1";
+
+    private LockFreeDataSource dataSource;
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    /**
+     * close() 하면 물리 커넥션은 닫히지 않고 풀로 돌아온다.
+     * 같은 스레드가 다시 빌리면 방금 돌려준 커넥션을 받는다.
+     */
+    @Test
+    void closeReturnsConnectionToPool() throws SQLException {
+        dataSource = new LockFreeDataSource(config(2));
+
+        final Connection physical;
+        try (final var connection = dataSource.getConnection()) {
+            physical = connection.unwrap(Connection.class);
+            assertThat(dataSource.getStats().getActiveConnections()).isEqualTo(1);
+        }
+        assertThat(dataSource.getStats().getActiveConnections()).isZero();
+        assertThat(physical.isClosed()).isFalse();
+
+        try (final var connection = dataSource.getConnection()) {
+            assertThat(connection.unwrap(Connection.class)).isSameAs(physical);
+        }
+    }
+
+    @Test
+    void closedProxyCannotBeUsed() throws SQLException {
+        dataSource = new LockFreeDataSource(config(1));
+
+        final var connection = dataSource.getConnection();
+        connection.close();
+
+        assertThat(connection.isClosed()).isTrue();
+        assertThat(connection.isValid(1)).isFalse();
+        assertThatThrownBy(connection::createStatement).isInstanceOf(SQLException.class);
+    }
+
+    /**
+     * 커밋하지 않은 트랜잭션은 반납할 때 롤백하고, 바꾼 autoCommit 도 되돌린다.
+     */
+    @Test
+    void returnedConnectionIsReset() throws SQLException {
+        dataSource = new LockFreeDataSource(config(1));
+        try (final var connection = dataSource.getConnection(); final var statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS reset_test (id INT)");
+            statement.execute("DELETE FROM reset_test");
+        }
+
+        try (final var connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            connection.createStatement().execute("INSERT INTO reset_test VALUES (1)");
+        }
+
+        try (final var connection = dataSource.getConnection();
+             final var resultSet = connection.createStatement().executeQuery("SELECT COUNT(*) FROM reset_test")) {
+            assertThat(connection.getAutoCommit()).isTrue();
+            resultSet.next();
+            assertThat(resultSet.getInt(1)).isZero();
+        }
+    }
+
+    @Test
+    void timesOutWhenPoolIsExhausted() throws SQLException {
+        final var config = config(1);
+        config.setConnectionTimeout(300);
+        dataSource = new LockFreeDataSource(config);
+
+        final Connection connection = dataSource.getConnection();
+        try {
+            assertThatThrownBy(dataSource::getConnection)
+                    .isInstanceOf(SQLTransientConnectionException.class)
+                    .hasMessageContaining("request timed out after 300ms");
+        } finally {
+            connection.close();
+        }
+        assertThat(dataSource.getMetrics().getTimeouts()).isEqualTo(1);
+    }
+
+    /**
+     * leakDetectionThreshold 보다 오래 들고 있으면 빌려 간 스레드와 스택을 남긴다.
+     */
+    @Test
+    void reportsConnectionHeldLongerThanThreshold() throws SQLException, InterruptedException {
+        final var config = config(1);
+        config.setLeakDetectionThreshold(100);
+        config.setLeakDetectionStackSampling(1);
+        dataSource = new LockFreeDataSource(config);
+
+        final Connection connection = dataSource.getConnection();
+        try {
+            Thread.sleep(400);
+        } finally {
+            connection.close();
+        }
+
+        final PoolMetricsSnapshot metrics = dataSource.getMetrics();
+        assertThat(metrics.getLeaks()).isEqualTo(1);
+        final LeakReport leak = metrics.getRecentLeaks().get(0);
+        assertThat(leak.getThread()).isEqualTo(Thread.currentThread().getName());
+        assertThat(leak.getHeldMillis()).isGreaterThan(100);
+        assertThat(leak.getStackTrace()).anyMatch(frame -> frame.contains("reportsConnectionHeldLongerThanThreshold"));
+        assertThat(metrics.getUsageTime().getCount()).isEqualTo(1);
+        assertThat(metrics.getUsageTime().getMax()).isGreaterThanOrEqualTo(400_000);
+    }
+
+    /**
+     * Stage2Test 와 같은 상황. 리플렉션 없이 getStats() 로 풀 상태를 볼 수 있다.
+     */
+    @Test
+    void keepsMaximumPoolSizeUnderContention() throws InterruptedException {
+        dataSource = new LockFreeDataSource(config(5));
+        final var acquired = new AtomicInteger();
+
+        final var threads = new Thread[20];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    final Connection connection = dataSource.getConnection();
+                    try {
+                        acquired.incrementAndGet();
+                        Thread.sleep(100);
+                    } finally {
+                        connection.close();
+                    }
+                } catch (SQLException | InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+        }
+        for (final var thread : threads) {
+            thread.start();
+        }
+        for (final var thread : threads) {
+            thread.join();
+        }
+
+        final PoolStats stats = dataSource.getStats();
+        assertThat(acquired).hasValue(20);
+        assertThat(stats.getTotalConnections()).isEqualTo(5);
+        assertThat(stats.getIdleConnections()).isEqualTo(5);
+        assertThat(stats.getThreadsAwaitingConnection()).isZero();
+
+        // 20 개 스레드가 5 개 커넥션을 100ms 씩 나눠 쓰므로 마지막에 빌린 스레드는 300ms 가까이 기다렸다.
+        final LatencySnapshot waitTime = dataSource.getMetrics().getWaitTime();
+        assertThat(waitTime.getCount()).isEqualTo(20);
+        assertThat(waitTime.getMax()).isGreaterThanOrEqualTo(200_000);
+    }
+
+    /**
+     * 빌려 간 쪽이 바꾼 network timeout 은 다음에 빌려 가는 쪽에게 넘어가지 않는다.
+     */
+    @Test
+    void networkTimeoutIsRestoredOnReturn() throws SQLException {
+        final var h2DataSource = new JdbcDataSource();
+        h2DataSource.setURL(H2_URL);
+        final var config = new PoolConfig();
+        config.setDataSource(new DelegatingDataSource(h2DataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return networkTimeoutTracking(super.getConnection());
+            }
+        });
+        config.setMaximumPoolSize(1);
+        dataSource = new LockFreeDataSource(config);
+
+        try (final var connection = dataSource.getConnection()) {
+            connection.setNetworkTimeout(Runnable::run, 5_000);
+            assertThat(connection.getNetworkTimeout()).isEqualTo(5_000);
+        }
+
+        try (final var connection = dataSource.getConnection()) {
+            assertThat(connection.getNetworkTimeout()).isZero();
+        }
+    }
+
+    /**
+     * close() 할 때 만들고 있던 커넥션은 풀에 들어오자마자 닫는다.
+     */
+    @Test
+    void connectionAddedDuringCloseIsClosed() throws SQLException, InterruptedException {
+        final var connecting = new CountDownLatch(1);
+        final var release = new CountDownLatch(1);
+        final Connection[] created = new Connection[1];
+        final var h2DataSource = new JdbcDataSource();
+        h2DataSource.setURL(H2_URL);
+        final var config = new PoolConfig();
+        config.setDataSource(new DelegatingDataSource(h2DataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                created[0] = super.getConnection();
+                connecting.countDown();
+                awaitIgnoringInterrupt(release);
+                return created[0];
+            }
+        });
+        config.setMaximumPoolSize(1);
+        dataSource = new LockFreeDataSource(config);
+        assertThat(connecting.await(5, TimeUnit.SECONDS)).isTrue();
+
+        dataSource.close();
+        release.countDown();
+
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!created[0].isClosed() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(created[0].isClosed()).isTrue();
+        assertThat(dataSource.getStats().getTotalConnections()).isZero();
+    }
+
+    /**
+     * H2 는 network timeout 을 무시하므로 설정한 값을 기억하는 커넥션으로 감싼다.
+     */
+    private static Connection networkTimeoutTracking(final Connection connection) {
+        final int[] networkTimeout = {0};
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("setNetworkTimeout")) {
+                        networkTimeout[0] = (Integer) args[1];
+                        return null;
+                    }
+                    if (method.getName().equals("getNetworkTimeout")) {
+                        return networkTimeout[0];
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    /**
+     * shutdownNow() 가 건 인터럽트를 무시하고 커넥션을 다 만드는 드라이버를 흉내 낸다.
+     */
+    private static void awaitIgnoringInterrupt(final CountDownLatch latch) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static PoolConfig config(final int maximumPoolSize) {
+        final var config = new PoolConfig();
+        config.setJdbcUrl(H2_URL);
+        config.setMaximumPoolSize(maximumPoolSize);
+        return config;
+    }
+}
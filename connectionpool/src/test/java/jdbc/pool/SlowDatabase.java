@@ -0,0 +1,26 @@
+package jdbc.pool;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * H2 에 WORK() 함수로 등록해서 쓴다. 동시에 CAPACITY 개까지는 BASE_LATENCY 만에 끝나고,
+ * 그보다 많이 몰리면 CPU 를 나눠 쓰는 DB 처럼 동시 실행 수에 비례해서 느려진다.
+ */
+public class SlowDatabase {
+
+    static final int CAPACITY = 4;
+    private static final long BASE_LATENCY_MICROS = 5_000;
+
+    private static final AtomicInteger running = new AtomicInteger();
+
+    public static int work() throws InterruptedException {
+        final int concurrency = running.incrementAndGet();
+        try {
+            TimeUnit.MICROSECONDS.sleep(Math.round(BASE_LATENCY_MICROS * Math.max(1.0, (double) concurrency / CAPACITY)));
+            return concurrency;
+        } finally {
+            running.decrementAndGet();
+        }
+    }
+}
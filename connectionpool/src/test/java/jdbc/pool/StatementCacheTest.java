@@ -0,0 +1,107 @@
+package jdbc.pool;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatementCacheTest {
+
+    private static final String H2_URL = "jdbc:h2:mem:statement-cache;DB_CLOSE_DELAY=-1";
+    private static final String SELECT = "SELECT ? + 1";
+
+    private LockFreeDataSource dataSource;
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    /**
+     * H2 는 cachePrepStmts 를 무시하지만 풀이 커넥션마다 PreparedStatement 를 캐시한다.
+     * close() 한 Statement 는 다음 대여 때 같은 SQL 을 prepare 하면 그대로 다시 나온다.
+     */
+    @Test
+    void reusesPreparedStatementAcrossBorrows() throws SQLException {
+        dataSource = new LockFreeDataSource(config("25", "2048"));
+
+        final PreparedStatement first = physicalStatementOf(SELECT);
+        final PreparedStatement second = physicalStatementOf(SELECT);
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.isClosed()).isFalse();
+        final StatementCacheStats stats = dataSource.getMetrics().getStatementCache();
+        assertThat(stats.getHits()).isEqualTo(1);
+        assertThat(stats.getMisses()).isEqualTo(1);
+        assertThat(stats.getHitRate()).isEqualTo(0.5);
+    }
+
+    /**
+     * prepStmtCacheSize 를 넘으면 가장 오래 쓰지 않은 Statement 를 닫는다.
+     */
+    @Test
+    void evictsLeastRecentlyUsedStatement() throws SQLException {
+        dataSource = new LockFreeDataSource(config("2", "2048"));
+
+        final PreparedStatement eldest = physicalStatementOf("SELECT 1");
+        physicalStatementOf("SELECT 2");
+        physicalStatementOf("SELECT 3");
+
+        assertThat(eldest.isClosed()).isTrue();
+        assertThat(dataSource.getMetrics().getStatementCache().getEvictions()).isEqualTo(1);
+        assertThat(physicalStatementOf("SELECT 3").isClosed()).isFalse();
+        assertThat(dataSource.getMetrics().getStatementCache().getHits()).isEqualTo(1);
+    }
+
+    @Test
+    void skipsSqlLongerThanLimit() throws SQLException {
+        dataSource = new LockFreeDataSource(config("25", "5"));
+
+        final PreparedStatement statement = physicalStatementOf(SELECT);
+
+        assertThat(statement.isClosed()).isTrue();
+        assertThat(dataSource.getMetrics().getStatementCache().getMisses()).isZero();
+    }
+
+    /**
+     * 파라미터는 지우고 돌려주며, maxRows 처럼 설정을 바꾼 Statement 는 캐시하지 않는다.
+     */
+    @Test
+    void doesNotCacheStatementWithChangedSettings() throws SQLException {
+        dataSource = new LockFreeDataSource(config("25", "2048"));
+
+        final PreparedStatement changed;
+        try (final var connection = dataSource.getConnection(); final var statement = connection.prepareStatement(SELECT)) {
+            statement.setMaxRows(1);
+            statement.setInt(1, 41);
+            try (final var resultSet = statement.executeQuery()) {
+                resultSet.next();
+                assertThat(resultSet.getInt(1)).isEqualTo(42);
+            }
+            assertThat(statement.getConnection()).isSameAs(connection);
+            changed = statement.unwrap(PreparedStatement.class);
+        }
+
+        assertThat(changed.isClosed()).isTrue();
+        assertThat(physicalStatementOf(SELECT)).isNotSameAs(changed);
+    }
+
+    private PreparedStatement physicalStatementOf(final String sql) throws SQLException {
+        try (final var connection = dataSource.getConnection(); final var statement = connection.prepareStatement(sql)) {
+            return statement.unwrap(PreparedStatement.class);
+        }
+    }
+
+    private static PoolConfig config(final String cacheSize, final String sqlLimit) {
+        final var config = new PoolConfig();
+        config.setJdbcUrl(H2_URL);
+        config.setMaximumPoolSize(1);
+        config.addDataSourceProperty("cachePrepStmts", "true");
+        config.addDataSourceProperty("prepStmtCacheSize", cacheSize);
+        config.addDataSourceProperty("prepStmtCacheSqlLimit", sqlLimit);
+        return config;
+    }
+}